@@ -3,6 +3,7 @@ package com.greetingsapp.imagesapi.controller;
 import com.greetingsapp.imagesapi.dto.categories.CategoryResponseDTO;
 import com.greetingsapp.imagesapi.dto.categories.CreateCategoryDTO;
 import com.greetingsapp.imagesapi.dto.categories.UpdateCategoryDTO;
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
 import com.greetingsapp.imagesapi.services.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -13,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @Tag(name = "Admin: Gestion de categorias", description = "Controlador encargado de la gestion de las categorias.")
 @SecurityRequirement(name = "bearer-key")//se usa para indicar que un endpoint específico requiere autenticación o autorización
 @RestController
@@ -45,15 +48,18 @@ public class AdminCategoryController {
     }
 
     //--- Endpoint para eliminar una categoría ---
-    @Operation(summary = "Elimina una categoria")
+    @Operation(summary = "Elimina una categoria",
+            description = "Elimina tambien sus tematicas e imagenes. Si tiene muchas imagenes el borrado sigue "
+                    + "en segundo plano: responde 202 con el job, cuyo progreso se consulta en /api/admin/purge-jobs/{jobId}")
     @DeleteMapping("/{categoryId}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable Long categoryId) {
-        categoryService.deleteCategory(categoryId);
-
-        // La respuesta estándar para un DELETE exitoso es 204 No Content.
+    public ResponseEntity<PurgeJobDTO> deleteCategory(@PathVariable Long categoryId) {
+        // Categoria grande: 202 Accepted con el job y su URL de progreso
+        // En otro caso, la respuesta estándar para un DELETE exitoso es 204 No Content.
         // Esto le indica al cliente que la operación fue exitosa y que no hay
         // contenido que devolver en el cuerpo de la respuesta.
-        return ResponseEntity.noContent().build();
+        return categoryService.deleteCategory(categoryId)
+                .map(job -> ResponseEntity.accepted().location(URI.create("/api/admin/purge-jobs/" + job.jobId())).body(job))
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 }
 
@@ -1,19 +1,37 @@
 package com.greetingsapp.imagesapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.dto.images.BulkImportReportDTO;
 import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
 import com.greetingsapp.imagesapi.dto.images.UpdateImageDTO;
+import com.greetingsapp.imagesapi.infra.exports.ImageExportFormat;
+import com.greetingsapp.imagesapi.infra.imports.ImageImportReader;
+import com.greetingsapp.imagesapi.services.ImageBulkImportService;
+import com.greetingsapp.imagesapi.services.ImageExportService;
 import com.greetingsapp.imagesapi.services.ImageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
 @Tag(name = "Admin: Gestion de imagenes", description = "Controlador encargado de la gestion de las imagenes.")
 @SecurityRequirement(name = "bearer-key")//se usa para indicar que un endpoint específico requiere autenticación o autorización
 @RestController
@@ -24,6 +42,15 @@ public class AdminImageController {
     @Autowired
     private ImageService imageService;
 
+    @Autowired
+    private ImageBulkImportService imageBulkImportService;
+
+    @Autowired
+    private ImageExportService imageExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // --- Endpoint para crear una nueva imagen (con URL existente) ---
     // POST /api/admin/images
     @Operation(summary = "Crea una imagen con URL existente",
@@ -34,6 +61,47 @@ public class AdminImageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(newImage);
     }
 
+    // --- Endpoint para importar muchas imagenes en una sola peticion ---
+    // POST /api/admin/images/bulk
+    // El cuerpo se lee como stream (no se recibe como @RequestBody, que lo cargaria entero en memoria)
+    @Operation(summary = "Importa imagenes en lote desde NDJSON o CSV",
+            description = "Content-Type application/x-ndjson (un CreateImageDTO en JSON por linea) o text/csv "
+                    + "(cabecera name,description,url,themeId). Las filas invalidas no detienen la importacion: "
+                    + "se devuelven en el reporte con su numero de linea. Si la BD falla (caida, timeout, sobrecarga) "
+                    + "la importacion se detiene y el reporte parcial indica desde que linea reanudar (aborted, abortedAtLine).")
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportReportDTO> importImages(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+
+        try (Reader body = new InputStreamReader(request.getInputStream(), charset)) {
+            ImageImportReader reader = "csv".equals(contentType.getSubtype())
+                    ? ImageImportReader.csv(body)
+                    : ImageImportReader.ndjson(body, objectMapper);
+            return ResponseEntity.ok(imageBulkImportService.importImages(reader));
+        }
+    }
+
+    // --- Endpoint para exportar todo el catalogo ---
+    // GET /api/admin/images/export?format=NDJSON|CSV
+    // Se escribe directo en el stream de la respuesta a medida que se leen las filas (sin paginar ni COUNT)
+    @Operation(summary = "Exporta todas las imagenes en NDJSON o CSV",
+            description = "Incluye el nombre de la tematica y de la categoria de cada imagen. "
+                    + "El CSV usa las mismas columnas que la importacion masiva.")
+    @GetMapping("/export")
+    public void exportImages(@RequestParam(defaultValue = "NDJSON") ImageExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        imageExportService.exportImages(format, () -> {
+            response.setContentType(format.contentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("images-" + LocalDate.now() + "." + format.extension())
+                    .build().toString());
+            return response.getOutputStream();
+        });
+    }
+
     // --- Endpoint para actualizar una imagen ---
     // PUT /api/admin/images/{imageId}
     @Operation(summary = "Actualiza una imagen existente")
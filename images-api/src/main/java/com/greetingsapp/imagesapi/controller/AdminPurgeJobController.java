@@ -0,0 +1,32 @@
+package com.greetingsapp.imagesapi.controller;
+
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
+import com.greetingsapp.imagesapi.services.CatalogPurgeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Admin: Borrados en segundo plano", description = "Progreso de los borrados grandes de categorias y tematicas.")
+@SecurityRequirement(name = "bearer-key")
+@RestController
+@RequestMapping("/api/admin/purge-jobs")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminPurgeJobController {
+
+    @Autowired
+    private CatalogPurgeService catalogPurgeService;
+
+    // GET /api/admin/purge-jobs/{jobId}
+    @Operation(summary = "Consulta el progreso de un borrado en segundo plano",
+            description = "El estado del job se guarda en memoria de la instancia que acepto el borrado: "
+                    + "detras de un balanceador, otra instancia responde 404, y tras un reinicio el job ya no existe. "
+                    + "Los ultimos app.purge.history-size jobs quedan disponibles para consultar su resultado.")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PurgeJobDTO> getPurgeJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(catalogPurgeService.getJob(jobId));
+    }
+}
@@ -1,5 +1,6 @@
 package com.greetingsapp.imagesapi.controller;
 
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
 import com.greetingsapp.imagesapi.dto.themes.CreateThemeDTO;
 import com.greetingsapp.imagesapi.dto.themes.ThemeResponseDTO;
 import com.greetingsapp.imagesapi.dto.themes.UpdateThemeDTO;
@@ -15,6 +16,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @Tag(name = "Admin: Gestion de tematicas")
 @SecurityRequirement(name = "bearer-key")//se usa para indicar que un endpoint específico requiere autenticación o autorización
 @RestController
@@ -42,10 +45,14 @@ public class AdminThemeController {
     }
 
     // DELETE /api/admin/themes/{themeId}
-    @Operation(summary = "Elimina una tematica")
+    // 204, o 202 con el job de borrado si la tematica tiene muchas imagenes
+    @Operation(summary = "Elimina una tematica",
+            description = "Elimina tambien sus imagenes. Si tiene muchas el borrado sigue en segundo plano: "
+                    + "responde 202 con el job, cuyo progreso se consulta en /api/admin/purge-jobs/{jobId}")
     @DeleteMapping("/{themeId}")
-    public ResponseEntity<Void> deleteTheme(@PathVariable Long themeId) {
-        themeService.deleteTheme(themeId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<PurgeJobDTO> deleteTheme(@PathVariable Long themeId) {
+        return themeService.deleteTheme(themeId)
+                .map(job -> ResponseEntity.accepted().location(URI.create("/api/admin/purge-jobs/" + job.jobId())).body(job))
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -34,4 +35,12 @@ public class AdminUserController {
         UserResponseDTO newUser = userService.createUser(createUserDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(newUser);
     }
+
+    @Operation(summary = "Revoca todas las sesiones de un usuario",
+            description = "Invalida todos los JWT emitidos hasta ahora para el usuario (ej: cuenta comprometida).")
+    @PostMapping("/{userId}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long userId) {
+        userService.revokeTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -3,17 +3,21 @@ package com.greetingsapp.imagesapi.controller;
 import com.greetingsapp.imagesapi.domain.users.User;
 import com.greetingsapp.imagesapi.dto.authentication.LoginDTO;
 import com.greetingsapp.imagesapi.dto.authentication.TokenResponseDTO;
+import com.greetingsapp.imagesapi.infra.authentication.TokenRevocationList;
 import com.greetingsapp.imagesapi.infra.authentication.TokenService;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -29,6 +33,9 @@ public class AuthenticationController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     /**
      * Endpoint de login con Rate Limiter estricto (10 peticiones/segundo)
      * para prevenir ataques de fuerza bruta.
@@ -49,4 +56,17 @@ public class AuthenticationController {
         // Devuelve el token en la respuesta.
         return ResponseEntity.ok(new TokenResponseDTO(token));
     }
+
+    /**
+     * Logout: revoca el token con el que se hace la peticion (por su jti) hasta que expire.
+     */
+    @Operation(summary = "Logout", description = "Revoca el JWT actual; deja de ser aceptado aunque no haya expirado.")
+    @SecurityRequirement(name = "bearer-key")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        // El filtro JWT ya valido el token; aqui solo se extraen sus claims
+        var claims = tokenService.verify(authorization.substring("Bearer ".length()));
+        tokenRevocationList.revoke(claims);
+        return ResponseEntity.noContent().build();
+    }
 }
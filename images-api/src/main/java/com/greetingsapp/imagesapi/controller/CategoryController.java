@@ -2,7 +2,9 @@ package com.greetingsapp.imagesapi.controller;
 
 import com.greetingsapp.imagesapi.dto.categories.CategoryResponseDTO;
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.dto.pagination.CursorPageDTO;
 import com.greetingsapp.imagesapi.dto.themes.ThemeResponseDTO;
+import com.greetingsapp.imagesapi.infra.pagination.KeysetCursor;
 import com.greetingsapp.imagesapi.services.CategoryService;
 import com.greetingsapp.imagesapi.services.ImageService;
 import com.greetingsapp.imagesapi.services.ThemeService;
@@ -17,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -56,4 +59,15 @@ public class CategoryController {
 
         return ResponseEntity.ok(imageService.getImagesByCategory(categoryId, pageable));
     }
+
+    // Modo cursor (opt-in): GET /api/categories/{categoryId}/images?cursor=&size=20
+    @Operation(summary = "Obtiene las imágenes de una categoría paginadas por cursor (scroll infinito).",
+            description = "Envia 'cursor' vacio para la primera pagina y luego el 'nextCursor' recibido. No devuelve el total.")
+    @GetMapping(value = "/{categoryId}/images", params = "cursor")
+    public ResponseEntity<CursorPageDTO<ImageResponseDTO>> getImagesByCategoryCursor(
+            @PathVariable Long categoryId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(imageService.getImagesByCategoryCursor(categoryId, KeysetCursor.decode(cursor), size));
+    }
 }
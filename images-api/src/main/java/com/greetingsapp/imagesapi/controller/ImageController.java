@@ -1,6 +1,8 @@
 package com.greetingsapp.imagesapi.controller;
 
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.dto.pagination.CursorPageDTO;
+import com.greetingsapp.imagesapi.infra.pagination.KeysetCursor;
 import com.greetingsapp.imagesapi.services.ImageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -34,9 +36,23 @@ public class ImageController {
         return ResponseEntity.ok(imageService.getAllImages(pageable));
     }
 
+    // Modo cursor (opt-in): se activa al enviar el parametro 'cursor'.
+    // Primera pagina: GET /api/images?cursor=&size=20
+    // Siguientes: GET /api/images?cursor={nextCursor}&size=20
+    @Operation(summary = "Obtiene todas las imagenes paginadas por cursor (scroll infinito).",
+            description = "Envia 'cursor' vacio para la primera pagina y luego el 'nextCursor' recibido. No devuelve el total.")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<ImageResponseDTO>> getAllImagesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(imageService.getAllImagesByCursor(KeysetCursor.decode(cursor), size));
+    }
+
     //Endpoint de búsqueda
     // Ejemplo de uso: GET /api/images/search?q=amor
-    @Operation(summary = "Busca imágenes por nombre o descripción")
+    @Operation(summary = "Busca imágenes por nombre o descripción",
+            description = "Tambien busca en el nombre de la tematica y la categoria. Ignora acentos y guiones; "
+                    + "los resultados se ordenan por relevancia.")
     @GetMapping("/search")
     public ResponseEntity<Page<ImageResponseDTO>> searchImages(
             @RequestParam String q, // 'q' es el estándar para queries de búsqueda
@@ -1,6 +1,8 @@
 package com.greetingsapp.imagesapi.controller;
 
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.dto.pagination.CursorPageDTO;
+import com.greetingsapp.imagesapi.infra.pagination.KeysetCursor;
 import com.greetingsapp.imagesapi.services.ImageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Public: Temáticas", description = "Endpoints públicos para consultar temáticas y sus recursos asociados.")
@@ -32,4 +35,15 @@ public class ThemeController {
         //Page<ImageResponseDTO> images = imageService.getImages(themeId, pageable);
         //return ResponseEntity.ok(images);
     }
+
+    // Modo cursor (opt-in): GET /api/themes/{themeId}/images?cursor=&size=20
+    @Operation(summary = "Obtiene las imagenes de una tematica paginadas por cursor (scroll infinito).",
+            description = "Envia 'cursor' vacio para la primera pagina y luego el 'nextCursor' recibido. No devuelve el total.")
+    @GetMapping(value = "/{themeId}/images", params = "cursor")
+    public ResponseEntity<CursorPageDTO<ImageResponseDTO>> getImagesByThemeCursor(
+            @PathVariable Long themeId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(imageService.getImagesByCursor(themeId, KeysetCursor.decode(cursor), size));
+    }
 }
@@ -2,25 +2,31 @@ package com.greetingsapp.imagesapi.domain.categories;
 
 import com.greetingsapp.imagesapi.domain.common.AuditableBaseEntity;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.infra.cache.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Setter
 @Getter
-@Table(name = "categories")
+@Table(name = "categories", uniqueConstraints = @UniqueConstraint(name = "uk_categories_name", columnNames = "name"))
+// Dato de referencia: se guarda en la cache de segundo nivel (ver SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CATEGORIES)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Category extends AuditableBaseEntity {
 
-    //unique = true: El valor en la columna name debe ser único en esa tabla
+    //uk_categories_name (@Table): El valor en la columna name debe ser único en esa tabla
     //nullable = false: La columna name no puede quedar vacía
-    @Column(name = "name", nullable = false, unique = true)
+    @Column(name = "name", nullable = false)
     private String name;
 
     //Una categoria (one) puede tener muchas tematicas (ToMany).
@@ -28,7 +34,9 @@ public class Category extends AuditableBaseEntity {
     // La configuración de la unión ya está definida en el campo 'category' de la clase Theme."
     // fetch = LAZY: Las temáticas NO se cargan automáticamente (evita N+1).
     // Solo se cargan si se accede explícitamente a getThemes().
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    // Sin cascade ni orphanRemoval: al borrar una categoria Hibernate cargaria y borraria una a una
+    // todas sus tematicas e imagenes. El borrado lo hace CatalogPurgeService con DELETE set-based.
+    @OneToMany(mappedBy = "category", fetch = FetchType.LAZY)
     private List<Theme> themes;
 
 }
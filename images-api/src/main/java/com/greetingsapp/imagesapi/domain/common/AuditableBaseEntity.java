@@ -19,6 +19,8 @@ import java.time.Instant;
 //se marca como una clase abstracta con el fin de poder usar propiedades comunes.
 public abstract class AuditableBaseEntity {
 
+    // Ids AUTO_INCREMENT: Hibernate no agrupa estos INSERT en lotes, la importacion masiva y la carga
+    // inicial insertan con un lote JDBC propio (ver AuditableBatchInsert)
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id; //clave primaria de la entidad
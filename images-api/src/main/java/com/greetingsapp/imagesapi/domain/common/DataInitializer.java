@@ -2,15 +2,19 @@ package com.greetingsapp.imagesapi.domain.common;
 
 import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.specialdays.SpecialDay;
+import com.greetingsapp.imagesapi.domain.specialdays.SpecialDayRule;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.repository.AuditableBatchInsert;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
-import com.greetingsapp.imagesapi.repository.SpecialDayRepository;
-import com.greetingsapp.imagesapi.repository.ThemeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -19,16 +23,21 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    // Un INSERT multi-fila por tabla en lugar de un viaje a la BD por fila (ids IDENTITY)
     @Autowired
-    private ThemeRepository themeRepository;
-
-    @Autowired
-    private SpecialDayRepository specialDayRepository;
+    private AuditableBatchInsert batchInsert;
 
     // Mapa para guardar las temáticas creadas y poder referenciarlas
     private Map<String, Theme> themeMap = new HashMap<>();
 
+    // Filas pendientes de insertar, una lista por tabla
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Theme> themes = new ArrayList<>();
+    private final List<SpecialDay> specialDays = new ArrayList<>();
+
+    // Una sola transaccion: un solo commit para toda la carga inicial
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
         if (categoryRepository.count() == 0) {
             System.out.println("🔄 Cargando datos iniciales...");
@@ -99,6 +108,12 @@ public class DataInitializer implements CommandLineRunner {
         saveTheme("Día de la Tierra", internacionales);
         saveTheme("Día del Trabajador", internacionales);
 
+        // Las categorías primero: los INSERT de las temáticas necesitan sus ids
+        batchInsert.insertAll("categories", List.of("name"), categories,
+                category -> new Object[]{category.getName()});
+        batchInsert.insertAll("themes", List.of("name", "category_id"), themes,
+                theme -> new Object[]{theme.getName(), theme.getCategory().getId()});
+
         System.out.println("✅ Categorías y temáticas creadas.");
     }
 
@@ -131,14 +146,14 @@ public class DataInitializer implements CommandLineRunner {
         // MAYO
         // ============================================
         saveSpecialDay("Día del Trabajador", 1, 5, "Día del Trabajador");
-        saveSpecialDay("Día de las Madres", 10, 5, "Día de las Madres");
-        // Nota: Segundo domingo de mayo (aproximado día 10)
+        // Segundo domingo de mayo (fecha móvil, se calcula cada año)
+        saveMovableSpecialDay("Día de las Madres", SpecialDayRule.NTH_WEEKDAY, 5, 2, DayOfWeek.SUNDAY, "Día de las Madres");
 
         // ============================================
         // JUNIO
         // ============================================
-        saveSpecialDay("Día del Padre", 21, 6, "Día del Padre");
-        // Nota: Último domingo de junio (aproximado día 21)
+        // Último domingo de junio (fecha móvil, se calcula cada año)
+        saveMovableSpecialDay("Día del Padre", SpecialDayRule.LAST_WEEKDAY, 6, null, DayOfWeek.SUNDAY, "Día del Padre");
 
         // ============================================
         // AGOSTO
@@ -167,6 +182,14 @@ public class DataInitializer implements CommandLineRunner {
         saveSpecialDay("Navidad", 25, 12, "Navidad");
         saveSpecialDay("Fin de Año", 31, 12, "Fin de Año");
 
+        batchInsert.insertAll("special_days",
+                List.of("name", "rule_type", "day_month", "month_of_year", "week_of_month", "day_of_week",
+                        "easter_offset", "duration_days", "theme_id"),
+                specialDays,
+                day -> new Object[]{day.getName(), day.getRuleType(), day.getDay(), day.getMonth(),
+                        day.getWeekOfMonth(), day.getDayOfWeek(), day.getEasterOffset(), day.getDurationDays(),
+                        day.getTheme().getId()});
+
         System.out.println("✅ Días especiales creados.");
     }
 
@@ -177,17 +200,18 @@ public class DataInitializer implements CommandLineRunner {
     private Category createCategory(String name) {
         Category category = new Category();
         category.setName(name);
-        return categoryRepository.save(category);
+        categories.add(category);
+        return category;
     }
 
     private void saveTheme(String themeName, Category category) {
         Theme theme = new Theme();
         theme.setName(themeName);
         theme.setCategory(category);
-        Theme savedTheme = themeRepository.save(theme);
+        themes.add(theme);
 
         // Guardamos la temática en el mapa para poder referenciarla después
-        themeMap.put(themeName, savedTheme);
+        themeMap.put(themeName, theme);
     }
 
     private void saveSpecialDay(String name, int day, int month, String themeName) {
@@ -204,6 +228,26 @@ public class DataInitializer implements CommandLineRunner {
         specialDay.setMonth(month);
         specialDay.setTheme(theme);
 
-        specialDayRepository.save(specialDay);
+        specialDays.add(specialDay);
+    }
+
+    private void saveMovableSpecialDay(String name, SpecialDayRule rule, int month, Integer weekOfMonth,
+                                       DayOfWeek dayOfWeek, String themeName) {
+        Theme theme = themeMap.get(themeName);
+
+        if (theme == null) {
+            System.err.println("⚠️ Advertencia: No se encontró la temática '" + themeName + "' para el día especial '" + name + "'");
+            return;
+        }
+
+        SpecialDay specialDay = new SpecialDay();
+        specialDay.setName(name);
+        specialDay.setRuleType(rule);
+        specialDay.setMonth(month);
+        specialDay.setWeekOfMonth(weekOfMonth);
+        specialDay.setDayOfWeek(dayOfWeek);
+        specialDay.setTheme(theme);
+
+        specialDays.add(specialDay);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.common.AuditableBaseEntity;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,9 @@ import lombok.Setter;
 @Entity
 @Setter
 @Getter
-@Table(name = "images")
+// Nombre unico dentro de la tematica (V10). La url tambien es unica dentro de la tematica (una misma imagen
+// puede estar en varias), mediante la columna virtual url_hash de la BD, que la entidad no mapea (ver UniqueConstraints)
+@Table(name = "images", uniqueConstraints = @UniqueConstraint(name = "uk_images_theme_name", columnNames = {"theme_id", "name"}))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Image extends AuditableBaseEntity {
@@ -30,5 +33,17 @@ public class Image extends AuditableBaseEntity {
     @JoinColumn(name = "theme_id", nullable = false) //nombre del campo que hace referencia a la fk
     private Theme theme;
 
+    // Copia de la categoria de la tematica (desnormalizada): los listados por categoria
+    // filtran por esta columna sin hacer JOIN con themes. Se asigna junto con la tematica.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Category category;
+
+    // Asigna la tematica y copia su categoria
+    public void setTheme(Theme theme) {
+        this.theme = theme;
+        this.category = theme != null ? theme.getCategory() : null;
+    }
 
 }
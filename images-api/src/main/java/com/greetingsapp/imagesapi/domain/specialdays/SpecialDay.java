@@ -2,14 +2,22 @@ package com.greetingsapp.imagesapi.domain.specialdays;
 
 import com.greetingsapp.imagesapi.domain.common.AuditableBaseEntity;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.infra.cache.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.DayOfWeek;
 
 @Entity
 @Table(name = "special_days")
+// Dato de referencia: se guarda en la cache de segundo nivel (ver SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SPECIAL_DAYS)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -19,12 +27,36 @@ public class SpecialDay extends AuditableBaseEntity { //entidad que representa u
     @Column(nullable = false)
     private String name;
 
-    @Column(name = "day_month", nullable = false)
+    // Regla para calcular la fecha cada año (por defecto, fecha fija día/mes)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false)
+    private SpecialDayRule ruleType = SpecialDayRule.FIXED;
+
+    // Solo para FIXED
+    @Column(name = "day_month")
     private Integer day;
 
-    @Column(name = "month_of_year", nullable = false)
+    // Para FIXED, NTH_WEEKDAY y LAST_WEEKDAY
+    @Column(name = "month_of_year")
     private Integer month;
 
+    // Solo para NTH_WEEKDAY: 1 = primera semana, 2 = segunda...
+    @Column(name = "week_of_month")
+    private Integer weekOfMonth;
+
+    // Para NTH_WEEKDAY y LAST_WEEKDAY (ej: SUNDAY)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private DayOfWeek dayOfWeek;
+
+    // Solo para EASTER_OFFSET: días desde el Domingo de Pascua (puede ser negativo)
+    @Column(name = "easter_offset")
+    private Integer easterOffset;
+
+    // Cantidad de días que dura la celebración a partir de la fecha calculada (mínimo 1)
+    @Column(name = "duration_days", nullable = false)
+    private Integer durationDays = 1;
+
     // Relación: Muchos Dias Especiales distintos pueden pertenecer a una misma temática (ToOne).
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "theme_id", nullable = false)
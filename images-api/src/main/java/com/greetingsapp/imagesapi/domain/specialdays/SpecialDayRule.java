@@ -0,0 +1,13 @@
+package com.greetingsapp.imagesapi.domain.specialdays;
+
+// Tipo de regla con la que se calcula la fecha de un día especial cada año
+public enum SpecialDayRule {
+    // Fecha fija: día y mes (ej: Navidad, 25/12)
+    FIXED,
+    // N-ésimo día de la semana de un mes (ej: segundo domingo de mayo)
+    NTH_WEEKDAY,
+    // Último día de la semana de un mes (ej: último domingo de junio)
+    LAST_WEEKDAY,
+    // Desplazamiento en días desde el Domingo de Pascua (ej: Viernes Santo = -2)
+    EASTER_OFFSET
+}
@@ -3,23 +3,30 @@ package com.greetingsapp.imagesapi.domain.themes;
 import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.common.AuditableBaseEntity;
 import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.infra.cache.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Setter
 @Getter
-@Table(name = "themes")
+// El nombre es unico dentro de su categoria (V10): la BD detecta los duplicados (ver UniqueConstraints)
+@Table(name = "themes", uniqueConstraints = @UniqueConstraint(name = "uk_themes_category_name", columnNames = {"category_id", "name"}))
+// Dato de referencia: se guarda en la cache de segundo nivel (ver SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.THEMES)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Theme extends AuditableBaseEntity {
 
-    @Column(name = "name", nullable = false, unique = true)
+    @Column(name = "name", nullable = false)
     private String name;
 
     // Muchas tematicas (Many) pueden pertenecer a una categoria (ToOne).
@@ -32,7 +39,8 @@ public class Theme extends AuditableBaseEntity {
     // "mappedBy" le dice a JPA: "No crees una columna para esta lista aquí."
     // fetch = LAZY: Las imágenes NO se cargan automáticamente (evita N+1).
     // Solo se cargan si se accede explícitamente a getImages().
-    @OneToMany(mappedBy = "theme", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    // Sin cascade ni orphanRemoval: el borrado lo hace CatalogPurgeService con DELETE set-based.
+    @OneToMany(mappedBy = "theme", fetch = FetchType.LAZY)
     private List<Image> images;
 
 }
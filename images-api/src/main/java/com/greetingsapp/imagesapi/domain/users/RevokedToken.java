@@ -0,0 +1,32 @@
+package com.greetingsapp.imagesapi.domain.users;
+
+import com.greetingsapp.imagesapi.domain.common.AuditableBaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// JWT revocado antes de su expiracion (ej: logout). Se identifica por su claim "jti".
+// La fila solo hace falta hasta que el token expira; despues se purga.
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken extends AuditableBaseEntity {
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
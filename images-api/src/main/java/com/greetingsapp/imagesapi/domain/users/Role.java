@@ -1,6 +1,18 @@
 package com.greetingsapp.imagesapi.domain.users;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
 public enum Role {
     ADMIN,
-    CLIENT
+    CLIENT;
+
+    // Autoridades inmutables creadas una sola vez por rol; se comparten entre todas las peticiones
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + name()));
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
 }
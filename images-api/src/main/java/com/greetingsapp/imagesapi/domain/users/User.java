@@ -7,11 +7,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.List;
 
 @Entity
 @Table(name = "users")
@@ -33,12 +31,18 @@ public class User extends AuditableBaseEntity implements UserDetails {
     @Column(name = "role", nullable = false)
     private Role role;
 
+    // Version de los tokens del usuario: los JWT emitidos con una version menor quedan revocados.
+    // Se incrementa para cerrar todas las sesiones del usuario (ej: cambio de contraseña o cuenta comprometida).
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
 
     // --- Métodos de UserDetails ---
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // Devuelve el rol del usuario en el formato que Spring Security espera.
-        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        // La lista la precalcula el enum: no se crea una nueva en cada peticion autenticada.
+        return role.getAuthorities();
     }
 
     // Los siguientes métodos son para controlar el estado de la cuenta.
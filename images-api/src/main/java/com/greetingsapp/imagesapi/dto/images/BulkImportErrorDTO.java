@@ -0,0 +1,12 @@
+package com.greetingsapp.imagesapi.dto.images;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record BulkImportErrorDTO(
+        @Schema(description = "Linea del cuerpo donde empieza la fila (en CSV la 1 es la cabecera).", example = "42")
+        long line,
+
+        @Schema(description = "Motivo por el que la fila no se importo.", example = "Theme not found with id: 99")
+        String message
+) {
+}
@@ -0,0 +1,33 @@
+package com.greetingsapp.imagesapi.dto.images;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record BulkImportReportDTO(
+        @Schema(description = "Filas leidas del cuerpo de la peticion.", example = "5000")
+        int totalRows,
+
+        @Schema(description = "Imagenes creadas.", example = "4998")
+        int imported,
+
+        @Schema(description = "Filas rechazadas.", example = "2")
+        int failed,
+
+        @Schema(description = "Error de cada fila rechazada, en el orden del cuerpo.")
+        List<BulkImportErrorDTO> errors,
+
+        @Schema(description = "true si hubo mas filas rechazadas que errores listados.")
+        boolean errorsTruncated,
+
+        @Schema(description = "true si la importacion se detuvo por un error de la BD que no es de una fila "
+                + "(BD caida, timeout, servidor sobrecargado). Las filas desde abortedAtLine no se leyeron o no se guardaron.")
+        boolean aborted,
+
+        @Schema(description = "Primera linea no importada cuando aborted es true (desde ahi se puede reanudar).", example = "2501")
+        Long abortedAtLine,
+
+        @Schema(description = "Causa de la detencion cuando aborted es true.")
+        String abortReason
+) {
+}
@@ -0,0 +1,18 @@
+package com.greetingsapp.imagesapi.dto.images;
+
+import java.time.Instant;
+
+// Una fila de la exportacion del catalogo: la imagen con su tematica y categoria.
+// Las columnas name, description, url y themeId son las mismas que acepta la importacion masiva.
+public record ImageExportDTO(
+        Long id,
+        String name,
+        String description,
+        String url,
+        Long themeId,
+        String themeName,
+        Long categoryId,
+        String categoryName,
+        Instant created
+) {
+}
@@ -0,0 +1,22 @@
+package com.greetingsapp.imagesapi.dto.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+// DTO para la paginacion por cursor (keyset): no incluye total de elementos ni numero de pagina,
+// solo el cursor opaco para pedir la siguiente pagina.
+public record CursorPageDTO<T>(
+        @Schema(description = "Elementos de la pagina actual.")
+        List<T> content,
+
+        @Schema(description = "Cursor opaco para pedir la siguiente pagina (null si no hay mas resultados).")
+        String nextCursor,
+
+        @Schema(description = "Tamaño de pagina solicitado.")
+        int size,
+
+        @Schema(description = "Indica si existe una pagina siguiente.")
+        boolean hasNext
+) {
+}
@@ -0,0 +1,34 @@
+package com.greetingsapp.imagesapi.dto.purge;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record PurgeJobDTO(
+        @Schema(description = "ID del job, para consultar su progreso en /api/admin/purge-jobs/{jobId}.")
+        String jobId,
+
+        @Schema(description = "Tipo de lo que se elimina.", example = "category")
+        String target,
+
+        @Schema(description = "ID de la categoria o tematica que se elimina.", example = "3")
+        Long targetId,
+
+        @Schema(description = "RUNNING, COMPLETED o FAILED.", example = "RUNNING")
+        String status,
+
+        @Schema(description = "Imagenes que tenia al iniciar el borrado.", example = "250000")
+        long totalImages,
+
+        @Schema(description = "Imagenes borradas hasta ahora.", example = "120000")
+        long deletedImages,
+
+        Instant startedAt,
+
+        @Schema(description = "null mientras el job sigue en curso.")
+        Instant finishedAt,
+
+        @Schema(description = "Causa del fallo si status = FAILED. Lo ya borrado no se restaura; repetir el DELETE lo retoma.")
+        String error
+) {
+}
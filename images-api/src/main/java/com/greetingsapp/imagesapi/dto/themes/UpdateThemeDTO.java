@@ -4,8 +4,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 
 // Para actualizar, usualmente solo cambias el nombre.
+// Opcionalmente se puede mover la temática (con sus imágenes) a otra categoría.
 public record UpdateThemeDTO(
         @Schema(description = "Nuevo nombre para la temática.", example = "Pasteles y Velas", requiredMode = Schema.RequiredMode.REQUIRED)
         @NotBlank(message = "Theme name must not be blank.")
-        String name
-) {}
\ No newline at end of file
+        String name,
+
+        @Schema(description = "ID de la nueva categoría. Si se omite, la temática se queda en su categoría actual.", example = "3")
+        Long categoryId
+) {
+
+    public UpdateThemeDTO(String name) {
+        this(name, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filtro de Bloom inmutable para los jti revocados.
+ * <p>
+ * Casi todos los tokens que llegan NO estan revocados: el filtro descarta esos casos con unas pocas
+ * operaciones de bits, sin tocar el conjunto exacto. Un "quizas" se confirma contra el conjunto exacto,
+ * asi que los falsos positivos no afectan el resultado.
+ */
+final class RevocationBloomFilter {
+
+    // ~10 bits por elemento y 4 funciones hash: ~1% de falsos positivos
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_FUNCTIONS = 4;
+    private static final int MIN_BITS = 1024;
+
+    private final long[] bits;
+    private final int bitCount;
+
+    RevocationBloomFilter(Iterable<String> values, int expectedSize) {
+        this.bitCount = Math.max(MIN_BITS, expectedSize * BITS_PER_ENTRY);
+        this.bits = new long[(bitCount + 63) / 64];
+        for (String value : values) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits con mezcla final (los jti son UUID, bien distribuidos de por si)
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,7 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+import java.time.Instant;
+
+// jti de un token revocado y el momento en que expira (despues ya no hace falta recordarlo)
+public record RevokedTokenEntry(String jti, Instant expiresAt) {
+}
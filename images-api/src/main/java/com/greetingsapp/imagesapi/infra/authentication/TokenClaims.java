@@ -0,0 +1,28 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+import com.greetingsapp.imagesapi.domain.users.Role;
+import com.greetingsapp.imagesapi.domain.users.User;
+
+import java.time.Instant;
+
+/**
+ * Claims de un JWT ya verificado (firma, emisor y expiracion).
+ * <p>
+ * jti es null en tokens emitidos antes de la revocacion por logout; esos solo pueden
+ * revocarse en bloque con la version del usuario.
+ */
+public record TokenClaims(String jti, String username, Long userId, Role role, int tokenVersion, Instant expiresAt) {
+
+    /**
+     * Principal construido solo con los claims, sin consultar la BD (modo sin estado).
+     * No lleva contraseña: solo sirve para autorizar la peticion actual.
+     */
+    public User toPrincipal() {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(username);
+        user.setRole(role);
+        user.setTokenVersion(tokenVersion);
+        return user;
+    }
+}
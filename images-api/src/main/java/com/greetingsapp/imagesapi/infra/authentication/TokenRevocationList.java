@@ -0,0 +1,169 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+import com.greetingsapp.imagesapi.domain.users.RevokedToken;
+import com.greetingsapp.imagesapi.repository.RevokedTokenRepository;
+import com.greetingsapp.imagesapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lista de revocacion de JWT en memoria.
+ * <p>
+ * Permite autenticar con los claims del token sin consultar la BD en cada peticion:
+ * - Revocacion individual (logout): conjunto exacto de jti revocados, con un filtro de Bloom delante.
+ * - Revocacion en bloque: version minima de token por usuario (users.token_version).
+ * <p>
+ * Las revocaciones hechas en esta instancia se aplican al confirmar la transaccion;
+ * las de otras instancias se recogen en el refresco periodico (api.security.token.revocation-refresh).
+ * Una revocacion nunca se deshace, por eso el refresco combina lo leido de la BD con lo que ya habia en memoria.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Estado inmutable; se reemplaza completo en cada cambio (copy-on-write). null = aun no cargado.
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(Map<String, Instant> revokedJtis,
+                            RevocationBloomFilter bloom,
+                            Map<Long, Integer> minTokenVersions) {
+
+        static Snapshot of(Map<String, Instant> revokedJtis, Map<Long, Integer> minTokenVersions) {
+            return new Snapshot(Map.copyOf(revokedJtis),
+                    new RevocationBloomFilter(revokedJtis.keySet(), revokedJtis.size()),
+                    Map.copyOf(minTokenVersions));
+        }
+    }
+
+    // false mientras no se haya podido cargar desde la BD: el filtro debe validar contra la BD
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+
+        Integer minVersion = current.minTokenVersions().get(claims.userId());
+        if (minVersion != null && claims.tokenVersion() < minVersion) {
+            return true;
+        }
+
+        return claims.jti() != null
+                && current.bloom().mightContain(claims.jti())
+                && current.revokedJtis().containsKey(claims.jti());
+    }
+
+    // --- Revocacion individual (logout) ---
+    @Transactional
+    public void revoke(TokenClaims claims) {
+        if (claims.jti() == null) {
+            // Token anterior a los jti: solo puede revocarse en bloque y expira solo en pocas horas
+            log.debug("Token sin jti del usuario {}, no se puede revocar individualmente", claims.username());
+            return;
+        }
+        if (isRevoked(claims)) {
+            return;
+        }
+
+        revokedTokenRepository.save(new RevokedToken(claims.jti(), claims.userId(), claims.expiresAt()));
+        afterCommit(() -> addRevokedJti(claims.jti(), claims.expiresAt()));
+    }
+
+    // --- Revocacion en bloque: la version ya se incremento en la BD dentro de la transaccion actual ---
+    public void userTokensRevoked(Long userId, int newTokenVersion) {
+        afterCommit(() -> raiseMinTokenVersion(userId, newTokenVersion));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.token.revocation-refresh:PT30S}",
+            initialDelayString = "${api.security.token.revocation-refresh:PT30S}")
+    public void refresh() {
+        try {
+            Instant now = Instant.now();
+            Map<String, Instant> jtis = new HashMap<>();
+            revokedTokenRepository.findActive(now).forEach(entry -> jtis.put(entry.jti(), entry.expiresAt()));
+            Map<Long, Integer> versions = new HashMap<>();
+            userRepository.findRevokedTokenVersions().forEach(v -> versions.put(v.userId(), v.tokenVersion()));
+
+            synchronized (this) {
+                // Combina con lo revocado localmente mientras se leia la BD, y descarta lo ya expirado
+                Snapshot current = snapshot;
+                if (current != null) {
+                    current.revokedJtis().forEach((jti, expiresAt) -> {
+                        if (expiresAt.isAfter(now)) {
+                            jtis.putIfAbsent(jti, expiresAt);
+                        }
+                    });
+                    current.minTokenVersions().forEach((userId, version) -> versions.merge(userId, version, Math::max));
+                }
+                snapshot = Snapshot.of(jtis, versions);
+            }
+
+            int purged = revokedTokenRepository.deleteExpired(now);
+            if (purged > 0) {
+                log.debug("Purgados {} tokens revocados ya expirados", purged);
+            }
+        } catch (Exception ex) {
+            // Se conserva la lista anterior (o el modo con consulta a la BD si nunca se cargo)
+            log.warn("No se pudo refrescar la lista de tokens revocados. Causa: {}", ex.getMessage());
+        }
+    }
+
+    // Si aun no se cargo la lista, no hace nada: la carga inicial leera el cambio de la BD
+    private synchronized void addRevokedJti(String jti, Instant expiresAt) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            Map<String, Instant> jtis = new HashMap<>(current.revokedJtis());
+            jtis.put(jti, expiresAt);
+            snapshot = Snapshot.of(jtis, current.minTokenVersions());
+        }
+    }
+
+    private synchronized void raiseMinTokenVersion(Long userId, int tokenVersion) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            Map<Long, Integer> versions = new HashMap<>(current.minTokenVersions());
+            versions.merge(userId, tokenVersion, Math::max);
+            snapshot = Snapshot.of(current.revokedJtis(), versions);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
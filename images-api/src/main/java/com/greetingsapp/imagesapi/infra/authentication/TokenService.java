@@ -2,34 +2,106 @@ package com.greetingsapp.imagesapi.infra.authentication;
 
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.greetingsapp.imagesapi.domain.users.Role;
 import com.greetingsapp.imagesapi.domain.users.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.UUID;
 
 // Servicio encargado de la generación y validación de tokens JWT.
 @Service
 public class TokenService {
 
+    private static final String ISSUER = "greetings-api";
+
+    // Un token nunca se guarda en cache mas tiempo que su vigencia maxima
+    private static final Duration MAX_CACHE_TTL = Duration.ofHours(2);
+
     @Value("${api.security.token.secret}")
     private String apiSecret;
 
+    // Cantidad maxima de tokens verificados que se recuerdan (LRU aproximado de Caffeine)
+    @Value("${api.security.token.cache-size:10000}")
+    private long cacheSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // El algoritmo y el verificador son inmutables y thread-safe: se crean una sola vez
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    // Tokens ya verificados: hash SHA-256 del token -> claims. Cada entrada expira con el "exp" del token.
+    // Se guarda el hash (no el token) para no mantener credenciales en memoria.
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(apiSecret);
+        verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                        if (claims.expiresAt() == null) {
+                            return MAX_CACHE_TTL.toNanos();
+                        }
+                        Duration remaining = Duration.between(Instant.now(), claims.expiresAt());
+                        return Math.max(0, Math.min(remaining.toNanos(), MAX_CACHE_TTL.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // Expone cache.gets{result=hit|miss}, cache.evictions, cache.size... con el tag cache=jwt.verified
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    }
+
     //Metodo que genera el token
     public String generateToken(User user) {
         try {
-            // Usa la clave secreta para crear el algoritmo de firma.
-            Algorithm algorithm = Algorithm.HMAC256(apiSecret);
             return JWT.create()
-                    .withIssuer("greetings-api") // Quién emite el token
+                    .withIssuer(ISSUER) // Quién emite el token
                     .withSubject(user.getUsername()) // A quién va dirigido (el usuario)
                     .withClaim("id", user.getId()) // Un "claim" o dato extra: el ID del usuario
                     .withClaim("role", user.getRole().name()) // Otro claim: el rol del usuario
+                    .withJWTId(UUID.randomUUID().toString()) // Identificador unico del token (para revocarlo en el logout)
+                    .withClaim("ver", user.getTokenVersion()) // Version de tokens del usuario (revocacion en bloque)
                     .withExpiresAt(generateExpirationTime()) // Fecha de expiración
                     .sign(algorithm); // Firma el token
         } catch (JWTCreationException exception) {
@@ -38,24 +110,60 @@ public class TokenService {
     }
 
     public String getSubject(String token) {
+        return verify(token).username(); // Devuelve el "subject" (el username)
+    }
+
+    /**
+     * Verifica el token (firma, emisor, expiracion) y devuelve sus claims.
+     * Un token ya verificado se responde desde el cache hasta su expiracion, sin repetir el HMAC
+     * ni el parseo del JSON. La revocacion NO se cachea: la sigue validando el filtro en cada peticion.
+     */
+    public TokenClaims verify(String token) {
         if (token == null) {
             throw new RuntimeException("Token is null");
         }
+        TokenClaims claims = verifiedTokens.get(sha256(token), key -> decode(token));
+        // Defensa extra: la entrada puede sobrevivir unos milisegundos a la expiracion
+        if (claims.expiresAt() != null && !claims.expiresAt().isAfter(Instant.now())) {
+            throw new RuntimeException("Invalid or expired JWT token");
+        }
+        return claims;
+    }
+
+    private TokenClaims decode(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(apiSecret);
             // Verifica que el token sea válido (firma, emisor) y lo decodifica.
-            return JWT.require(algorithm)
-                    .withIssuer("greetings-api")
-                    .build()
-                    .verify(token)
-                    .getSubject(); // Devuelve el "subject" (el username)
-        } catch (JWTVerificationException exception) {
+            DecodedJWT jwt = verifier.verify(token);
+
+            String role = jwt.getClaim("role").asString();
+            if (role == null) {
+                throw new RuntimeException("Invalid or expired JWT token");
+            }
+            Integer tokenVersion = jwt.getClaim("ver").asInt(); // null en tokens emitidos antes de la version
+            return new TokenClaims(
+                    jwt.getId(),
+                    jwt.getSubject(),
+                    jwt.getClaim("id").asLong(),
+                    Role.valueOf(role),
+                    tokenVersion != null ? tokenVersion : 0,
+                    jwt.getExpiresAtAsInstant()
+            );
+        } catch (JWTVerificationException | IllegalArgumentException exception) {
             throw new RuntimeException("Invalid or expired JWT token");
         }
     }
 
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
     private Instant generateExpirationTime() {
         // El token expirará en 2 horas desde ahora.
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-04:00"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+// Version minima de token valida para un usuario: los JWT con "ver" menor estan revocados
+public record UserTokenVersion(Long userId, int tokenVersion) {
+}
@@ -0,0 +1,31 @@
+package com.greetingsapp.imagesapi.infra.cache;
+
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Vacia el cache de segundo nivel (entidades y consultas) cuando otra instancia cambia el catalogo.
+ * Hibernate solo invalida lo que se escribe desde esta instancia; los cambios remotos los detecta
+ * CatalogVersion y llegan como CatalogChangedEvent remoto.
+ * Corre antes que los demas listeners, para que el home y el calendario se recalculen con datos de la BD.
+ */
+@Component
+public class RemoteChangeCacheEviction {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isRemote()) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.greetingsapp.imagesapi.infra.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nivel de Hibernate (JCache sobre Caffeine) para los datos de referencia del catalogo:
+ * categorias, tematicas y dias especiales. Cambian solo desde el panel de administracion y se leen en
+ * casi todas las peticiones (existsById de los listados, tematicas de una categoria, calendario).
+ * <p>
+ * Las regiones se crean aqui, acotadas por numero de entradas (app.l2-cache.*) y con expiracion, y
+ * Hibernate las recibe ya creadas: con missing_cache_strategy=fail una region no declarada hace fallar
+ * el arranque en lugar de crear una cache sin limites. Las imagenes no se cachean (son millones y
+ * los listados ya tienen su propia cache).
+ * <p>
+ * Cada region publica cache.gets, cache.puts, cache.evictions... (tag cache) y cache.hit.ratio en actuator.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    public static final String CATEGORIES = "catalog.categories";
+    public static final String THEMES = "catalog.themes";
+    public static final String SPECIAL_DAYS = "catalog.special-days";
+    public static final String QUERIES = "catalog.queries";
+
+    static final URI CACHE_MANAGER_URI = URI.create("images-api-l2");
+
+    // Regiones propias de Hibernate al usar el cache de consultas
+    static final String DEFAULT_QUERY_RESULTS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    static final String UPDATE_TIMESTAMPS = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    // Una marca de tiempo por tabla consultada desde el cache de consultas
+    private static final long MAX_UPDATE_TIMESTAMPS = 100;
+
+    @Value("${app.l2-cache.max-entities:2000}")
+    private long maxEntities;
+
+    @Value("${app.l2-cache.max-queries:1000}")
+    private long maxQueries;
+
+    @Value("${app.l2-cache.ttl:PT10M}")
+    private Duration ttl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry) {
+        // Proveedor propio y no Caching.getCachingProvider(): ese es global a la JVM y devolveria el mismo
+        // CacheManager (con las regiones ya creadas) a otro contexto de Spring, ej: en los tests
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+
+        for (String region : List.of(CATEGORIES, THEMES, SPECIAL_DAYS)) {
+            createRegion(cacheManager, region, maxEntities, ttl);
+        }
+        createRegion(cacheManager, QUERIES, maxQueries, ttl);
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS, maxQueries, ttl);
+        // Sin expiracion: si una marca se perdiera, un resultado cacheado podria parecer vigente tras una escritura
+        createRegion(cacheManager, UPDATE_TIMESTAMPS, MAX_UPDATE_TIMESTAMPS, null);
+
+        for (String region : cacheManager.getCacheNames()) {
+            bindMetrics(cacheManager, region, meterRegistry);
+        }
+        log.info("Cache de segundo nivel: {} entidades y {} consultas por region, expiracion {}", maxEntities, maxQueries, ttl);
+        return cacheManager;
+    }
+
+    // Hibernate usa este CacheManager en lugar de crear uno propio (hibernate.javax.cache.cache_manager)
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+
+    // cache.gets (hit/miss), cache.puts, cache.removals... de JCache y la tasa de aciertos calculada a partir de cache.gets
+    private static void bindMetrics(CacheManager cacheManager, String region, MeterRegistry meterRegistry) {
+        new JCacheMetrics<>(cacheManager.getCache(region), Tags.empty()).bindTo(meterRegistry);
+
+        FunctionCounter hits = meterRegistry.get("cache.gets").tags("cache", region, "result", "hit").functionCounter();
+        FunctionCounter misses = meterRegistry.get("cache.gets").tags("cache", region, "result", "miss").functionCounter();
+        Gauge.builder("cache.hit.ratio", () -> {
+                    double total = hits.count() + misses.count();
+                    return total == 0 ? 0 : hits.count() / total;
+                })
+                .tag("cache", region)
+                .description("Fraccion de lecturas de la region servidas desde la cache")
+                .register(meterRegistry);
+    }
+}
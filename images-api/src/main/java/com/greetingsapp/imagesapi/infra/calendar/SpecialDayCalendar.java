@@ -0,0 +1,183 @@
+package com.greetingsapp.imagesapi.infra.calendar;
+
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.repository.SpecialDayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Calendario de días especiales precalculado en memoria.
+ * <p>
+ * A partir de las reglas de special_days (fechas fijas, N-ésimo día de la semana, último día de la semana
+ * y desplazamientos desde Pascua, con duración de uno o más días) se arma, por año, una tabla de 366
+ * posiciones (una por día del año) con la lista de eventos activos ese día.
+ * La consulta por fecha es un acceso directo a la tabla: /api/home ya no consulta special_days.
+ * <p>
+ * Las tablas se construyen bajo demanda (normalmente solo el año actual y, en diciembre, el siguiente)
+ * y se descartan cuando cambia el catálogo o cuando el refresco periódico detecta cambios en la BD.
+ */
+@Component
+public class SpecialDayCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(SpecialDayCalendar.class);
+
+    private static final int DAYS_PER_YEAR_TABLE = 366;
+
+    private static final String REFRESH_SOURCE = "special-days-refreshed";
+
+    // Misma zona que HomeService para decidir que dia es "hoy"
+    private static final ZoneId HOME_ZONE = ZoneId.of("America/Santo_Domingo");
+
+    @Autowired
+    private SpecialDayRepository specialDayRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Reglas cargadas + tablas por año construidas a partir de ellas. null = hay que recargar.
+    // Cada snapshot es inmutable en sus reglas: una invalidacion simplemente lo reemplaza.
+    private volatile Snapshot snapshot;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Eventos activos en una fecha (vacío si no hay ninguno), en el orden en que se crearon.
+     */
+    public List<SpecialDayEntry> eventsOn(LocalDate date) {
+        Snapshot current = currentSnapshot();
+        List<List<SpecialDayEntry>> table = current.years()
+                .computeIfAbsent(date.getYear(), year -> buildYear(current.definitions(), year));
+        return table.get(date.getDayOfYear() - 1);
+    }
+
+    // Carga las reglas al arrancar para que la primera peticion no pague la consulta.
+    // Con la fecha de HomeService: con el servidor en UTC, el 31 de diciembre por la noche
+    // LocalDate.now() ya es el año siguiente y se armaria la tabla de un año que nadie consulta.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            eventsOn(LocalDate.now(HOME_ZONE));
+        } catch (Exception ex) {
+            // Se reintentara en la primera consulta
+            log.warn("No se pudo cargar el calendario de días especiales. Causa: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Un cambio del catálogo (ej: borrar una temática borra en cascada sus días especiales)
+     * descarta el calendario; se recarga en la siguiente consulta.
+     * Corre antes que los demás listeners para que el cache del home se recalcule con el calendario nuevo.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (REFRESH_SOURCE.equals(event.source())) {
+            return; // lo publicó refresh() con el calendario ya recalculado
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Refresco periódico para recoger cambios hechos directamente en la BD (ej: migraciones o scripts).
+     * Si las reglas cambiaron, avisa al resto de caches publicando un CatalogChangedEvent.
+     */
+    @Scheduled(fixedDelayString = "${app.special-days.refresh-interval:PT1H}",
+            initialDelayString = "${app.special-days.refresh-interval:PT1H}")
+    public void refresh() {
+        Snapshot previous = snapshot;
+        try {
+            List<SpecialDayDefinition> definitions = specialDayRepository.findAllDefinitions();
+            if (previous == null || !previous.definitions().equals(definitions)) {
+                snapshot = new Snapshot(List.copyOf(definitions), new ConcurrentHashMap<>());
+                if (previous != null) {
+                    log.info("Reglas de días especiales modificadas en la BD, calendario recalculado");
+                    eventPublisher.publishEvent(new CatalogChangedEvent(REFRESH_SOURCE));
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("No se pudo refrescar el calendario de días especiales. Causa: {}", ex.getMessage());
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    // Una sola recarga a la vez: las peticiones concurrentes esperan y reutilizan el resultado.
+    // ReentrantLock y no synchronized: la consulta se hace con el lock tomado, y en Java 21 un hilo virtual
+    // bloqueado en I/O dentro de synchronized fija (pin) su hilo portador.
+    private Snapshot load() {
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                List<SpecialDayDefinition> definitions = specialDayRepository.findAllDefinitions();
+                current = new Snapshot(List.copyOf(definitions), new ConcurrentHashMap<>());
+                snapshot = current;
+                log.debug("Calendario de días especiales cargado con {} reglas", definitions.size());
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Arma la tabla de un año: posición (díaDelAño - 1) -> eventos activos ese día
+    static List<List<SpecialDayEntry>> buildYear(List<SpecialDayDefinition> definitions, int year) {
+        List<List<SpecialDayEntry>> slots = new ArrayList<>(DAYS_PER_YEAR_TABLE);
+        for (int i = 0; i < DAYS_PER_YEAR_TABLE; i++) {
+            slots.add(null);
+        }
+
+        for (SpecialDayDefinition definition : definitions) {
+            SpecialDayEntry entry = new SpecialDayEntry(definition.name(), definition.themeId());
+            // Una celebración de varios días que empieza a fin del año anterior puede continuar en este
+            for (int startYear = year - 1; startYear <= year; startYear++) {
+                LocalDate start = definition.startIn(startYear);
+                if (start == null) {
+                    continue;
+                }
+                for (int offset = 0; offset < definition.effectiveDuration(); offset++) {
+                    LocalDate date = start.plusDays(offset);
+                    if (date.getYear() == year) {
+                        int index = date.getDayOfYear() - 1;
+                        if (slots.get(index) == null) {
+                            slots.set(index, new ArrayList<>(1));
+                        }
+                        slots.get(index).add(entry);
+                    }
+                }
+            }
+        }
+
+        // Tabla inmutable: se comparte entre hilos sin bloqueo
+        List<List<SpecialDayEntry>> table = new ArrayList<>(DAYS_PER_YEAR_TABLE);
+        for (List<SpecialDayEntry> slot : slots) {
+            table.add(slot == null ? Collections.emptyList() : List.copyOf(slot));
+        }
+        return Collections.unmodifiableList(table);
+    }
+
+    private record Snapshot(List<SpecialDayDefinition> definitions,
+                            Map<Integer, List<List<SpecialDayEntry>>> years) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.greetingsapp.imagesapi.infra.calendar;
+
+import com.greetingsapp.imagesapi.domain.specialdays.SpecialDayRule;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Proyeccion de una fila de special_days con su regla de fecha (sin cargar la entidad ni su Theme)
+public record SpecialDayDefinition(
+        Long id,
+        String name,
+        Long themeId,
+        SpecialDayRule ruleType,
+        Integer day,
+        Integer month,
+        Integer weekOfMonth,
+        DayOfWeek dayOfWeek,
+        Integer easterOffset,
+        Integer durationDays
+) {
+
+    // Duracion maxima aceptada, para que un dato erroneo no llene todo el calendario
+    static final int MAX_DURATION_DAYS = 31;
+
+    /**
+     * Calcula la fecha de inicio de la celebracion en un año.
+     * Devuelve null si la regla no aplica ese año (ej: 29/02 en año no bisiesto)
+     * o si a la fila le faltan los campos que exige su regla.
+     */
+    public LocalDate startIn(int year) {
+        SpecialDayRule rule = ruleType != null ? ruleType : SpecialDayRule.FIXED;
+        try {
+            return switch (rule) {
+                case FIXED -> day == null || month == null ? null : LocalDate.of(year, month, day);
+                case NTH_WEEKDAY -> {
+                    if (month == null || weekOfMonth == null || dayOfWeek == null) {
+                        yield null;
+                    }
+                    LocalDate date = LocalDate.of(year, month, 1)
+                            .with(TemporalAdjusters.dayOfWeekInMonth(weekOfMonth, dayOfWeek));
+                    // dayOfWeekInMonth puede "desbordarse" al mes siguiente (ej: 5to domingo inexistente)
+                    yield date.getMonthValue() == month ? date : null;
+                }
+                case LAST_WEEKDAY -> month == null || dayOfWeek == null ? null
+                        : LocalDate.of(year, month, 1).with(TemporalAdjusters.lastInMonth(dayOfWeek));
+                case EASTER_OFFSET -> easterOffset == null ? null : easterSunday(year).plusDays(easterOffset);
+            };
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    // Cantidad de dias que cubre la celebracion (entre 1 y MAX_DURATION_DAYS)
+    public int effectiveDuration() {
+        if (durationDays == null || durationDays < 1) {
+            return 1;
+        }
+        return Math.min(durationDays, MAX_DURATION_DAYS);
+    }
+
+    /**
+     * Domingo de Pascua (calendario gregoriano), algoritmo anonimo de Meeus/Jones/Butcher.
+     */
+    static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = ((h + l - 7 * m + 114) % 31) + 1;
+        return LocalDate.of(year, month, day);
+    }
+}
@@ -0,0 +1,5 @@
+package com.greetingsapp.imagesapi.infra.calendar;
+
+// Un evento activo en una fecha del calendario: su nombre y la tematica cuyas imagenes se muestran
+public record SpecialDayEntry(String name, Long themeId) {
+}
@@ -0,0 +1,86 @@
+package com.greetingsapp.imagesapi.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Dos pools de Hikari, uno para lecturas publicas y otro para escrituras de administracion,
+ * para que una sesion de carga masiva del admin no deje sin conexiones al trafico publico.
+ * <p>
+ * Ambos parten de spring.datasource.* y spring.datasource.hikari.*; cada uno se ajusta con
+ * app.datasource.read.hikari.* / app.datasource.write.hikari.* (tamaño, timeouts...). Si se define
+ * app.datasource.read.url las lecturas van a esa replica; si no, los dos pools usan la misma BD.
+ * <p>
+ * Cada pool publica sus metricas hikaricp.* con su propio nombre (tag pool). Flyway migra por el pool de escritura.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceRoutingConfig.class);
+
+    @Bean
+    @FlywayDataSource
+    public HikariDataSource writeDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource pool = createPool(properties, environment, "write");
+        log.info("Pool de escritura {}: {} conexiones", pool.getPoolName(), pool.getMaximumPoolSize());
+        return pool;
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource pool = createPool(properties, environment, "read");
+        String replicaUrl = environment.getProperty("app.datasource.read.url");
+        if (StringUtils.hasText(replicaUrl)) {
+            pool.setJdbcUrl(replicaUrl);
+        }
+        String username = environment.getProperty("app.datasource.read.username");
+        if (StringUtils.hasText(username)) {
+            pool.setUsername(username);
+        }
+        String password = environment.getProperty("app.datasource.read.password");
+        if (StringUtils.hasText(password)) {
+            pool.setPassword(password);
+        }
+        log.info("Pool de lectura {}: {} conexiones ({})", pool.getPoolName(), pool.getMaximumPoolSize(),
+                pool.getJdbcUrl().equals(properties.determineUrl()) ? "misma BD que escrituras" : "replica");
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource readDataSource, HikariDataSource writeDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.READ, readDataSource,
+                ReadWriteRoutingDataSource.Route.WRITE, writeDataSource
+        ));
+        routing.setDefaultTargetDataSource(writeDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Pool con la configuracion comun de spring.datasource.* mas la propia de app.datasource.<route>.hikari.*
+    private static HikariDataSource createPool(DataSourceProperties properties, Environment environment, String route) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        String baseName = StringUtils.hasText(pool.getPoolName()) ? pool.getPoolName() : "HikariPool";
+        pool.setPoolName(baseName + "-" + route);
+        binder.bind("app.datasource." + route + ".hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+}
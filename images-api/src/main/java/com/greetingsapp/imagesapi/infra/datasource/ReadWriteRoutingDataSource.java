@@ -0,0 +1,67 @@
+package com.greetingsapp.imagesapi.infra.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Elige el pool de cada conexion: las transacciones readOnly (los metodos publicos de consulta)
+ * y las lecturas sin transaccion van al pool de lectura;
+ * las transacciones de escritura, al pool de escritura.
+ * <p>
+ * Debe usarse detras de un LazyConnectionDataSourceProxy (ver {@link DataSourceRoutingConfig}):
+ * el gestor de transacciones pide la conexion antes de marcar la transaccion como readOnly,
+ * y el proxy retrasa la decision hasta la primera sentencia.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        READ, WRITE
+    }
+
+    // Fuerza el pool de escritura en el hilo actual (lecturas que no pueden tolerar el retraso de una replica)
+    private static final ThreadLocal<Boolean> FORCE_WRITE = new ThreadLocal<>();
+
+    /**
+     * Ejecuta una lectura contra el pool de escritura. Con una replica configurada, asi se ve
+     * lo que se acaba de confirmar (ej: recalculos justo despues de un cambio del catalogo).
+     */
+    public static <T> T onWritePool(Supplier<T> action) {
+        Boolean previous = FORCE_WRITE.get();
+        FORCE_WRITE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_WRITE.remove();
+            } else {
+                FORCE_WRITE.set(previous);
+            }
+        }
+    }
+
+    public static void onWritePool(Runnable action) {
+        onWritePool(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Pool que usaria una sentencia ejecutada ahora en este hilo
+    public static Route currentRoute() {
+        if (Boolean.TRUE.equals(FORCE_WRITE.get())) {
+            return Route.WRITE;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.READ;
+        }
+        return Route.WRITE;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+}
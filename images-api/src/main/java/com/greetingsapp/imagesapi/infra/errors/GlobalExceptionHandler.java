@@ -1,5 +1,6 @@
 package com.greetingsapp.imagesapi.infra.errors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -26,6 +27,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT); // 409
     }
 
+    // restriccion de la BD violada en una escritura que el servicio no tradujo a DuplicateResourceException
+    // (ver UniqueConstraints): se responde igual que un duplicado, 409, sin exponer el error SQL
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponseDTO> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return handleDuplicateResource(new DuplicateResourceException("The request conflicts with existing data."));
+    }
+
+    // cursor de paginacion alterado o corrupto -> 400
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidCursor(InvalidCursorException ex) {
+        var errorResponse = new ErrorResponseDTO("INVALID_CURSOR", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST); // 400
+    }
+
+    // cuerpo de una importacion masiva ilegible (cabecera CSV sin columnas requeridas) -> 400
+    @ExceptionHandler(InvalidImportFormatException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidImportFormat(InvalidImportFormatException ex) {
+        var errorResponse = new ErrorResponseDTO("INVALID_IMPORT_FORMAT", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST); // 400
+    }
+
     //bad request(400) error del lado del cliente, para que las validaciones funcionen en el dto
     @ExceptionHandler(MethodArgumentNotValidException.class)//clase de la excepcion
     public ResponseEntity<Map<String, String>> tratarError400(MethodArgumentNotValidException ex) {
@@ -0,0 +1,7 @@
+package com.greetingsapp.imagesapi.infra.errors;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
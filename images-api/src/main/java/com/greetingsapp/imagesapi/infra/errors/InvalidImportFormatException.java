@@ -0,0 +1,7 @@
+package com.greetingsapp.imagesapi.infra.errors;
+
+public class InvalidImportFormatException extends RuntimeException {
+    public InvalidImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.greetingsapp.imagesapi.infra.errors;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Restricciones UNIQUE de la BD (V2 y V10) con las que se detectan los duplicados.
+ * <p>
+ * Los servicios hacen un solo INSERT/UPDATE (con flush, para que el error aparezca dentro del metodo)
+ * y traducen la violacion a {@link DuplicateResourceException} con {@link #isViolated}: sin SELECT previo
+ * y sin carrera entre dos escrituras simultaneas, porque la BD es la que decide.
+ */
+public final class UniqueConstraints {
+
+    public static final String CATEGORY_NAME = "uk_categories_name";
+    public static final String THEME_CATEGORY_NAME = "uk_themes_category_name";
+    public static final String IMAGE_THEME_NAME = "uk_images_theme_name";
+    public static final String IMAGE_THEME_URL = "uk_images_theme_url_hash";
+    // Creada por la columna UNIQUE de V2 (MySQL le da el nombre de la columna)
+    public static final String USER_USERNAME = "username";
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Indica si la excepcion se debe a la restriccion indicada. Usa el nombre que extrae Hibernate
+     * y, si no lo hay, el mensaje del driver (MySQL: "Duplicate entry '...' for key 'images.uk_images_theme_url_hash'").
+     */
+    public static boolean isViolated(DataIntegrityViolationException ex, String constraint) {
+        String violated = violatedConstraint(ex);
+        return violated != null && violated.toLowerCase(Locale.ROOT).matches("(?s).*\\b" + constraint + "\\b.*");
+    }
+
+    private static String violatedConstraint(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+    }
+}
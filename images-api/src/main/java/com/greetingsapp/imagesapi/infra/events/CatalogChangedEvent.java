@@ -0,0 +1,21 @@
+package com.greetingsapp.imagesapi.infra.events;
+
+// Evento publicado por los servicios de administracion cuando cambia el catalogo
+// (imagenes, tematicas, categorias o dias especiales).
+// Los cache de lectura lo escuchan despues del commit para invalidarse.
+// CatalogVersion tambien lo publica cuando detecta un cambio hecho por otra instancia (REMOTE_SOURCE).
+public record CatalogChangedEvent(String source) {
+
+    public static final String REMOTE_SOURCE = "remote-change";
+
+    // Cambio hecho por otra instancia: no se sabe que cambio, solo que el catalogo de la BD es otro
+    public boolean isRemote() {
+        return REMOTE_SOURCE.equals(source);
+    }
+
+    // Borrado de una imagen, tematica o categoria (fuentes "<recurso>-deleted"), o un cambio remoto,
+    // que tambien puede ser un borrado
+    public boolean mayHaveDeleted() {
+        return source.endsWith("-deleted") || isRemote();
+    }
+}
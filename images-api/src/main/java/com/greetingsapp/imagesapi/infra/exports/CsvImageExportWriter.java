@@ -0,0 +1,58 @@
+package com.greetingsapp.imagesapi.infra.exports;
+
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// CSV segun RFC 4180 con cabecera; se puede volver a cargar tal cual con la importacion masiva
+class CsvImageExportWriter implements ImageExportWriter {
+
+    static final String HEADER = "id,name,description,url,themeId,themeName,categoryId,categoryName,created";
+
+    private final Writer writer;
+
+    CsvImageExportWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(ImageExportDTO image) throws IOException {
+        writer.write(String.valueOf(image.id()));
+        writer.write(',');
+        writer.write(escape(image.name()));
+        writer.write(',');
+        writer.write(escape(image.description()));
+        writer.write(',');
+        writer.write(escape(image.url()));
+        writer.write(',');
+        writer.write(String.valueOf(image.themeId()));
+        writer.write(',');
+        writer.write(escape(image.themeName()));
+        writer.write(',');
+        writer.write(String.valueOf(image.categoryId()));
+        writer.write(',');
+        writer.write(escape(image.categoryName()));
+        writer.write(',');
+        writer.write(image.created() != null ? image.created().toString() : "");
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    // Entre comillas solo si el valor contiene separadores, comillas o saltos de linea
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,24 @@
+package com.greetingsapp.imagesapi.infra.exports;
+
+// Formatos de GET /api/admin/images/export (?format=NDJSON|CSV)
+public enum ImageExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ImageExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,31 @@
+package com.greetingsapp.imagesapi.infra.exports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe las filas de la exportacion del catalogo directamente en el stream de la respuesta,
+ * una a la vez y en UTF-8. Solo se mantiene en memoria el buffer de escritura.
+ */
+public interface ImageExportWriter {
+
+    void write(ImageExportDTO image) throws IOException;
+
+    // Envia lo que quede en el buffer (no cierra el stream: eso lo hace el contenedor)
+    void flush() throws IOException;
+
+    static ImageExportWriter open(ImageExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonImageExportWriter(writer, objectMapper);
+            case CSV -> new CsvImageExportWriter(writer);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.greetingsapp.imagesapi.infra.exports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Un objeto JSON por linea
+class NdjsonImageExportWriter implements ImageExportWriter {
+
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+
+    NdjsonImageExportWriter(Writer writer, ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void write(ImageExportDTO image) throws IOException {
+        writer.write(objectMapper.writeValueAsString(image));
+        writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
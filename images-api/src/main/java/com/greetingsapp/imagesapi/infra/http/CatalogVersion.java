@@ -0,0 +1,188 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import com.greetingsapp.imagesapi.infra.datasource.ReadWriteRoutingDataSource;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.HexFormat;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sello de versión del catálogo público (categorías, temáticas, imágenes y días especiales).
+ * <p>
+ * Se calcula con una sola consulta (MAX(last_modified) y COUNT(*) de cada tabla) y se guarda en memoria,
+ * así las peticiones condicionales (If-None-Match / If-Modified-Since) se responden con 304 sin tocar la BD.
+ * El conteo detecta los borrados, que no cambian MAX(last_modified).
+ * <p>
+ * El ETag es un hash del resultado, no un contador: todas las instancias detrás del balanceador
+ * generan el mismo ETag para el mismo estado de la BD.
+ * Se recalcula tras cada cambio del catálogo en esta instancia y periódicamente (cambios de otras instancias).
+ * Cuando el refresco periódico encuentra un cambio de otra instancia, publica un CatalogChangedEvent remoto
+ * para que los cache locales (home, calendario, segundo nivel, last-known-good) se invaliden
+ * antes de anunciar el nuevo ETag.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private static final String FINGERPRINT_SQL = """
+            SELECT MAX(last_modified) AS last_modified, COUNT(*) AS total FROM categories
+            UNION ALL SELECT MAX(last_modified), COUNT(*) FROM themes
+            UNION ALL SELECT MAX(last_modified), COUNT(*) FROM images
+            UNION ALL SELECT MAX(last_modified), COUNT(*) FROM special_days
+            """;
+
+    // Sello actual del catalogo: ETag (sin comillas) y fecha de la ultima modificacion
+    public record Stamp(String etag, Instant lastModified) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // El executor de Spring Boot: taskScheduler tambien es un TaskExecutor
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile Stamp stamp;
+
+    // Evita encolar mas de un calculo en segundo plano mientras no hay sello
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    /**
+     * Sello actual, o null si todavía no se pudo calcular (ej: BD caída al arrancar).
+     * Con null las respuestas se sirven completas, sin validadores, y el cálculo se lanza en segundo plano:
+     * una petición nunca espera la consulta ni ocupa una conexión del pool por ella.
+     */
+    public Stamp current() {
+        Stamp current = stamp;
+        if (current == null) {
+            loadInBackground();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        update(false);
+    }
+
+    // Tras el commit de un cambio del catalogo: el siguiente GET ya debe ver el nuevo ETag
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isRemote()) {
+            return; // lo publicó refresh() y guarda el sello nuevo al terminar
+        }
+        refreshAfterLocalCommit();
+    }
+
+    /**
+     * Recalcula el sello tras un commit de esta instancia. Lo usan también los procesos largos que publican
+     * el CatalogChangedEvent una sola vez al final (importación masiva, purga por bloques) después de cada
+     * lote: si no, el refresco periódico tomaría sus propios commits por cambios de otra instancia.
+     */
+    public void refreshAfterLocalCommit() {
+        // Contra el pool de escritura: una replica podria no tener todavia el cambio
+        ReadWriteRoutingDataSource.onWritePool(() -> update(false));
+    }
+
+    /**
+     * Refresco periódico: recoge los cambios hechos por otras instancias (o directamente en la BD).
+     * Si el sello cambió, publica un CatalogChangedEvent remoto antes de guardar el sello nuevo.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-version.refresh-interval:PT30S}",
+            initialDelayString = "${app.catalog-version.refresh-interval:PT30S}")
+    public void refresh() {
+        update(true);
+    }
+
+    private void loadInBackground() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    update(false);
+                } finally {
+                    loading.set(false);
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            // Executor lleno: lo intentara la siguiente peticion o el refresco periodico
+            loading.set(false);
+        }
+    }
+
+    // publishRemote: avisar a los cache locales si el catalogo cambio fuera de esta instancia
+    private void update(boolean publishRemote) {
+        try {
+            StringBuilder fingerprint = new StringBuilder();
+            Instant[] maxLastModified = {Instant.EPOCH};
+            // Las columnas DATETIME guardan UTC (como las escribe Hibernate): sin el Calendar el driver
+            // las leeria en la zona de la JVM. Calendar no es thread-safe, uno por calculo
+            Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            jdbcTemplate.query(FINGERPRINT_SQL, rs -> {
+                Timestamp lastModified = rs.getTimestamp(1, utc);
+                long total = rs.getLong(2);
+                fingerprint.append(lastModified != null ? lastModified.toInstant() : "-")
+                        .append('/').append(total).append(';');
+                if (lastModified != null && lastModified.toInstant().isAfter(maxLastModified[0])) {
+                    maxLastModified[0] = lastModified.toInstant();
+                }
+            });
+
+            String etag = hash(fingerprint.toString());
+            Stamp previous = stamp;
+            if (previous == null || !previous.etag().equals(etag)) {
+                // Un borrado cambia el ETag pero no MAX(last_modified): se usa la hora de la deteccion
+                Instant lastModified = previous != null && !maxLastModified[0].isAfter(previous.lastModified())
+                        ? Instant.now()
+                        : maxLastModified[0];
+                if (publishRemote && previous != null) {
+                    log.info("Catálogo modificado fuera de esta instancia, se invalidan los cache locales");
+                    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.REMOTE_SOURCE));
+                }
+                stamp = new Stamp(etag, lastModified);
+            }
+        } catch (Exception ex) {
+            // Se conserva el sello anterior; se reintentara en el proximo ciclo
+            log.warn("No se pudo calcular la versión del catálogo. Causa: {}", ex.getMessage());
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
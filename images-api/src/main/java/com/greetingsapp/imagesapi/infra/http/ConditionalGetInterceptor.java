@@ -0,0 +1,106 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Enumeration;
+
+/**
+ * GET condicional para los endpoints públicos del catálogo.
+ * <p>
+ * Antes de llegar al controlador compara If-None-Match / If-Modified-Since con la versión del catálogo
+ * guardada en memoria ({@link CatalogVersion}). Si el cliente ya tiene la versión actual, responde 304
+ * directamente: no se consulta la BD ni se serializa el cuerpo.
+ * <p>
+ * Si hay que responder completo, deja los validadores en la petición para que
+ * {@link ConditionalGetResponseAdvice} los escriba junto al cuerpo (solo en respuestas 200 no degradadas).
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String VALIDATORS_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".VALIDATORS";
+
+    // El contenido del home cambia a medianoche en esta zona, aunque el catalogo no cambie
+    private static final String HOME_PATH = "/api/home";
+    private static final ZoneId HOME_ZONE = ZoneId.of("America/Santo_Domingo");
+
+    // ETag ya entre comillas y Last-Modified en milisegundos
+    record Validators(String etag, long lastModified) {
+    }
+
+    private final CatalogVersion catalogVersion;
+
+    public ConditionalGetInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+        if (stamp == null) {
+            return true; // sin version conocida se responde completo, sin validadores
+        }
+
+        Validators validators = validatorsFor(request.getRequestURI(), stamp, LocalDate.now(HOME_ZONE));
+        request.setAttribute(VALIDATORS_ATTRIBUTE, validators);
+
+        if (isNotModified(request, validators)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, validators.etag());
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, validators.lastModified());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            return false;
+        }
+        return true;
+    }
+
+    static Validators validatorsFor(String path, CatalogVersion.Stamp stamp, LocalDate today) {
+        if (path.startsWith(HOME_PATH)) {
+            long startOfDay = today.atStartOfDay(HOME_ZONE).toInstant().toEpochMilli();
+            long lastModified = Math.max(stamp.lastModified().toEpochMilli(), startOfDay);
+            return new Validators("\"" + stamp.etag() + "-" + today + "\"", lastModified);
+        }
+        return new Validators("\"" + stamp.etag() + "\"", stamp.lastModified().toEpochMilli());
+    }
+
+    // If-None-Match tiene prioridad; If-Modified-Since solo se evalua si no viene ETag (RFC 9110)
+    static boolean isNotModified(HttpServletRequest request, Validators validators) {
+        Enumeration<String> ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            while (ifNoneMatch.hasMoreElements()) {
+                for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                    String tag = candidate.trim();
+                    // En GET se permite la comparacion debil: W/"x" equivale a "x"
+                    if (tag.startsWith("W/")) {
+                        tag = tag.substring(2);
+                    }
+                    // "*" no se compara: en GET/HEAD pide el recurso si existe, no sirve como validador de cache
+                    if (tag.equals(validators.etag())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException ex) {
+            return false; // fecha mal formada: se ignora la cabecera
+        }
+        // Las fechas HTTP tienen precision de segundos
+        return ifModifiedSince >= 0
+                && Instant.ofEpochMilli(validators.lastModified()).getEpochSecond() <= ifModifiedSince / 1000;
+    }
+}
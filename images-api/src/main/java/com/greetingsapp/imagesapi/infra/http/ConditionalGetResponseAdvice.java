@@ -0,0 +1,66 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Escribe ETag, Last-Modified y Cache-Control: no-cache en las respuestas 200 de los endpoints con GET condicional.
+ * <p>
+ * Se hace justo antes de serializar (y no en el interceptor) para poder omitirlos cuando la respuesta
+ * es un error o viene de un fallback ({@link ResponseDegradation}): esas respuestas no deben quedar en cache del cliente.
+ * <p>
+ * Si el fallback sirvio el ultimo dato correcto conocido, agrega {@value #STALE_AGE_HEADER} con su antiguedad en segundos.
+ */
+@ControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STALE_AGE_HEADER = "X-Stale-Age";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Instant staleSince = ResponseDegradation.staleSince(attributes);
+        if (staleSince != null) {
+            long ageSeconds = Math.max(0, Duration.between(staleSince, Instant.now()).toSeconds());
+            response.getHeaders().set(STALE_AGE_HEADER, String.valueOf(ageSeconds));
+        }
+
+        Object attribute = servletRequest.getServletRequest().getAttribute(ConditionalGetInterceptor.VALIDATORS_ATTRIBUTE);
+        if (!(attribute instanceof ConditionalGetInterceptor.Validators validators)
+                || servletResponse.getServletResponse().getStatus() != 200
+                || ResponseDegradation.isDegraded(attributes)) {
+            return body;
+        }
+
+        response.getHeaders().setETag(validators.etag());
+        response.getHeaders().setLastModified(Instant.ofEpochMilli(validators.lastModified()));
+        // El cliente puede guardar la respuesta, pero debe revalidarla (y recibir 304) en cada uso
+        response.getHeaders().setCacheControl(CacheControl.noCache());
+        return body;
+    }
+}
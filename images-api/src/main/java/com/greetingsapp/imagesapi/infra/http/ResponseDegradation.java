@@ -0,0 +1,75 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+
+/**
+ * Marca la petición actual como "degradada" (respuesta de un fallback de Resilience4j).
+ * <p>
+ * Una respuesta degradada no representa el estado real del catálogo, por lo que no debe llevar
+ * ETag ni Last-Modified: de lo contrario el cliente la guardaría y recibiría 304 sobre ella.
+ * Fuera de una petición HTTP (ej: tareas programadas) no hace nada.
+ * <p>
+ * Si el fallback sirve un dato guardado de una respuesta anterior, además se marca como "stale"
+ * con el instante en que se obtuvo, para informar al cliente de su antigüedad.
+ */
+public final class ResponseDegradation {
+
+    static final String DEGRADED_ATTRIBUTE = ResponseDegradation.class.getName() + ".DEGRADED";
+    static final String STALE_SINCE_ATTRIBUTE = ResponseDegradation.class.getName() + ".STALE_SINCE";
+
+    private ResponseDegradation() {
+    }
+
+    public static void markDegraded() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DEGRADED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static boolean isDegraded(RequestAttributes attributes) {
+        return attributes != null
+                && Boolean.TRUE.equals(attributes.getAttribute(DEGRADED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    public static void markStale(Instant storedAt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(STALE_SINCE_ATTRIBUTE, storedAt, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static Instant staleSince(RequestAttributes attributes) {
+        return attributes != null
+                && attributes.getAttribute(STALE_SINCE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Instant storedAt
+                ? storedAt
+                : null;
+    }
+
+    /**
+     * Estado de degradacion de la peticion actual, para repetirlo en otras peticiones que comparten
+     * la misma respuesta (ver SingleFlightAspect). Fuera de una peticion HTTP devuelve {@link State#NONE}.
+     */
+    public static State capture() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return new State(isDegraded(attributes), staleSince(attributes));
+    }
+
+    public record State(boolean degraded, Instant staleSince) {
+
+        public static final State NONE = new State(false, null);
+
+        // Marca la peticion actual igual que la peticion de la que se capturo
+        public void apply() {
+            if (degraded) {
+                markDegraded();
+            }
+            if (staleSince != null) {
+                markStale(staleSince);
+            }
+        }
+    }
+}
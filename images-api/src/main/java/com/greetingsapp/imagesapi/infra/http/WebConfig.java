@@ -0,0 +1,20 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // GET condicional (ETag / Last-Modified) solo en los endpoints publicos del catalogo
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(catalogVersion))
+                .addPathPatterns("/api/categories/**", "/api/themes/**", "/api/images/**", "/api/home");
+    }
+}
@@ -0,0 +1,127 @@
+package com.greetingsapp.imagesapi.infra.imports;
+
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+import com.greetingsapp.imagesapi.infra.errors.InvalidImportFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV segun RFC 4180: separador coma, campos entre comillas dobles con "" como comilla escapada
+ * y saltos de linea permitidos dentro de las comillas (descripciones de varias lineas).
+ * <p>
+ * La primera fila es la cabecera y define el orden de las columnas; themeId tambien se acepta
+ * como theme_id. Las columnas desconocidas se ignoran.
+ */
+class CsvImageImportReader implements ImageImportReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "url", "themeid");
+
+    private final BufferedReader body;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long line = 1;
+    private boolean endOfInput;
+
+    CsvImageImportReader(BufferedReader body) throws IOException {
+        this.body = body;
+        readHeader();
+    }
+
+    @Override
+    public ImageImportRow next() throws IOException {
+        List<String> fields;
+        long start;
+        do {
+            if (endOfInput) {
+                return null;
+            }
+            start = line;
+            fields = readRecord();
+            if (fields == null) {
+                return ImageImportRow.invalid(start, "Unterminated quoted field.");
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank()); // lineas en blanco
+
+        String themeId = field(fields, "themeid");
+        try {
+            return ImageImportRow.valid(start, new CreateImageDTO(
+                    field(fields, "name"),
+                    field(fields, "description"),
+                    field(fields, "url"),
+                    themeId == null || themeId.isBlank() ? null : Long.valueOf(themeId.trim())));
+        } catch (NumberFormatException e) {
+            return ImageImportRow.invalid(start, "themeId must be a number: '" + themeId + "'");
+        }
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null || header.size() == 1 && header.get(0).isBlank()) {
+            throw new InvalidImportFormatException("CSV body must start with a header row.");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            // Sin el BOM que agrega Excel al guardar en UTF-8
+            String name = header.get(i).replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new InvalidImportFormatException("CSV header must contain the columns: name, description, url, themeId.");
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        int index = columns.get(column);
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    // Lee un registro completo (puede ocupar varias lineas); null si el archivo termina dentro de comillas
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            int c = body.read();
+            if (c == -1) {
+                endOfInput = true;
+                if (quoted) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    body.mark(1);
+                    if (body.read() == '"') {
+                        field.append('"');
+                    } else {
+                        body.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+}
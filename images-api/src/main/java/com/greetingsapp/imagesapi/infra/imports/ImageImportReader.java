@@ -0,0 +1,30 @@
+package com.greetingsapp.imagesapi.infra.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lee las filas de una importacion masiva de imagenes directamente del cuerpo de la peticion,
+ * una a la vez: nunca se carga el cuerpo completo en memoria.
+ * <p>
+ * Una fila mal formada no detiene la lectura; se devuelve como {@link ImageImportRow#invalid}
+ * y termina en el reporte de errores.
+ */
+public interface ImageImportReader {
+
+    // Siguiente fila del cuerpo, o null cuando ya no quedan
+    ImageImportRow next() throws IOException;
+
+    // NDJSON: un CreateImageDTO en JSON por linea
+    static ImageImportReader ndjson(Reader body, ObjectMapper objectMapper) {
+        return new NdjsonImageImportReader(new BufferedReader(body), objectMapper);
+    }
+
+    // CSV con cabecera: name, description, url, themeId (en cualquier orden)
+    static ImageImportReader csv(Reader body) throws IOException {
+        return new CsvImageImportReader(new BufferedReader(body));
+    }
+}
@@ -0,0 +1,16 @@
+package com.greetingsapp.imagesapi.infra.imports;
+
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+
+// Una fila del cuerpo de una importacion masiva: la imagen leida, o el motivo por el que no se pudo leer.
+// line es la linea del cuerpo donde empieza la fila, para el reporte de errores.
+public record ImageImportRow(long line, CreateImageDTO image, String error) {
+
+    public static ImageImportRow valid(long line, CreateImageDTO image) {
+        return new ImageImportRow(line, image, null);
+    }
+
+    public static ImageImportRow invalid(long line, String error) {
+        return new ImageImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,38 @@
+package com.greetingsapp.imagesapi.infra.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+// Cada linea es un objeto JSON independiente; las lineas en blanco se ignoran.
+class NdjsonImageImportReader implements ImageImportReader {
+
+    private final BufferedReader body;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    NdjsonImageImportReader(BufferedReader body, ObjectMapper objectMapper) {
+        this.body = body;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImageImportRow next() throws IOException {
+        String text;
+        while ((text = body.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                return ImageImportRow.valid(line, objectMapper.readValue(text, CreateImageDTO.class));
+            } catch (JsonProcessingException e) {
+                return ImageImportRow.invalid(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.greetingsapp.imagesapi.infra.pagination;
+
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+
+import java.time.Instant;
+
+// Fila proyectada para la paginacion por cursor: los campos del DTO publico mas 'created',
+// que se necesita para construir el siguiente cursor.
+public record ImageKeysetRow(Long id, String name, String description, String url, Instant created) {
+
+    public ImageResponseDTO toResponse() {
+        return new ImageResponseDTO(id, name, description, url);
+    }
+}
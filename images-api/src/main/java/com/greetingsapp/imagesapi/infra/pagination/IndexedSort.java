@@ -0,0 +1,42 @@
+package com.greetingsapp.imagesapi.infra.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orden de los listados paginados de imagenes, limitado al que resuelven los indices
+ * (created, id) y (theme_id, created, id) de V7.
+ * <p>
+ * Con cualquier otro orden (ej: sort=name) MySQL tendria que ordenar toda la tabla (filesort)
+ * para devolver una sola pagina. Solo se respeta la direccion pedida para created o id; el id
+ * siempre se agrega como desempate para que dos imagenes con el mismo created no cambien de pagina.
+ */
+public final class IndexedSort {
+
+    private static final String CREATED = "created";
+    private static final String ID = "id";
+
+    private IndexedSort() {
+    }
+
+    public static Pageable apply(Pageable pageable) {
+        Sort.Order first = pageable.getSort().stream()
+                .filter(order -> CREATED.equals(order.getProperty()) || ID.equals(order.getProperty()))
+                .findFirst()
+                .orElse(null);
+
+        Sort sort;
+        if (first != null && ID.equals(first.getProperty())) {
+            sort = Sort.by(first.getDirection(), ID);
+        } else {
+            // Por defecto: lo mas reciente primero
+            Sort.Direction direction = first != null ? first.getDirection() : Sort.Direction.DESC;
+            sort = Sort.by(new Sort.Order(direction, CREATED), new Sort.Order(direction, ID));
+        }
+
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+}
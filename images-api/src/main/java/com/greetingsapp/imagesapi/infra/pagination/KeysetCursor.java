@@ -0,0 +1,60 @@
+package com.greetingsapp.imagesapi.infra.pagination;
+
+import com.greetingsapp.imagesapi.infra.errors.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Posicion dentro de un listado ordenado por (created DESC, id DESC).
+ * <p>
+ * Se serializa como un texto Base64 URL-safe para que el cliente lo trate como un valor opaco:
+ * solo debe devolverlo tal cual en el parametro {@code cursor} de la siguiente peticion.
+ * Se guardan segundos y nanosegundos por separado para no perder la precision de DATETIME(6).
+ */
+public record KeysetCursor(Instant created, Long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Rango de una columna DATETIME de MySQL: fuera de el, el cursor no puede venir de un listado real
+    private static final long MIN_SECONDS = Instant.parse("1000-01-01T00:00:00Z").getEpochSecond();
+    private static final long MAX_SECONDS = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+    private static final int MAX_NANOS = 999_999_999;
+
+    public String encode() {
+        String raw = created.getEpochSecond() + "." + created.getNano() + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica el cursor recibido del cliente.
+     * Un cursor vacio significa "primera pagina" y devuelve {@code null}.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            if (dot < 0 || colon < dot) {
+                throw new InvalidCursorException("Invalid pagination cursor.");
+            }
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            long id = Long.parseLong(raw.substring(colon + 1));
+            // Instant.ofEpochSecond ajusta los nanos fuera de rango y puede desbordar (ArithmeticException)
+            if (seconds < MIN_SECONDS || seconds > MAX_SECONDS || nanos < 0 || nanos > MAX_NANOS) {
+                throw new InvalidCursorException("Invalid pagination cursor.");
+            }
+            return new KeysetCursor(Instant.ofEpochSecond(seconds, nanos), id);
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+            // NumberFormatException y los errores de Base64 son IllegalArgumentException
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.greetingsapp.imagesapi.infra.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greetingsapp.imagesapi.infra.authentication.TokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiting por cliente, antes de Spring Security y de Spring MVC.
+ * <p>
+ * Cada cliente tiene su propia cubeta (ver {@link TokenBucketPolicy}): un cliente ruidoso agota
+ * solo la suya. La clave es el usuario del JWT si el token es valido, o la IP en caso contrario.
+ * Las rutas caras (busqueda, login) consumen mas tokens que un listado simple.
+ * <p>
+ * Las cubetas viven en un cache de Caffeine (concurrente, sin locks globales) y se descartan tras
+ * un tiempo sin uso; la expiracion es muy superior a lo que tarda una cubeta en llenarse, asi que
+ * descartar una no regala tokens.
+ * <p>
+ * Se registra con orden menor que el de Spring Security (ver {@link RateLimitConfig}).
+ * El @RateLimiter global de Resilience4j se mantiene como limite total del servidor.
+ */
+@Component
+public class ClientRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientRateLimitFilter.class);
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final int DEFAULT_WEIGHT = 1;
+
+    // Peso (tokens) por ruta; gana la primera que coincide. Peso 0 = sin limite.
+    private static final List<RouteWeight> ROUTE_WEIGHTS = List.of(
+            // Health checks de la plataforma, preflight CORS y documentacion
+            route(null, "/actuator/**", 0),
+            route(HttpMethod.OPTIONS, "/**", 0),
+            route(null, "/swagger-ui/**", 0),
+            route(null, "/v3/api-docs/**", 0),
+            // Login: cada intento cuesta mucho para frenar fuerza bruta desde una misma IP
+            route(HttpMethod.POST, "/api/auth/login", 10),
+            // Busqueda: recorre el indice y ordena resultados
+            route(HttpMethod.GET, "/api/images/search", 5),
+            // Listados de imagenes paginados
+            route(HttpMethod.GET, "/api/images", 2),
+            route(HttpMethod.GET, "/api/themes/*/images", 2),
+            route(HttpMethod.GET, "/api/categories/*/images", 2)
+    );
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Rafaga maxima por cliente (tokens)
+    @Value("${app.rate-limit.capacity:60}")
+    private int capacity;
+
+    // Tokens que recupera cada cliente por segundo
+    @Value("${app.rate-limit.refill-per-second:20}")
+    private int refillPerSecond;
+
+    // Tiempo sin peticiones tras el cual se descarta la cubeta de un cliente
+    @Value("${app.rate-limit.idle-timeout:PT10M}")
+    private Duration idleTimeout;
+
+    @Value("${app.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    private TokenBucketPolicy policy;
+    private Cache<String, AtomicLong> buckets;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        policy = new TokenBucketPolicy(capacity, refillPerSecond);
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "ratelimit.buckets");
+        rejected = Counter.builder("ratelimit.rejected")
+                .description("Peticiones rechazadas por el rate limiting por cliente")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        int cost = weightOf(request);
+        if (cost == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(clientKey(request), key -> policy.newBucket(now));
+        long result = policy.tryConsume(bucket, cost, now);
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(capacity));
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(result));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        // Retry-After va en segundos enteros: se redondea hacia arriba para no invitar a reintentar antes de tiempo
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result + 999_999_999L));
+        log.debug("Rate limit por cliente excedido en {} {}", request.getMethod(), request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "timestamp", LocalDateTime.now().toString(),
+                "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                "error", "Too Many Requests",
+                "message", "Ha excedido el límite de peticiones. Por favor, espere un momento antes de intentar nuevamente."
+        ));
+    }
+
+    // Usuario del JWT si el token es valido (la verificacion esta cacheada en TokenService); si no, la IP.
+    // No se confia en un token sin verificar: cambiando el "sub" se podria estrenar una cubeta en cada peticion.
+    private String clientKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                return "user:" + tokenService.verify(authHeader.substring(7)).username();
+            } catch (RuntimeException ex) {
+                // Token invalido: se limita por IP y Spring Security se encargara de rechazarlo
+            }
+        }
+        // Detras de un proxy, server.forward-headers-strategy hace que esta sea la IP real del cliente
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static int weightOf(HttpServletRequest request) {
+        for (RouteWeight route : ROUTE_WEIGHTS) {
+            if (route.matcher().matches(request)) {
+                return route.weight();
+            }
+        }
+        return DEFAULT_WEIGHT;
+    }
+
+    private static RouteWeight route(HttpMethod method, String pattern, int weight) {
+        return new RouteWeight(PathPatternRequestMatcher.withDefaults().matcher(method, pattern), weight);
+    }
+
+    private record RouteWeight(RequestMatcher matcher, int weight) {
+    }
+}
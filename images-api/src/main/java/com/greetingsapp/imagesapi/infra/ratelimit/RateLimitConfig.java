@@ -0,0 +1,25 @@
+package com.greetingsapp.imagesapi.infra.ratelimit;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra el rate limiting por cliente como filtro del servlet, antes de la cadena de Spring Security.
+ * Asi una peticion rechazada no llega a verificar el JWT, abrir el contexto de seguridad ni despachar a MVC.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    // Spring Security se registra con orden -100; este filtro va justo antes
+    static final int FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER - 10;
+
+    @Bean
+    public FilterRegistrationBean<ClientRateLimitFilter> clientRateLimitFilterRegistration(ClientRateLimitFilter filter) {
+        FilterRegistrationBean<ClientRateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(FILTER_ORDER);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,58 @@
+package com.greetingsapp.imagesapi.infra.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket implementado como GCRA (Generic Cell Rate Algorithm).
+ * <p>
+ * En lugar de guardar "tokens disponibles" y "ultima recarga" (dos valores que habria que
+ * actualizar juntos con un lock), cada cliente guarda un solo long: el instante teorico en el que
+ * su cubeta vuelve a estar llena. Consumir es un compareAndSet sobre ese long, sin locks ni
+ * objetos nuevos por peticion. El resultado es el mismo que un token bucket de capacidad
+ * {@code capacity} que se recarga a {@code refillPerSecond} tokens por segundo.
+ */
+record TokenBucketPolicy(int capacity, int refillPerSecond) {
+
+    TokenBucketPolicy {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+        }
+    }
+
+    // Nanosegundos que tarda en recargarse un token
+    long tokenIntervalNanos() {
+        return 1_000_000_000L / refillPerSecond;
+    }
+
+    // Estado inicial de un cliente nuevo: cubeta llena
+    AtomicLong newBucket(long nowNanos) {
+        return new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Intenta consumir {@code cost} tokens.
+     *
+     * @return tokens restantes (>= 0) si se permitio la peticion, o el tiempo de espera en
+     * nanosegundos con signo negativo si se rechazo
+     */
+    long tryConsume(AtomicLong bucket, int cost, long nowNanos) {
+        long interval = tokenIntervalNanos();
+        long burst = capacity * interval;
+        // Un peso mayor que la capacidad nunca podria pasar: se limita a la cubeta completa
+        long increment = Math.min(cost, capacity) * interval;
+
+        while (true) {
+            long fullAt = bucket.get();
+            long newFullAt = Math.max(fullAt, nowNanos) + increment;
+            long used = newFullAt - nowNanos;
+
+            if (used > burst) {
+                // Espera minima para que quepa esta peticion (siempre > 0)
+                return -(used - burst);
+            }
+            if (bucket.compareAndSet(fullAt, newFullAt)) {
+                return (burst - used) / interval;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estado del limite adaptativo de la capa de repositorios en /actuator/concurrencylimit,
+ * junto a los endpoints de Resilience4j (circuitbreakers, ratelimiters, bulkheads...).
+ */
+@Component
+@Endpoint(id = "concurrencylimit")
+public class ConcurrencyLimitEndpoint {
+
+    @Autowired
+    private RepositoryConcurrencyLimiter limiter;
+
+    @ReadOperation
+    public Map<String, Object> concurrencyLimit() {
+        Map<String, String> rttNoLoadByQuery = new TreeMap<>();
+        limiter.getRttNoLoadNanosByQuery().forEach((query, nanos) -> rttNoLoadByQuery.put(query, Duration.ofNanos(nanos).toString()));
+        return Map.of(
+                "limit", limiter.getLimit(),
+                "inFlight", limiter.getInFlight(),
+                "rttNoLoad", Duration.ofNanos(limiter.getRttNoLoadNanos()).toString(),
+                "rttNoLoadByQuery", rttNoLoadByQuery
+        );
+    }
+}
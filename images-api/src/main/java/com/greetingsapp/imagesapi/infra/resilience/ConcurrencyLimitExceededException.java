@@ -0,0 +1,13 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+/**
+ * La capa de repositorios ya tiene tantas consultas en curso como su limite adaptativo permite.
+ * Se responde 503 (ver {@link ResilienceExceptionHandler}) en lugar de encolar la consulta.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(int limit) {
+        // Sin stack trace: se lanza justamente cuando el servidor esta sobrecargado
+        super("Repository concurrency limit reached: " + limit + " in-flight calls", null, false, false);
+    }
+}
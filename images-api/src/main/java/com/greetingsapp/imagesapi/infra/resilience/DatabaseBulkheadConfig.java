@@ -0,0 +1,55 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.common.bulkhead.configuration.BulkheadConfigCustomizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Dimensiona el bulkhead "databaseBH" a partir del pool de conexiones de lectura de Hikari.
+ * <p>
+ * Sin bulkhead, un pico de trafico deja cientos de hilos de Tomcat bloqueados en
+ * HikariPool.getConnection hasta el connection-timeout (30 s). Con un semaforo del tamaño del pool
+ * (por un factor pequeño, porque parte de las lecturas se resuelven en cache sin tocar la BD),
+ * las llamadas de sobra esperan como mucho maxWaitDuration y se responde 503.
+ * <p>
+ * El aspecto de Bulkhead de Resilience4j siempre es el mas interno (dentro del Circuit Breaker),
+ * asi que sus rechazos llegan a los fallbacks: estos deben relanzarlos con {@link #rethrowIfFull}
+ * para que terminen en 503 y no se confundan con una BD caida.
+ */
+@Configuration
+public class DatabaseBulkheadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBulkheadConfig.class);
+
+    // Las lecturas usan el pool de lectura (ver DataSourceRoutingConfig); Hikari usa 10 conexiones si no se configura otra cosa
+    @Value("${app.datasource.read.hikari.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int poolSize;
+
+    // Llamadas concurrentes permitidas por cada conexion del pool
+    @Value("${app.bulkhead.calls-per-connection:2}")
+    private int callsPerConnection;
+
+    @Bean
+    public BulkheadConfigCustomizer databaseBulkheadCustomizer() {
+        int maxConcurrentCalls = Math.max(1, poolSize * callsPerConnection);
+        log.info("Bulkhead databaseBH: {} llamadas concurrentes (pool de {} conexiones)", maxConcurrentCalls, poolSize);
+        return BulkheadConfigCustomizer.of("databaseBH", builder -> builder.maxConcurrentCalls(maxConcurrentCalls));
+    }
+
+    /**
+     * Relanza el rechazo del bulkhead (o del limite adaptativo de repositorios) desde un fallback:
+     * la peticion debe responder 503 (ver {@link ResilienceExceptionHandler}) en lugar de servir un dato de respaldo.
+     */
+    public static void rethrowIfFull(Throwable t) {
+        if (t instanceof BulkheadFullException full) {
+            throw full;
+        }
+        if (t instanceof ConcurrencyLimitExceededException limited) {
+            throw limited;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ultima respuesta correcta de cada lectura publica, para servirla si la BD falla (stale-if-error).
+ * <p>
+ * Cada llamada exitosa guarda su resultado con clave "operacion + argumentos"; los fallbacks de
+ * Resilience4j lo recuperan con {@link #recall} y solo devuelven vacio si nunca hubo una respuesta
+ * buena para esa clave. No consulta la BD ni agrega carga: solo guarda lo que ya se calculo.
+ * <p>
+ * Esta acotado en numero de entradas (las menos usadas se descartan) y en antiguedad.
+ * Las altas y ediciones del catalogo no lo vacian a proposito: durante una caida es preferible un dato
+ * algo desactualizado a una app vacia. Los borrados si: lo borrado no debe reaparecer como respaldo.
+ * <p>
+ * Los fallbacks no deben usarlo para un recurso inexistente (ver {@link #rethrowIfNotFound}).
+ */
+@Component
+public class LastKnownGoodStore {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.last-known-good.max-entries:2000}")
+    private long maxEntries;
+
+    // Pasado este tiempo un dato ya no se considera util ni como respaldo
+    @Value("${app.last-known-good.max-age:P1D}")
+    private Duration maxAge;
+
+    private Cache<Key, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(maxAge)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "last-known-good");
+    }
+
+    // Guarda el resultado correcto de una operacion
+    public void put(String operation, Object value, Object... args) {
+        if (value != null) {
+            entries.put(new Key(operation, Arrays.asList(args)), new Entry(value, Instant.now()));
+        }
+    }
+
+    /**
+     * Devuelve el ultimo resultado correcto de la operacion, si existe, y marca la respuesta
+     * HTTP actual como desactualizada (ver {@link ResponseDegradation#markStale}).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> recall(String operation, Object... args) {
+        Entry entry = entries.getIfPresent(new Key(operation, Arrays.asList(args)));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        ResponseDegradation.markStale(entry.storedAt());
+        return Optional.of((T) entry.value());
+    }
+
+    // Tras un borrado (o un cambio de otra instancia) se descarta todo: las claves no dicen que tematicas
+    // o categorias contiene cada respuesta
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.mayHaveDeleted()) {
+            entries.invalidateAll();
+        }
+    }
+
+    /**
+     * Un recurso inexistente (404) no es una falla de la BD: los fallbacks lo relanzan antes de
+     * llamar a {@link #recall}, para no servir la lista de una tematica o categoria ya borrada.
+     */
+    public static void rethrowIfNotFound(Throwable t) {
+        if (t instanceof ResourceNotFoundException notFound) {
+            throw notFound;
+        }
+    }
+
+    // Arrays.asList admite argumentos null (ej: cursor de la primera pagina) y compara por contenido
+    private record Key(String operation, List<Object> args) {
+    }
+
+    private record Entry(Object value, Instant storedAt) {
+    }
+}
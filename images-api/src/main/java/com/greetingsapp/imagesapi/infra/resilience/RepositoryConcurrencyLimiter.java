@@ -0,0 +1,156 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import com.greetingsapp.imagesapi.infra.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concurrencia adaptativo alrededor de las lecturas de los repositorios de Spring Data.
+ * <p>
+ * Los limites fijos de Resilience4j (permisos por segundo) no siguen lo que la BD aguanta en cada
+ * momento, y la latencia de TiDB varia mucho. Aqui el numero de consultas en curso se ajusta con
+ * el RTT medido de cada llamada al repositorio ({@link VegasLimit}, con un RTT base por metodo); la
+ * medicion incluye la espera por una conexion del pool, asi que el encolamiento en Hikari tambien baja el limite.
+ * <p>
+ * Solo se limitan las llamadas que van al pool de lectura (ver ReadWriteRoutingDataSource), es decir el
+ * trafico publico. Las escrituras del admin, los lotes de la importacion y de la purga, el logout y las
+ * lecturas forzadas al pool de escritura pasan sin permiso ni muestra. Las llamadas que no ejecutan SQL
+ * (cache de segundo nivel o de consultas) ocupan un permiso pero no se usan como muestra de RTT.
+ * <p>
+ * Cuando no hay permiso la llamada se rechaza al instante con {@link ConcurrencyLimitExceededException}
+ * (503), antes de que la latencia se dispare para todos. El limite actual se publica en
+ * /actuator/metrics (db.concurrency.limit) y en /actuator/concurrencylimit.
+ */
+@Aspect
+@Component
+public class RepositoryConcurrencyLimiter implements HibernatePropertiesCustomizer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.adaptive-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.adaptive-limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${app.adaptive-limit.min:2}")
+    private int minLimit;
+
+    @Value("${app.adaptive-limit.max:200}")
+    private int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private VegasLimit limit;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        limit = new VegasLimit(initialLimit, minLimit, maxLimit);
+        Gauge.builder("db.concurrency.limit", this, RepositoryConcurrencyLimiter::getLimit)
+                .description("Consultas concurrentes permitidas en la capa de repositorios (adaptativo)")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Consultas en curso en la capa de repositorios")
+                .register(meterRegistry);
+        rejected = Counter.builder("db.concurrency.rejected")
+                .description("Consultas rechazadas por el limite adaptativo")
+                .register(meterRegistry);
+    }
+
+    // Cuenta las sentencias SQL de cada hilo, para no medir las llamadas resueltas por el cache
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        Object configured = hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter(toInspector(configured)));
+    }
+
+    // El valor configurado puede ser una instancia, una clase o el nombre de la clase
+    private static StatementInspector toInspector(Object configured) {
+        if (configured == null || configured instanceof StatementInspector) {
+            return (StatementInspector) configured;
+        }
+        Class<?> type = configured instanceof Class<?> clazz
+                ? clazz
+                : ClassUtils.resolveClassName(configured.toString().trim(), null);
+        return (StatementInspector) BeanUtils.instantiateClass(type);
+    }
+
+    // UserRepository queda fuera: lo usan el login y el filtro JWT, donde un rechazo se veria como un 401
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " && !target(com.greetingsapp.imagesapi.repository.UserRepository)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled || ReadWriteRoutingDataSource.currentRoute() != ReadWriteRoutingDataSource.Route.READ) {
+            return joinPoint.proceed();
+        }
+
+        int current = acquire();
+        long statements = SqlStatementCounter.current();
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return joinPoint.proceed();
+        } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException ex) {
+            // Timeout o sin conexion: señal de sobrecarga
+            dropped = true;
+            throw ex;
+        } finally {
+            inFlight.decrementAndGet();
+            if (dropped || SqlStatementCounter.current() != statements) {
+                limit.onSample(joinPoint.getSignature().toShortString(), System.nanoTime() - start, current, dropped);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // El mayor RTT sin carga entre los metodos medidos
+    public long getRttNoLoadNanos() {
+        return limit.getRttNoLoad();
+    }
+
+    public Map<String, Long> getRttNoLoadNanosByQuery() {
+        return limit.getRttNoLoadByQuery();
+    }
+
+    // Reserva un permiso sin bloquear; devuelve las llamadas en curso incluyendo esta
+    private int acquire() {
+        while (true) {
+            int current = inFlight.get();
+            int max = limit.getLimit();
+            if (current >= max) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException(max);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.greetingsapp.imagesapi.infra.resilience;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.internal.AtomicRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Manejador global de excepciones relacionadas con los patrones de resiliencia.
@@ -21,6 +33,21 @@ public class ResilienceExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ResilienceExceptionHandler.class);
 
+    // RequestNotPermitted no expone el limiter; su mensaje es "RateLimiter 'nombre' does not permit further calls"
+    private static final Pattern RATE_LIMITER_NAME = Pattern.compile("RateLimiter '([^']+)'");
+
+    // Igual para BulkheadFullException: "Bulkhead 'nombre' is full and does not permit further calls"
+    private static final Pattern BULKHEAD_NAME = Pattern.compile("Bulkhead '([^']+)'");
+
+    @Autowired
+    private RateLimiterRegistry rateLimiterRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private RepositoryConcurrencyLimiter concurrencyLimiter;
+
     /**
      * Maneja la excepción cuando el Circuit Breaker está ABIERTO.
      * Esto ocurre cuando el servicio dependiente ha fallado demasiadas veces.
@@ -42,6 +69,31 @@ public class ResilienceExceptionHandler {
                 .body(errorResponse);
     }
 
+    /**
+     * Maneja la excepción cuando el Bulkhead o el límite adaptativo de repositorios están llenos.
+     * Esto ocurre cuando ya hay tantas consultas en curso como el pool de conexiones (o la latencia
+     * observada de la BD) admite y no se liberó un permiso a tiempo.
+     */
+    @ExceptionHandler({BulkheadFullException.class, ConcurrencyLimitExceededException.class})
+    public ResponseEntity<Map<String, Object>> handleBulkheadFull(RuntimeException ex) {
+        log.warn("Bulkhead lleno - Demasiadas consultas concurrentes: {}", ex.getMessage());
+
+        Map<String, Object> errorResponse = Map.of(
+                "timestamp", LocalDateTime.now().toString(),
+                "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "error", "Service Temporarily Unavailable",
+                "message", "El servidor está atendiendo demasiadas peticiones. Por favor, intente nuevamente en unos momentos."
+        );
+
+        long retryAfter = ex instanceof BulkheadFullException full
+                ? retryAfterSeconds(full)
+                : retryAfterSeconds((ConcurrencyLimitExceededException) ex);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(errorResponse);
+    }
+
     /**
      * Maneja la excepción cuando el Rate Limiter rechaza la petición.
      * Esto ocurre cuando se ha excedido el límite de peticiones permitidas.
@@ -59,7 +111,62 @@ public class ResilienceExceptionHandler {
 
         return ResponseEntity
                 .status(HttpStatus.TOO_MANY_REQUESTS)
-                .header("Retry-After", "1") // Sugiere esperar 1 segundo
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(ex)))
                 .body(errorResponse);
     }
+
+    /**
+     * Segundos hasta que el limiter que rechazo la peticion renueve permisos (minimo 1, redondeado hacia arriba).
+     * Si no se puede identificar el limiter, se usa el periodo de renovacion de la configuracion por defecto.
+     */
+    long retryAfterSeconds(RequestNotPermitted ex) {
+        long nanos = rateLimiterRegistry.getDefaultConfig().getLimitRefreshPeriod().toNanos();
+
+        Matcher matcher = RATE_LIMITER_NAME.matcher(String.valueOf(ex.getMessage()));
+        if (matcher.find()) {
+            RateLimiter rateLimiter = rateLimiterRegistry.find(matcher.group(1)).orElse(null);
+            if (rateLimiter != null) {
+                nanos = rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod().toNanos();
+                if (rateLimiter instanceof AtomicRateLimiter atomic) {
+                    // Tiempo real hasta el siguiente ciclo del limiter
+                    nanos = atomic.getDetailedMetrics().getNanosToWait();
+                }
+            }
+        }
+        return toRetryAfterSeconds(nanos);
+    }
+
+    /**
+     * Segundos de espera configurados en el bulkhead que rechazo la peticion (maxWaitDuration):
+     * la peticion ya espero ese tiempo sin que se liberara un permiso. Minimo 1, redondeado hacia arriba.
+     * Si no se puede identificar el bulkhead, se usa la configuracion por defecto.
+     */
+    long retryAfterSeconds(BulkheadFullException ex) {
+        Duration maxWait = bulkheadRegistry.getDefaultConfig().getMaxWaitDuration();
+
+        Matcher matcher = BULKHEAD_NAME.matcher(String.valueOf(ex.getMessage()));
+        if (matcher.find()) {
+            Bulkhead bulkhead = bulkheadRegistry.find(matcher.group(1)).orElse(null);
+            if (bulkhead != null) {
+                maxWait = bulkhead.getBulkheadConfig().getMaxWaitDuration();
+            }
+        }
+        return toRetryAfterSeconds(maxWait.toNanos());
+    }
+
+    /**
+     * Tiempo estimado para que se vacie el limite adaptativo de repositorios: las consultas en curso
+     * terminan en tandas de 'limite' llamadas, cada una de aproximadamente el RTT sin carga medido.
+     * Minimo 1, redondeado hacia arriba.
+     */
+    long retryAfterSeconds(ConcurrencyLimitExceededException ex) {
+        int limit = Math.max(1, concurrencyLimiter.getLimit());
+        int inFlight = Math.max(limit, concurrencyLimiter.getInFlight());
+        long batches = (inFlight + limit - 1) / limit;
+        return toRetryAfterSeconds(concurrencyLimiter.getRttNoLoadNanos() * batches);
+    }
+
+    private static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
 }
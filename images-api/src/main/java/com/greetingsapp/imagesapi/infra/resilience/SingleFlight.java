@@ -0,0 +1,19 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Agrupa las llamadas concurrentes e identicas (mismo metodo y mismos argumentos) en una sola ejecucion:
+ * la primera consulta la BD y las demas esperan su resultado (ver {@link SingleFlightAspect}).
+ * <p>
+ * Solo para lecturas cuyo resultado no depende del usuario: todas las peticiones reciben el mismo objeto.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
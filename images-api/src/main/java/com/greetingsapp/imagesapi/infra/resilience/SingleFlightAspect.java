@@ -0,0 +1,129 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight para los metodos anotados con {@link SingleFlight}.
+ * <p>
+ * Cuando miles de clientes piden a la vez /api/home, /api/categories o la primera pagina de un tema,
+ * cada peticion lanzaria la misma consulta y agotaria el pool de conexiones. Aqui la primera llamada
+ * con una clave (metodo + argumentos) la ejecuta y las que llegan mientras esta en curso esperan su
+ * {@link CompletableFuture}: una consulta por clave en lugar de una por peticion.
+ * <p>
+ * Se ejecuta por fuera de Retry, CircuitBreaker, RateLimiter y Bulkhead, asi que las llamadas que esperan
+ * no ocupan permisos del bulkhead. Si la respuesta compartida salio de un fallback, las demas peticiones
+ * tambien se marcan como degradadas. Si la ejecucion en curso tarda mas de app.single-flight.timeout,
+ * la llamada deja de esperar y consulta por su cuenta.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10) // antes que el aspecto de Retry (LOWEST_PRECEDENCE - 4)
+public class SingleFlightAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightAspect.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.single-flight.timeout:PT5S}")
+    private Duration timeout;
+
+    // Ejecuciones en curso por clave; la entrada se quita al terminar
+    private final ConcurrentHashMap<Key, CompletableFuture<Flight>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter shared;
+    private Counter timeouts;
+
+    @PostConstruct
+    void init() {
+        shared = Counter.builder("singleflight.shared")
+                .description("Llamadas que reutilizaron el resultado de una ejecucion en curso")
+                .register(meterRegistry);
+        timeouts = Counter.builder("singleflight.timeouts")
+                .description("Llamadas que dejaron de esperar la ejecucion en curso y consultaron por su cuenta")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.greetingsapp.imagesapi.infra.resilience.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()));
+
+        CompletableFuture<Flight> mine = new CompletableFuture<>();
+        CompletableFuture<Flight> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running, joinPoint);
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            mine.complete(new Flight(result, ResponseDegradation.capture()));
+            return result;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    int getInFlight() {
+        return inFlight.size();
+    }
+
+    private Object await(CompletableFuture<Flight> running, ProceedingJoinPoint joinPoint) throws Throwable {
+        Flight flight;
+        try {
+            flight = running.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            // La misma excepcion que recibio la llamada que consulto (ej: 503 por bulkhead lleno)
+            throw ex.getCause();
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            log.warn("{} sigue en curso tras {}, consultando sin esperar",
+                    joinPoint.getSignature().toShortString(), timeout);
+            return joinPoint.proceed();
+        }
+        shared.increment();
+        flight.degradation().apply();
+        return flight.result();
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+
+    // Resultado compartido y el estado de degradacion con el que se obtuvo
+    private record Flight(Object result, ResponseDegradation.State degradation) {
+    }
+}
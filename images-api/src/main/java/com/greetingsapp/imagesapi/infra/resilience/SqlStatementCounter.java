@@ -0,0 +1,34 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en cada hilo.
+ * <p>
+ * {@link RepositoryConcurrencyLimiter} lo usa para distinguir una llamada que consulto la BD de una
+ * resuelta por el cache de segundo nivel o de consultas: esta ultima tarda microsegundos y, como
+ * muestra de RTT, haria parecer encolada a cualquier consulta real.
+ * <p>
+ * Si la configuracion ya define un StatementInspector (spring.jpa.properties), se encadena detras de este.
+ */
+final class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final StatementInspector delegate;
+
+    SqlStatementCounter(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    // Sentencias preparadas hasta ahora en el hilo actual
+    static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return delegate != null ? delegate.inspect(sql) : sql;
+    }
+}
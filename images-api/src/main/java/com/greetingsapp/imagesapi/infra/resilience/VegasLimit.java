@@ -0,0 +1,134 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Limite de concurrencia adaptativo al estilo TCP Vegas.
+ * <p>
+ * Compara cada RTT medido con el RTT "sin carga" (el minimo observado) de la misma consulta. Si el RTT
+ * crece, las consultas se estan encolando (en el pool de Hikari o en la BD) y el limite baja; si se
+ * mantiene cerca del minimo, hay margen y el limite sube. El encolamiento estimado es
+ * {@code limite * (1 - rttSinCarga / rtt)} y se compara con umbrales que crecen con log10(limite).
+ * <p>
+ * El RTT sin carga se lleva por consulta (metodo del repositorio): una busqueda por PK y un listado
+ * paginado con COUNT tienen latencias base muy distintas, y con un solo minimo global las consultas
+ * lentas parecerian siempre encoladas. Cada uno se vuelve a medir periodicamente (cada
+ * probeMultiplier * limite muestras de esa consulta) para seguir los cambios de latencia base de la BD.
+ * Un error de conexion o timeout cuenta como perdida y siempre reduce el limite.
+ */
+final class VegasLimit {
+
+    private static final int PROBE_MULTIPLIER = 30;
+
+    // Peso del nuevo valor al suavizar el limite (1 = sin suavizado)
+    private static final double SMOOTHING = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double estimatedLimit;
+
+    // RTT sin carga de cada consulta (protegido por 'this')
+    private final Map<String, Baseline> baselines = new HashMap<>();
+
+    // Lectura sin lock en cada adquisicion de permiso
+    private volatile int limit;
+
+    private static final class Baseline {
+        private long rttNoLoad;
+        private long probeCountdown;
+    }
+
+    VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid adaptive limit bounds: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    // El mayor RTT sin carga entre las consultas medidas (0 si todavia no hay muestras)
+    synchronized long getRttNoLoad() {
+        return baselines.values().stream().mapToLong(baseline -> baseline.rttNoLoad).max().orElse(0);
+    }
+
+    synchronized Map<String, Long> getRttNoLoadByQuery() {
+        Map<String, Long> result = new TreeMap<>();
+        baselines.forEach((query, baseline) -> result.put(query, baseline.rttNoLoad));
+        return result;
+    }
+
+    /**
+     * Registra una llamada terminada.
+     *
+     * @param query    consulta medida (su RTT se compara con el RTT sin carga de la misma consulta)
+     * @param rttNanos duracion de la llamada
+     * @param inFlight llamadas en curso cuando empezo esta
+     * @param dropped  true si fallo por sobrecarga (timeout, sin conexion)
+     */
+    synchronized void onSample(String query, long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        double current = estimatedLimit;
+        double log = Math.max(1, Math.log10(current));
+
+        if (dropped) {
+            update(current - log);
+            return;
+        }
+
+        Baseline baseline = baselines.computeIfAbsent(query, key -> newBaseline());
+        if (--baseline.probeCountdown <= 0) {
+            // Nueva medicion del RTT base: la latencia "normal" de la BD puede haber cambiado
+            baseline.probeCountdown = probeInterval();
+            baseline.rttNoLoad = rttNanos;
+            return;
+        }
+        if (baseline.rttNoLoad == 0 || rttNanos < baseline.rttNoLoad) {
+            baseline.rttNoLoad = rttNanos;
+            return;
+        }
+        // Con menos de la mitad del limite en uso, la latencia no dice nada sobre el limite
+        if (inFlight * 2 < current) {
+            return;
+        }
+
+        int queueSize = (int) Math.ceil(current * (1 - (double) baseline.rttNoLoad / rttNanos));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+
+        if (queueSize <= log) {
+            update(current + beta);
+        } else if (queueSize < alpha) {
+            update(current + log);
+        } else if (queueSize > beta) {
+            update(current - log);
+        }
+    }
+
+    private void update(double newLimit) {
+        double bounded = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        estimatedLimit = (1 - SMOOTHING) * estimatedLimit + SMOOTHING * bounded;
+        limit = (int) Math.max(minLimit, Math.round(estimatedLimit));
+    }
+
+    private Baseline newBaseline() {
+        Baseline baseline = new Baseline();
+        baseline.probeCountdown = probeInterval();
+        return baseline;
+    }
+
+    private long probeInterval() {
+        return (long) PROBE_MULTIPLIER * Math.max(1, limit);
+    }
+}
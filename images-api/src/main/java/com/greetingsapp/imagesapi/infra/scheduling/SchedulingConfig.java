@@ -0,0 +1,14 @@
+package com.greetingsapp.imagesapi.infra.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita @Scheduled (tareas periodicas, ej: precarga del home antes de medianoche)
+// y @Async (refrescos de cache en segundo plano, fuera del hilo de la peticion).
+// Usa el executor por defecto de Spring Boot (spring.task.execution / spring.task.scheduling).
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+}
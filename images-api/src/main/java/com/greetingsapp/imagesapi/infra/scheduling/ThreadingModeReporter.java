@@ -0,0 +1,36 @@
+package com.greetingsapp.imagesapi.infra.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informa al arrancar con que hilos corren las peticiones, @Async y @Scheduled.
+ * <p>
+ * spring.threads.virtual.enabled (perfil virtual-threads) solo tiene efecto con Java 21 o superior:
+ * con Java 17 Spring Boot la ignora sin avisar, y se seguiria midiendo el modo de hilos de plataforma.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    @Autowired
+    private Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Peticiones, @Async y @Scheduled en hilos virtuales (Java {})", Runtime.version().feature());
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled=true requiere Java 21 o superior (Java {}): se usan hilos de plataforma",
+                    Runtime.version().feature());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.greetingsapp.imagesapi.infra.search;
+
+import java.time.Instant;
+
+// Datos de una imagen necesarios para indexarla: sus campos de texto y los de su tematica/categoria.
+public record ImageSearchDocument(
+        Long id,
+        String name,
+        String description,
+        String url,
+        Long themeId,
+        String themeName,
+        Long categoryId,
+        String categoryName,
+        Instant created
+) {
+}
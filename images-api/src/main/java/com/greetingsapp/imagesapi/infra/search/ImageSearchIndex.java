@@ -0,0 +1,449 @@
+package com.greetingsapp.imagesapi.infra.search;
+
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Indice invertido en memoria para la busqueda de imagenes.
+ * <p>
+ * Sustituye a los dos LIKE '%texto%' sobre name y description (que obligaban a recorrer toda la tabla)
+ * por una busqueda en memoria cuyo costo depende del numero de terminos, no del tamaño de la tabla.
+ * <p>
+ * - Indexa nombre, descripcion, nombre de la tematica y nombre de la categoria (con pesos distintos).
+ * - Normaliza acentos y guiones con {@link SearchTextNormalizer}.
+ * - Cada palabra de la consulta debe aparecer en la imagen (AND). Las palabras pueden estar
+ * incompletas: tambien se aceptan terminos que empiecen por ellas (busqueda mientras se escribe).
+ * - Ordena los resultados por relevancia BM25 y, a igualdad, por fecha de creacion descendente.
+ * <p>
+ * Se construye al arrancar la aplicacion y se actualiza de forma incremental desde los servicios.
+ * Los cambios que llegan mientras se reconstruye se aplican tambien sobre el indice nuevo antes del intercambio.
+ * Los cambios hechos por otras instancias no llegan como actualizaciones: cuando CatalogVersion los detecta
+ * (CatalogChangedEvent remoto) el indice se reconstruye en segundo plano.
+ * Mientras no esta listo, {@link #isReady()} devuelve false y el servicio usa la consulta a la BD.
+ */
+@Component
+public class ImageSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageSearchIndex.class);
+
+    // Parametros estandar de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Pesos por campo: una coincidencia en el nombre vale mas que una en la descripcion
+    private static final int NAME_WEIGHT = 3;
+    private static final int THEME_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Expansion por prefijo: "cumple" -> "cumpleanos"
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double PREFIX_PENALTY = 0.8;
+
+    // Filas leidas por consulta al construir el indice
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    // El executor de Spring Boot: taskScheduler tambien es un TaskExecutor
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Estado del indice (protegido por 'lock')
+    private IndexData data = new IndexData();
+
+    // Cambios aplicados mientras hay una reconstruccion en curso (protegido por 'lock'); null si no hay ninguna
+    private List<Consumer<IndexData>> changesDuringRebuild;
+
+    // Una sola reconstruccion a la vez; una pedida mientras corre otra se ejecuta al terminar esa
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    private volatile boolean ready;
+
+    // Documento ya procesado: se guarda el DTO de respuesta para no construirlo en cada busqueda
+    private record IndexedImage(ImageSearchDocument document,
+                                ImageResponseDTO response,
+                                Map<String, Integer> termFrequencies,
+                                int length) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reconstruye el indice completo leyendo la tabla por bloques (keyset por id).
+     * El nuevo indice se arma fuera del lock y luego se intercambia de golpe.
+     * Si ya hay una reconstruccion en curso, se repite al terminar (puede no haber visto el cambio que motivo esta).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildRequested.set(true);
+        while (rebuildRequested.get() && rebuildLock.tryLock()) {
+            try {
+                if (rebuildRequested.getAndSet(false)) {
+                    rebuildNow();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    // Otra instancia cambio el catalogo: sus cambios no llegan como actualizaciones incrementales
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isRemote()) {
+            taskExecutor.execute(this::rebuild);
+        }
+    }
+
+    private void rebuildNow() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData newData;
+        try {
+            newData = readAll();
+        } catch (RuntimeException ex) {
+            // Si la BD no esta disponible al arrancar, la busqueda sigue funcionando con la consulta SQL;
+            // si el indice ya estaba listo, se conserva (con los cambios incrementales aplicados)
+            log.warn("No se pudo construir el indice de busqueda. Se usara {}. Causa: {}",
+                    ready ? "el indice anterior" : "la consulta a la BD", ex.getMessage());
+            newData = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (newData != null) {
+                // Los cambios confirmados durante la lectura pueden no estar en ella: se aplican de nuevo
+                // (son idempotentes, repetir uno que la lectura ya vio no cambia nada)
+                int replayed = changesDuringRebuild.size();
+                for (Consumer<IndexData> change : changesDuringRebuild) {
+                    change.accept(newData);
+                }
+                data = newData;
+                ready = true;
+                log.info("Indice de busqueda construido: {} imagenes, {} terminos en {} ms ({} cambios reaplicados)",
+                        newData.documents.size(), newData.postings.size(), System.currentTimeMillis() - start, replayed);
+            }
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private IndexData readAll() {
+        IndexData newData = new IndexData();
+        Long lastId = 0L;
+        List<ImageSearchDocument> batch;
+        do {
+            batch = imageRepository.findSearchDocumentsAfter(lastId, PageRequest.ofSize(BUILD_BATCH_SIZE));
+            for (ImageSearchDocument document : batch) {
+                newData.add(analyze(document));
+                lastId = document.id();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        return newData;
+    }
+
+    /**
+     * Busca imagenes por texto y devuelve la pagina pedida ordenada por relevancia.
+     * El orden de Pageable se ignora: el resultado siempre se ordena por puntaje.
+     */
+    public Page<ImageResponseDTO> search(String query, Pageable pageable) {
+        List<String> tokens = SearchTextNormalizer.tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            IndexData current = data;
+            int documentCount = current.documents.size();
+            if (documentCount == 0) {
+                return Page.empty(pageable);
+            }
+            double averageLength = (double) current.totalLength / documentCount;
+
+            // Interseccion de los documentos que contienen cada palabra, sumando sus puntajes
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(current, token, documentCount, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(byRelevance(current));
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            List<ImageResponseDTO> content = new ArrayList<>(to - from);
+            for (Map.Entry<Long, Double> entry : ranked.subList(from, to)) {
+                content.add(current.documents.get(entry.getKey()).response());
+            }
+            return new PageImpl<>(content, pageable, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============================================
+    // ACTUALIZACIONES INCREMENTALES
+    // ============================================
+    // Si hay una transaccion activa, el cambio se aplica despues del commit:
+    // asi un rollback no deja el indice con datos que no existen en la BD.
+    // Cada cambio es idempotente, para poder reaplicarlo sobre un indice en reconstruccion (ver rebuildNow).
+
+    // Agrega o reemplaza una imagen
+    public void upsert(ImageSearchDocument document) {
+        IndexedImage indexed = analyze(document);
+        apply(target -> {
+            target.remove(document.id());
+            target.add(indexed);
+        });
+    }
+
+    public void remove(Long imageId) {
+        apply(target -> target.remove(imageId));
+    }
+
+    // Al renombrar una tematica hay que reindexar sus imagenes (el nombre de la tematica es buscable)
+    public void renameTheme(Long themeId, String themeName) {
+        reindexWhere(document -> themeId.equals(document.themeId()),
+                document -> withThemeName(document, themeName));
+    }
+
+    // La tematica cambio de categoria: sus imagenes se buscan ahora por el nombre de la nueva
+    public void moveTheme(Long themeId, Long categoryId, String categoryName) {
+        reindexWhere(document -> themeId.equals(document.themeId()),
+                document -> withCategory(document, categoryId, categoryName));
+    }
+
+    public void renameCategory(Long categoryId, String categoryName) {
+        reindexWhere(document -> categoryId.equals(document.categoryId()),
+                document -> withCategoryName(document, categoryName));
+    }
+
+    // El borrado en cascada de la BD elimina las imagenes de la tematica/categoria
+    public void removeTheme(Long themeId) {
+        reindexWhere(document -> themeId.equals(document.themeId()), document -> null);
+    }
+
+    public void removeCategory(Long categoryId) {
+        reindexWhere(document -> categoryId.equals(document.categoryId()), document -> null);
+    }
+
+    // ============================================
+    // METODOS INTERNOS
+    // ============================================
+
+    private static Map<Long, Double> scoreToken(IndexData index, String token, int documentCount, double averageLength) {
+        Map<Long, Double> result = new HashMap<>();
+
+        Map<Long, Integer> exact = index.postings.get(token);
+        if (exact != null) {
+            accumulate(index, result, exact, 1.0, documentCount, averageLength);
+        }
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                    : index.postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(index, result, entry.getValue(), PREFIX_PENALTY, documentCount, averageLength);
+            }
+        }
+        return result;
+    }
+
+    // Para cada documento se queda con el mejor termino que coincide con la palabra de la consulta
+    private static void accumulate(IndexData index, Map<Long, Double> result, Map<Long, Integer> termPostings,
+                                   double boost, int documentCount, double averageLength) {
+        int documentFrequency = termPostings.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+            int termFrequency = posting.getValue();
+            int length = index.documents.get(posting.getKey()).length();
+            double normalized = termFrequency * (K1 + 1)
+                    / (termFrequency + K1 * (1 - B + B * length / averageLength));
+            result.merge(posting.getKey(), boost * idf * normalized, Math::max);
+        }
+    }
+
+    private static Comparator<Map.Entry<Long, Double>> byRelevance(IndexData index) {
+        return (a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            if (byScore != 0) {
+                return byScore;
+            }
+            ImageSearchDocument first = index.documents.get(a.getKey()).document();
+            ImageSearchDocument second = index.documents.get(b.getKey()).document();
+            if (first.created() != null && second.created() != null) {
+                int byCreated = second.created().compareTo(first.created());
+                if (byCreated != 0) {
+                    return byCreated;
+                }
+            }
+            return Long.compare(b.getKey(), a.getKey());
+        };
+    }
+
+    private static IndexedImage analyze(ImageSearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, document.name(), NAME_WEIGHT)
+                + addTerms(frequencies, document.themeName(), THEME_WEIGHT)
+                + addTerms(frequencies, document.categoryName(), CATEGORY_WEIGHT)
+                + addTerms(frequencies, document.description(), DESCRIPTION_WEIGHT);
+
+        ImageResponseDTO response = new ImageResponseDTO(
+                document.id(), document.name(), document.description(), document.url());
+        return new IndexedImage(document, response, frequencies, length);
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = SearchTextNormalizer.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    // Reindexa (o elimina, si el reemplazo es null) los documentos que cumplen la condicion
+    private void reindexWhere(Predicate<ImageSearchDocument> condition,
+                              Function<ImageSearchDocument, ImageSearchDocument> replacement) {
+        apply(target -> {
+            List<ImageSearchDocument> affected = target.documents.values().stream()
+                    .map(IndexedImage::document)
+                    .filter(condition)
+                    .toList();
+            for (ImageSearchDocument document : affected) {
+                target.remove(document.id());
+                ImageSearchDocument updated = replacement.apply(document);
+                if (updated != null) {
+                    target.add(analyze(updated));
+                }
+            }
+        });
+    }
+
+    // Aplica un cambio al indice tras el commit y, si hay una reconstruccion en curso, lo guarda para reaplicarlo
+    private void apply(Consumer<IndexData> change) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                change.accept(data);
+                if (changesDuringRebuild != null) {
+                    changesDuringRebuild.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static ImageSearchDocument withThemeName(ImageSearchDocument d, String themeName) {
+        return new ImageSearchDocument(d.id(), d.name(), d.description(), d.url(),
+                d.themeId(), themeName, d.categoryId(), d.categoryName(), d.created());
+    }
+
+    private static ImageSearchDocument withCategoryName(ImageSearchDocument d, String categoryName) {
+        return withCategory(d, d.categoryId(), categoryName);
+    }
+
+    private static ImageSearchDocument withCategory(ImageSearchDocument d, Long categoryId, String categoryName) {
+        return new ImageSearchDocument(d.id(), d.name(), d.description(), d.url(),
+                d.themeId(), d.themeName(), categoryId, categoryName, d.created());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Documentos, listas invertidas y longitud total de un indice; se modifica con el lock de escritura tomado
+    // (o antes de publicarse, durante la reconstruccion)
+    private static final class IndexData {
+
+        private final Map<Long, IndexedImage> documents = new HashMap<>();
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private long totalLength;
+
+        void add(IndexedImage indexed) {
+            Long id = indexed.document().id();
+            documents.put(id, indexed);
+            indexed.termFrequencies().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+            totalLength += indexed.length();
+        }
+
+        void remove(Long imageId) {
+            IndexedImage previous = documents.remove(imageId);
+            if (previous == null) {
+                return;
+            }
+            totalLength -= previous.length();
+            for (String term : previous.termFrequencies().keySet()) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(imageId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.greetingsapp.imagesapi.infra.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza texto para el indice de busqueda.
+ * <p>
+ * - Pasa a minusculas y elimina acentos/diacriticos ("cumpleaños" -> "cumpleanos").
+ * - Trata guiones y guiones bajos como espacios, igual que el truco de "nameQuery"
+ * que convertia "feliz cumpleaños" en "feliz-cumpleaños": ahora ambos producen los mismos tokens.
+ */
+public final class SearchTextNormalizer {
+
+    // Marcas diacriticas que quedan separadas tras la descomposicion NFD (tilde, virgulilla, dieresis...)
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    // Todo lo que no sea letra o digito separa tokens (espacios, guiones, signos de puntuacion, emojis)
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private SearchTextNormalizer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
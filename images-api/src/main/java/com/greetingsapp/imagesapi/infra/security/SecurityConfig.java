@@ -4,14 +4,20 @@ import com.greetingsapp.imagesapi.infra.errors.CustomAuthenticationEntryPoint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -76,7 +82,14 @@ public class SecurityConfig {
                 "Content-Type",
                 "X-Requested-With",
                 "Accept",
-                "Origin"
+                "Origin",
+                "If-None-Match",
+                "If-Modified-Since"
+        ));
+
+        // Validadores de GET condicional, cabeceras de rate limiting y antiguedad de datos de respaldo visibles para clientes web
+        configuration.setExposedHeaders(Arrays.asList(
+                "ETag", "Last-Modified", "Retry-After", "X-RateLimit-Limit", "X-RateLimit-Remaining", "X-Stale-Age"
         ));
 
         // Permite enviar cookies/credenciales
@@ -92,7 +105,44 @@ public class SecurityConfig {
         return source;
     }
 
+    // GET sin header Authorization fuera de /api/admin: van por la cadena rapida
+    private static final RequestMatcher ADMIN_PATHS = PathPatternRequestMatcher.withDefaults().matcher("/api/admin/**");
+
+    private static final RequestMatcher ANONYMOUS_PUBLIC_GET = request ->
+            HttpMethod.GET.matches(request.getMethod())
+                    && request.getHeader(HttpHeaders.AUTHORIZATION) == null
+                    && !ADMIN_PATHS.matches(request);
+
+    /**
+     * Casi todo el trafico son GET anonimos. Solo cuando no hay header Authorization (y no es admin)
+     * se usa esta cadena corta: sin filtro JWT, sin SecurityContextHolderFilter ni token anonimo
+     * por peticion (se reutiliza un contexto compartido), sin cache de peticiones ni logout.
+     * Con Authorization la peticion sigue por la cadena completa, aunque sea un GET.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain anonymousPublicGetChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher(ANONYMOUS_PUBLIC_GET)
+                .csrf(csrf -> csrf.disable())
+                // CORS se mantiene: los navegadores tambien hacen GET anonimos
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // El contexto lo instala SharedAnonymousContextFilter
+                .securityContext(context -> context.disable())
+                .anonymous(anonymous -> anonymous.disable())
+                .requestCache(cache -> cache.disable())
+                .logout(logout -> logout.disable())
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .exceptionHandling(exceptions ->
+                        exceptions.authenticationEntryPoint(customAuthenticationEntryPoint)
+                )
+                .addFilterBefore(new SharedAnonymousContextFilter(), AuthorizationFilter.class)
+                .build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 // Desactivamos CSRF porque usamos JWT (stateless)
@@ -124,4 +174,15 @@ public class SecurityConfig {
                 .addFilterBefore(securityFilterJwt, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * SecurityFilterJWT es un @Component y Spring Boot lo registraria tambien como filtro del
+     * servlet, fuera de Spring Security. Solo debe ejecutarse dentro de la cadena completa.
+     */
+    @Bean
+    public FilterRegistrationBean<SecurityFilterJWT> securityFilterJwtRegistration(SecurityFilterJWT filter) {
+        FilterRegistrationBean<SecurityFilterJWT> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
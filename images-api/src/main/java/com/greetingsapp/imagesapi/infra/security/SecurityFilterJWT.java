@@ -1,5 +1,8 @@
 package com.greetingsapp.imagesapi.infra.security;
 
+import com.greetingsapp.imagesapi.domain.users.User;
+import com.greetingsapp.imagesapi.infra.authentication.TokenClaims;
+import com.greetingsapp.imagesapi.infra.authentication.TokenRevocationList;
 import com.greetingsapp.imagesapi.infra.authentication.TokenService;
 import com.greetingsapp.imagesapi.repository.UserRepository;
 import jakarta.servlet.FilterChain;
@@ -7,6 +10,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -24,6 +28,20 @@ public class SecurityFilterJWT extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    // Modo sin estado: el usuario se arma con los claims del token, sin consultar la BD en cada peticion.
+    // La revocacion se controla con la lista en memoria (logout y version de tokens por usuario).
+    @Value("${api.security.token.stateless:false}")
+    private boolean stateless;
+
+    // Sin token Bearer no hay nada que validar: la peticion sigue como anonima
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return recoverToken(request) == null;
+    }
+
     //FILTRO PERSONALIZADO
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,15 +50,17 @@ public class SecurityFilterJWT extends OncePerRequestFilter {
         try {
             String token = recoverToken(request);
             if (token != null) {
-                String username = tokenService.getSubject(token);
-                var user = userRepository.findByUsername(username).orElseThrow();
-
-                var authentication = new UsernamePasswordAuthenticationToken(
-                        user,
-                        null,
-                        user.getAuthorities()
-                );
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                TokenClaims claims = tokenService.verify(token);
+                User user = resolveUser(claims);
+
+                if (user != null) {
+                    var authentication = new UsernamePasswordAuthenticationToken(
+                            user,
+                            null,
+                            user.getAuthorities()
+                    );
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (RuntimeException ex) {
             // Si el token es inválido o expiró, limpiamos el contexto para asegurar que no quede basura
@@ -51,7 +71,22 @@ public class SecurityFilterJWT extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-    
+
+    // Devuelve el usuario autenticado, o null si el token fue revocado
+    private User resolveUser(TokenClaims claims) {
+        if (tokenRevocationList.isRevoked(claims)) {
+            return null;
+        }
+
+        // Sin estado: solo si la lista de revocacion ya se cargo; si no, se valida contra la BD
+        if (stateless && tokenRevocationList.isReady()) {
+            return claims.toPrincipal();
+        }
+
+        User user = userRepository.findByUsername(claims.username()).orElseThrow();
+        // Con la consulta a la BD la version del usuario siempre esta al dia
+        return claims.tokenVersion() < user.getTokenVersion() ? null : user;
+    }
 
     private String recoverToken(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
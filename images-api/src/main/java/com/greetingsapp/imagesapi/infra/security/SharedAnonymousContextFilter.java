@@ -0,0 +1,61 @@
+package com.greetingsapp.imagesapi.infra.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro de la cadena rapida de GET anonimos (ver {@link SecurityConfig}).
+ * <p>
+ * Sustituye a SecurityContextHolderFilter y AnonymousAuthenticationFilter: en lugar de crear un
+ * SecurityContext y un AnonymousAuthenticationToken nuevos por peticion, instala siempre el mismo
+ * contexto inmutable. Al ser compartido entre hilos, cualquier intento de modificarlo falla.
+ */
+class SharedAnonymousContextFilter extends OncePerRequestFilter {
+
+    static final SecurityContext ANONYMOUS_CONTEXT = new ImmutableContext(new AnonymousAuthenticationToken(
+            "public-get",
+            "anonymousUser",
+            AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")
+    ));
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SecurityContextHolder.setContext(ANONYMOUS_CONTEXT);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // El hilo vuelve al pool del servidor sin contexto
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static final class ImmutableContext implements SecurityContext {
+
+        private final Authentication authentication;
+
+        private ImmutableContext(Authentication authentication) {
+            this.authentication = authentication;
+        }
+
+        @Override
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        @Override
+        public void setAuthentication(Authentication authentication) {
+            throw new UnsupportedOperationException("Shared anonymous security context is read-only");
+        }
+    }
+}
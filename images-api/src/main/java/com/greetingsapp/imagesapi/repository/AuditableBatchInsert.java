@@ -0,0 +1,110 @@
+package com.greetingsapp.imagesapi.repository;
+
+import com.greetingsapp.imagesapi.domain.common.AuditableBaseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+/**
+ * INSERT de muchas entidades de una tabla en un solo viaje a la BD.
+ * <p>
+ * Los ids son AUTO_INCREMENT (IDENTITY), y con IDENTITY Hibernate no agrupa los INSERT en lotes:
+ * necesita el id de cada fila al insertarla. Aqui se usa un lote JDBC que el driver de MySQL reescribe
+ * como un solo INSERT multi-fila (rewriteBatchedStatements) y se leen los ids generados.
+ * Lo usan la importacion masiva (ImageBatchInsert) y la carga inicial (DataInitializer).
+ */
+@Component
+public class AuditableBatchInsert {
+
+    private static final List<String> AUDIT_COLUMNS = List.of("created_by", "created", "last_modified_by", "last_modified");
+
+    // La misma auditoria que @CreatedBy/@CreatedDate en los INSERT de Hibernate
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta las entidades (nuevas, sin id) y les asigna el id generado y los campos de auditoria.
+     * Las entidades no quedan administradas por el contexto de persistencia. Debe llamarse dentro de una
+     * transaccion de escritura; las violaciones de restricciones llegan como DataIntegrityViolationException.
+     *
+     * @param table   tabla destino
+     * @param columns columnas propias de la entidad (las de auditoria se agregan aqui)
+     * @param values  valores de esas columnas para cada entidad, en el mismo orden (enums por nombre)
+     */
+    public <E extends AuditableBaseEntity> void insertAll(String table, List<String> columns, List<E> entities,
+                                                          Function<E, Object[]> values) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        Instant now = Instant.now();
+        for (E entity : entities) {
+            entity.setCreatedBy(auditor);
+            entity.setCreated(now);
+            entity.setLastModifiedBy(auditor);
+            entity.setLastModified(now);
+        }
+
+        List<String> allColumns = new ArrayList<>(columns);
+        allColumns.addAll(AUDIT_COLUMNS);
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", allColumns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(allColumns.size(), "?")) + ")";
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    // Los Instant se guardan en UTC, igual que Hibernate (columnas DATETIME)
+                    private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        E entity = entities.get(i);
+                        Object[] row = values.apply(entity);
+                        int index = 1;
+                        for (Object value : row) {
+                            Object jdbcValue = value instanceof Enum<?> constant ? constant.name() : value;
+                            StatementCreatorUtils.setParameterValue(statement, index++, SqlTypeValue.TYPE_UNKNOWN, jdbcValue);
+                        }
+                        statement.setString(index++, entity.getCreatedBy());
+                        statement.setTimestamp(index++, Timestamp.from(entity.getCreated()), utc);
+                        statement.setString(index++, entity.getLastModifiedBy());
+                        statement.setTimestamp(index, Timestamp.from(entity.getLastModified()), utc);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entities.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != entities.size()) {
+            throw new IllegalStateException("Expected " + entities.size() + " generated ids, got " + generated.size() + ".");
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            entities.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -2,14 +2,41 @@ package com.greetingsapp.imagesapi.repository;
 
 import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.users.User;
+import com.greetingsapp.imagesapi.infra.cache.SecondLevelCacheConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.List;
 
 //capa de acceso a datos (los repositorios)
 // Category este es el tipo de entidad para la cual el repositorio está diseñado.
 // Long Este es el tipo de dato de la clave primaria (ID) de la entidad Category.
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    Optional<Category> findByName(String name);
+    // Listado de categorias y comprobacion de existencia de los listados por categoria,
+    // servidos desde la cache de consultas (ver SecondLevelCacheConfig). findAll solo lo usa el listado publico: solo lectura
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.QUERIES),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Override
+    List<Category> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.QUERIES)
+    })
+    @Override
+    boolean existsById(Long id);
+
+    // Borrado set-based (ver CatalogPurgeService): sus tematicas e imagenes ya se borraron antes
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
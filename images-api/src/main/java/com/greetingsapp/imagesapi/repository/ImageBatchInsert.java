@@ -0,0 +1,21 @@
+package com.greetingsapp.imagesapi.repository;
+
+import com.greetingsapp.imagesapi.domain.images.Image;
+
+import java.util.List;
+
+/**
+ * INSERT de muchas imagenes en un solo viaje a la BD (fragmento de {@link ImageRepository}).
+ * <p>
+ * Hibernate no agrupa los INSERT con ids IDENTITY; este fragmento usa el lote JDBC de
+ * {@link AuditableBatchInsert} (un solo INSERT multi-fila con rewriteBatchedStatements).
+ */
+public interface ImageBatchInsert {
+
+    /**
+     * Inserta las imagenes (nuevas, sin id) y les asigna el id generado y los campos de auditoria.
+     * Las imagenes no quedan administradas por el contexto de persistencia. Debe llamarse dentro de una
+     * transaccion de escritura; las violaciones de restricciones llegan como DataIntegrityViolationException.
+     */
+    void insertAll(List<Image> images);
+}
@@ -0,0 +1,22 @@
+package com.greetingsapp.imagesapi.repository;
+
+import com.greetingsapp.imagesapi.domain.images.Image;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+// Implementacion de ImageBatchInsert; Spring Data la combina con ImageRepository por el sufijo Impl
+class ImageBatchInsertImpl implements ImageBatchInsert {
+
+    private static final List<String> COLUMNS = List.of("name", "description", "url", "theme_id", "category_id");
+
+    @Autowired
+    private AuditableBatchInsert batchInsert;
+
+    @Override
+    public void insertAll(List<Image> images) {
+        batchInsert.insertAll("images", COLUMNS, images, image -> new Object[]{
+                image.getName(), image.getDescription(), image.getUrl(),
+                image.getTheme().getId(), image.getCategory().getId()});
+    }
+}
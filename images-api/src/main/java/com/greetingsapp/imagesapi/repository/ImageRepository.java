@@ -1,30 +1,222 @@
 package com.greetingsapp.imagesapi.repository;
 
+import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.images.Image;
-import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.List;
 
 //Al extender de `PagingAndSortingRepository`, le estás diciendo a otros desarrolladores
 // (y a tu "yo" del futuro) que el propósito principal de
 // este repositorio es manejar grandes cantidades de datos que necesitan ser paginados y ordenados.
-public interface ImageRepository extends JpaRepository<Image, Long> {
+public interface ImageRepository extends JpaRepository<Image, Long>, ImageBatchInsert {
 
-    // retorna una pagina que representara una imagen
-    Page<Image> findByThemeId(Long themeId, Pageable pageable);
+    // ============================================
+    // LECTURAS PUBLICAS (PROYECCIONES A DTO)
+    // ============================================
+    // Estas consultas seleccionan directamente en ImageResponseDTO con "SELECT new ...":
+    // Hibernate no crea entidades administradas, no las guarda en el contexto de persistencia,
+    // no hace dirty checking y no crea el proxy lazy de Theme. Solo viajan las 4 columnas necesarias.
+    // Las entidades Image quedan solo para las escrituras de administracion.
+    // El orden del Pageable se aplica sobre el alias 'i' (ej: sort=created -> ORDER BY i.created).
 
-    // Busca una imagen por su nombre Y su objeto de temática asociado.
-    Optional<Image> findByNameAndTheme(String name, Theme theme);
+    // retorna una pagina de imagenes de una tematica
+    @Query(value = """
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageResponseDTO(i.id, i.name, i.description, i.url)
+            FROM Image i
+            WHERE i.theme.id = :themeId
+            """,
+            countQuery = "SELECT COUNT(i) FROM Image i WHERE i.theme.id = :themeId")
+    Page<ImageResponseDTO> findResponsesByThemeId(@Param("themeId") Long themeId, Pageable pageable);
 
-    // Búsqueda flexible
+    @Query(value = """
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageResponseDTO(i.id, i.name, i.description, i.url)
+            FROM Image i
+            """,
+            countQuery = "SELECT COUNT(i) FROM Image i")
+    Page<ImageResponseDTO> findAllResponses(Pageable pageable);
+
+    // Busca imágenes de una categoría por la columna desnormalizada images.category_id (sin JOIN con themes).
+    @Query(value = """
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageResponseDTO(i.id, i.name, i.description, i.url)
+            FROM Image i
+            WHERE i.category.id = :categoryId
+            """,
+            countQuery = "SELECT COUNT(i) FROM Image i WHERE i.category.id = :categoryId")
+    Page<ImageResponseDTO> findResponsesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    // Búsqueda flexible (respaldo del indice de busqueda en memoria)
     // Traduccción: "Encuentra imágenes donde el (Nombre contenga X) O (Descripción contenga X), ignorando mayúsculas/minúsculas"
-    Page<Image> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description, Pageable pageable);
+    // Los terminos llegan escapados con '!' (ver ImageDatabaseSearchService.escapeLike): un % o _ del usuario es literal
+    @Query(value = """
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageResponseDTO(i.id, i.name, i.description, i.url)
+            FROM Image i
+            WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '!'
+               OR LOWER(i.description) LIKE LOWER(CONCAT('%', :description, '%')) ESCAPE '!'
+            """,
+            countQuery = """
+                    SELECT COUNT(i) FROM Image i
+                    WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '!'
+                       OR LOWER(i.description) LIKE LOWER(CONCAT('%', :description, '%')) ESCAPE '!'
+                    """)
+    Page<ImageResponseDTO> searchResponses(@Param("name") String name,
+                                           @Param("description") String description,
+                                           Pageable pageable);
+
+    // Listas sin COUNT(*) para la pantalla de inicio (solo se usa el LIMIT del Pageable)
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageResponseDTO(i.id, i.name, i.description, i.url)
+            FROM Image i
+            WHERE i.theme.id = :themeId
+            """)
+    List<ImageResponseDTO> findResponseListByThemeId(@Param("themeId") Long themeId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageResponseDTO(i.id, i.name, i.description, i.url)
+            FROM Image i
+            """)
+    List<ImageResponseDTO> findResponseList(Pageable pageable);
+
+    // ============================================
+    // PAGINACION POR CURSOR (KEYSET)
+    // ============================================
+    // En lugar de OFFSET, se "busca" a partir de la ultima fila vista (created, id).
+    // Al devolver List en vez de Page, Spring Data NO ejecuta el COUNT(*) adicional.
+    // El Pageable solo se usa para aplicar el LIMIT (siempre pagina 0).
+    // La condicion "created <= :created" permite al motor usar un rango sobre el indice de created.
+
+    // Primera pagina (sin cursor)
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow(i.id, i.name, i.description, i.url, i.created)
+            FROM Image i
+            ORDER BY i.created DESC, i.id DESC
+            """)
+    List<ImageKeysetRow> findFirstPage(Pageable pageable);
+
+    // Paginas siguientes: filas estrictamente "despues" del cursor en el orden (created DESC, id DESC).
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow(i.id, i.name, i.description, i.url, i.created)
+            FROM Image i
+            WHERE i.created <= :created AND (i.created < :created OR i.id < :id)
+            ORDER BY i.created DESC, i.id DESC
+            """)
+    List<ImageKeysetRow> findPageAfter(@Param("created") Instant created, @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow(i.id, i.name, i.description, i.url, i.created)
+            FROM Image i
+            WHERE i.theme.id = :themeId
+            ORDER BY i.created DESC, i.id DESC
+            """)
+    List<ImageKeysetRow> findFirstPageByThemeId(@Param("themeId") Long themeId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow(i.id, i.name, i.description, i.url, i.created)
+            FROM Image i
+            WHERE i.theme.id = :themeId
+              AND i.created <= :created AND (i.created < :created OR i.id < :id)
+            ORDER BY i.created DESC, i.id DESC
+            """)
+    List<ImageKeysetRow> findPageAfterByThemeId(@Param("themeId") Long themeId,
+                                                @Param("created") Instant created,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow(i.id, i.name, i.description, i.url, i.created)
+            FROM Image i
+            WHERE i.category.id = :categoryId
+            ORDER BY i.created DESC, i.id DESC
+            """)
+    List<ImageKeysetRow> findFirstPageByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow(i.id, i.name, i.description, i.url, i.created)
+            FROM Image i
+            WHERE i.category.id = :categoryId
+              AND i.created <= :created AND (i.created < :created OR i.id < :id)
+            ORDER BY i.created DESC, i.id DESC
+            """)
+    List<ImageKeysetRow> findPageAfterByCategoryId(@Param("categoryId") Long categoryId,
+                                                   @Param("created") Instant created,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    // ============================================
+    // BORRADOS SET-BASED (ver CatalogPurgeService)
+    // ============================================
+    // Un solo DELETE por conjunto, sin cargar entidades en el contexto de persistencia.
+
+    long countByThemeId(Long themeId);
+
+    long countByCategoryId(Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM Image i WHERE i.theme.id = :themeId")
+    int deleteAllByThemeIdInBulk(@Param("themeId") Long themeId);
+
+    @Modifying
+    @Query("DELETE FROM Image i WHERE i.category.id = :categoryId")
+    int deleteAllByCategoryIdInBulk(@Param("categoryId") Long categoryId);
+
+    // Borrado por lotes para arboles grandes: DELETE ... LIMIT (MySQL/TiDB) no existe en JPQL.
+    // Cada lote es una transaccion corta que no bloquea millones de filas de una vez.
+    // HINT_NATIVE_SPACES: solo toca images; sin declararlo Hibernate vaciaria toda la cache de segundo nivel.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "images"))
+    @Query(value = "DELETE FROM images WHERE theme_id = :themeId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByThemeId(@Param("themeId") Long themeId, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "images"))
+    @Query(value = "DELETE FROM images WHERE category_id = :categoryId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByCategoryId(@Param("categoryId") Long categoryId, @Param("limit") int limit);
+
+    // Mantiene la categoria desnormalizada cuando una tematica cambia de categoria
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Image i SET i.category = :category WHERE i.theme.id = :themeId")
+    int updateCategoryByThemeId(@Param("themeId") Long themeId, @Param("category") Category category);
+
+    // ============================================
+    // INDICE DE BUSQUEDA
+    // ============================================
+    // Lee las imagenes junto al nombre de su tematica y categoria en una sola consulta (sin entidades),
+    // por bloques ordenados por id, para construir el indice invertido en memoria.
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.search.ImageSearchDocument(
+                i.id, i.name, i.description, i.url, t.id, t.name, c.id, c.name, i.created)
+            FROM Image i JOIN i.theme t JOIN t.category c
+            WHERE i.id > :afterId
+            ORDER BY i.id
+            """)
+    List<ImageSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
-    // Busca imágenes donde la propiedad 'category.id' dentro de 'theme' coincida con el parámetro.
-    // Spring Data traduce esto automáticamente a un JOIN.
-    Page<Image> findByThemeCategoryId(Long categoryId, Pageable pageable);
+    // ============================================
+    // EXPORTACION DEL CATALOGO
+    // ============================================
+    // Un bloque de la exportacion: imagenes con id mayor que afterId, en orden de PK (keyset por id, igual
+    // que findSearchDocumentsAfter). Cada bloque es una consulta corta: la conexion se devuelve al pool
+    // antes de escribir las filas en la respuesta.
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.dto.images.ImageExportDTO(
+                i.id, i.name, i.description, i.url, t.id, t.name, c.id, c.name, i.created)
+            FROM Image i JOIN i.theme t JOIN i.category c
+            WHERE i.id > :afterId
+            ORDER BY i.id
+            """)
+    List<ImageExportDTO> findExportPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 
 }
@@ -0,0 +1,29 @@
+package com.greetingsapp.imagesapi.repository;
+
+import com.greetingsapp.imagesapi.domain.users.RevokedToken;
+import com.greetingsapp.imagesapi.infra.authentication.RevokedTokenEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Tokens revocados que aun no expiran (los unicos que importan para la lista en memoria)
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.authentication.RevokedTokenEntry(r.jti, r.expiresAt)
+            FROM RevokedToken r
+            WHERE r.expiresAt > :now
+            """)
+    List<RevokedTokenEntry> findActive(@Param("now") Instant now);
+
+    // Purga las filas de tokens que ya expiraron por si solos
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
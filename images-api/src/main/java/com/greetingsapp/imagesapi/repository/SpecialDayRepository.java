@@ -1,23 +1,48 @@
 package com.greetingsapp.imagesapi.repository;
 
 import com.greetingsapp.imagesapi.domain.specialdays.SpecialDay;
-import org.springframework.data.jpa.repository.EntityGraph;
+import com.greetingsapp.imagesapi.infra.cache.SecondLevelCacheConfig;
+import com.greetingsapp.imagesapi.infra.calendar.SpecialDayDefinition;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.List;
 
 // Repositorio para manejar los días especiales (festivos, celebraciones, etc.)
 public interface SpecialDayRepository extends JpaRepository<SpecialDay, Long> {
 
     /**
-     * Buscar si existe algo para el día y mes exactos.
-     *
-     * @EntityGraph evita el problema N+1 al cargar el Theme en la misma query.
-     * Sin esto, acceder a specialDay.getTheme() dispararía una query adicional.
+     * Trae todas las reglas de días especiales (fijas y móviles) para construir el calendario en memoria.
+     * <p>
+     * La fecha concreta de cada año la calcula SpecialDayCalendar, no la BD:
+     * así se soportan fechas móviles (ej: segundo domingo de mayo) y varios eventos el mismo día.
+     * Se lee s.theme.id (la FK), por lo que no hace falta JOIN con themes.
+     * El resultado queda en la cache de consultas hasta que cambie la tabla special_days.
      */
-    @EntityGraph(attributePaths = {"theme"})
-    Optional<SpecialDay> findByDayAndMonth(Integer day, Integer month);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.QUERIES)
+    })
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.calendar.SpecialDayDefinition(
+                s.id, s.name, s.theme.id, s.ruleType, s.day, s.month,
+                s.weekOfMonth, s.dayOfWeek, s.easterOffset, s.durationDays)
+            FROM SpecialDay s
+            ORDER BY s.id
+            """)
+    List<SpecialDayDefinition> findAllDefinitions();
 
-    // (Opcional) Si quisieras manejar fechas móviles (ej: 3er domingo de junio),
-    // la lógica se haría en el servicio, aquí solo traemos por fecha fija por ahora.
-}
\ No newline at end of file
+    // Borrados set-based de los dias especiales de tematicas que se eliminan (ver CatalogPurgeService)
+    @Modifying
+    @Query("DELETE FROM SpecialDay s WHERE s.theme.id = :themeId")
+    int deleteAllByThemeIdInBulk(@Param("themeId") Long themeId);
+
+    @Modifying
+    @Query("DELETE FROM SpecialDay s WHERE s.theme.id IN (SELECT t.id FROM Theme t WHERE t.category.id = :categoryId)")
+    int deleteAllByCategoryIdInBulk(@Param("categoryId") Long categoryId);
+}
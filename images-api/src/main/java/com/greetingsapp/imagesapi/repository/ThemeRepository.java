@@ -1,9 +1,18 @@
 package com.greetingsapp.imagesapi.repository;
 
-import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.infra.cache.SecondLevelCacheConfig;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +23,43 @@ public interface ThemeRepository extends JpaRepository<Theme, Long> {
 
     //busca el campo categoryId dentro de la tematica, retorna todas las tematicas,
     // que pertenecen a una categoria en especifico
+    // Cacheada (cache de consultas + entidades en la cache de segundo nivel, ver SecondLevelCacheConfig)
+    // y de solo lectura: solo la usa el listado publico, las entidades no se modifican
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.QUERIES),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     List<Theme> findByCategoryId(Long categoryId);
 
-    // Busca una temática por su nombre Y su objeto de categoría asociado
-    // Esto para buscar los/el nombre/s de una/s tematica asociada a una categoria especifica
-    // Tambien esto proporciona cierta flexibilidad a la hora crear tematicas con el mismo nombre,
-    // pero en diferentes categorias
-    Optional<Theme> findByNameAndCategory(String name, Category category);
+    // Lo llaman todos los listados por tematica para devolver 404; el COUNT se sirve desde la cache de consultas
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.QUERIES)
+    })
+    @Override
+    boolean existsById(Long id);
+
+    // Tematica con su categoria leidas de la BD (no de la cache de segundo nivel) y bloqueadas hasta el commit:
+    // quien guarda imagenes copia su categoria en images.category_id, y mover la tematica de categoria
+    // (ThemeService.updateTheme) debe esperar a que termine, o al reves.
+    // FOR UPDATE y no FOR SHARE (PESSIMISTIC_READ): TiDB no soporta bloqueos compartidos.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Theme t JOIN FETCH t.category WHERE t.id = :id")
+    Optional<Theme> findWithCategoryForUpdate(@Param("id") Long id);
+
+    // Igual, para las tematicas de un lote de la importacion masiva; ordenadas por id para que
+    // dos transacciones tomen los bloqueos en el mismo orden (sin deadlocks)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Theme t JOIN FETCH t.category WHERE t.id IN :ids ORDER BY t.id")
+    List<Theme> findAllWithCategoryForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Borrados set-based (ver CatalogPurgeService): sus imagenes ya se borraron antes
+    @Modifying
+    @Query("DELETE FROM Theme t WHERE t.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Theme t WHERE t.category.id = :categoryId")
+    int deleteAllByCategoryIdInBulk(@Param("categoryId") Long categoryId);
 }
@@ -1,8 +1,11 @@
 package com.greetingsapp.imagesapi.repository;
 
 import com.greetingsapp.imagesapi.domain.users.User;
+import com.greetingsapp.imagesapi.infra.authentication.UserTokenVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -10,4 +13,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Busca un usuario por su nombre de usuario.
     // Spring Security lo usará para cargar los detalles del usuario.
     Optional<User> findByUsername(String username);
+
+    // Usuarios con tokens revocados en bloque (version > 0), para la lista de revocacion en memoria
+    @Query("""
+            SELECT new com.greetingsapp.imagesapi.infra.authentication.UserTokenVersion(u.id, u.tokenVersion)
+            FROM User u
+            WHERE u.tokenVersion > 0
+            """)
+    List<UserTokenVersion> findRevokedTokenVersions();
 }
@@ -0,0 +1,260 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
+import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.CatalogVersion;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
+import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.SpecialDayRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Borrado de categorias y tematicas con todo su contenido.
+ * <p>
+ * Con cascade en el mapeo JPA, deleteById cargaba en memoria cada tematica e imagen y las borraba
+ * fila por fila. Aqui se borra con sentencias DELETE set-based, de las hojas a la raiz (imagenes,
+ * dias especiales, tematicas, categoria): no depende de que la BD aplique ON DELETE CASCADE
+ * (TiDB no siempre tiene las FK activas) y ninguna entidad pasa por el contexto de persistencia.
+ * <ul>
+ *   <li>Hasta app.purge.sync-max-images imagenes: todo en la transaccion de la peticion (204).</li>
+ *   <li>Mas imagenes: un job en segundo plano borra las imagenes en lotes de app.purge.chunk-size,
+ *       cada lote en su propia transaccion, y al final el resto del arbol (202 + progreso del job).</li>
+ * </ul>
+ * Las imagenes salen del indice de busqueda al aceptar el borrado; el evento de catalogo
+ * (cache de la home, ETags) se publica cuando el arbol ya no existe. Tras cada lote del job solo se
+ * recalcula el sello del catalogo (ver CatalogVersion#refreshAfterLocalCommit).
+ * <p>
+ * El estado de los jobs vive en memoria de la instancia que acepto el borrado: las demas instancias
+ * no lo conocen y se pierde al reiniciar.
+ */
+@Service
+public class CatalogPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogPurgeService.class);
+
+    static final String CATEGORY = "category";
+    static final String THEME = "theme";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private SpecialDayRepository specialDayRepository;
+
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // El executor de Spring Boot: taskScheduler tambien es un TaskExecutor
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.purge.sync-max-images:5000}")
+    private long syncMaxImages;
+
+    @Value("${app.purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.purge.history-size:100}")
+    private int historySize;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Jobs por id (los ultimos history-size, para consultar su resultado) y el job en curso de cada arbol
+    private Map<String, PurgeJob> jobs;
+    private final Map<String, PurgeJob> runningByTarget = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PurgeJob> eldest) {
+                return size() > historySize;
+            }
+        });
+    }
+
+    /**
+     * Borra la categoria, sus tematicas, sus imagenes y sus dias especiales.
+     * Debe llamarse dentro de una transaccion de escritura (la del servicio que valida que existe).
+     *
+     * @return vacio si ya se borro; el job en curso si el arbol es grande y se borra en segundo plano
+     */
+    public Optional<PurgeJobDTO> purgeCategory(Long categoryId) {
+        imageSearchIndex.removeCategory(categoryId);
+
+        long images = imageRepository.countByCategoryId(categoryId);
+        if (images > syncMaxImages) {
+            return Optional.of(startJob(CATEGORY, categoryId, images));
+        }
+
+        int deleted = imageRepository.deleteAllByCategoryIdInBulk(categoryId);
+        deleteCategoryTree(categoryId);
+        eventPublisher.publishEvent(new CatalogChangedEvent("category-deleted"));
+        log.info("Categoria {} eliminada con {} imagenes", categoryId, deleted);
+        return Optional.empty();
+    }
+
+    /**
+     * Borra la tematica, sus imagenes y sus dias especiales.
+     * Debe llamarse dentro de una transaccion de escritura (la del servicio que valida que existe).
+     *
+     * @return vacio si ya se borro; el job en curso si el arbol es grande y se borra en segundo plano
+     */
+    public Optional<PurgeJobDTO> purgeTheme(Long themeId) {
+        imageSearchIndex.removeTheme(themeId);
+
+        long images = imageRepository.countByThemeId(themeId);
+        if (images > syncMaxImages) {
+            return Optional.of(startJob(THEME, themeId, images));
+        }
+
+        int deleted = imageRepository.deleteAllByThemeIdInBulk(themeId);
+        deleteThemeTree(themeId);
+        eventPublisher.publishEvent(new CatalogChangedEvent("theme-deleted"));
+        log.info("Tematica {} eliminada con {} imagenes", themeId, deleted);
+        return Optional.empty();
+    }
+
+    public PurgeJobDTO getJob(String jobId) {
+        PurgeJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Purge job not found with id: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    // Un segundo DELETE sobre el mismo arbol mientras se borra devuelve el job que ya esta en curso
+    private PurgeJobDTO startJob(String target, Long targetId, long totalImages) {
+        PurgeJob created = new PurgeJob(UUID.randomUUID().toString(), target, targetId, totalImages);
+        PurgeJob running = runningByTarget.putIfAbsent(target + ":" + targetId, created);
+        if (running != null) {
+            return running.toDTO();
+        }
+
+        jobs.put(created.id, created);
+        taskExecutor.execute(() -> run(created));
+        log.info("Borrado de {} {} ({} imagenes) enviado al job {}", target, targetId, totalImages, created.id);
+        return created.toDTO();
+    }
+
+    private void run(PurgeJob job) {
+        try {
+            int deleted;
+            do {
+                // Cada lote en su propia transaccion corta (pool de escritura)
+                deleted = transactionTemplate.execute(status -> CATEGORY.equals(job.target)
+                        ? imageRepository.deleteChunkByCategoryId(job.targetId, chunkSize)
+                        : imageRepository.deleteChunkByThemeId(job.targetId, chunkSize));
+                job.deletedImages += deleted;
+                if (deleted > 0) {
+                    // El lote ya hizo commit: el refresco periodico no debe verlo como un cambio de otra instancia
+                    catalogVersion.refreshAfterLocalCommit();
+                }
+            } while (deleted == chunkSize);
+
+            // El resto del arbol, junto con las imagenes que se hayan agregado mientras tanto
+            transactionTemplate.executeWithoutResult(status -> {
+                if (CATEGORY.equals(job.target)) {
+                    job.deletedImages += imageRepository.deleteAllByCategoryIdInBulk(job.targetId);
+                    deleteCategoryTree(job.targetId);
+                    imageSearchIndex.removeCategory(job.targetId);
+                } else {
+                    job.deletedImages += imageRepository.deleteAllByThemeIdInBulk(job.targetId);
+                    deleteThemeTree(job.targetId);
+                    imageSearchIndex.removeTheme(job.targetId);
+                }
+            });
+            job.finish("COMPLETED", null);
+            eventPublisher.publishEvent(new CatalogChangedEvent(job.target + "-deleted"));
+            log.info("Job de borrado {} terminado: {} imagenes", job.id, job.deletedImages);
+        } catch (RuntimeException e) {
+            // Lo ya borrado no se restaura: repetir el DELETE crea un job que continua desde ahi
+            job.finish("FAILED", e.getMessage());
+            eventPublisher.publishEvent(new CatalogChangedEvent(job.target + "-purge-failed"));
+            log.error("Job de borrado {} fallo tras {} imagenes. Causa: {}", job.id, job.deletedImages, e.getMessage());
+        } finally {
+            runningByTarget.remove(job.target + ":" + job.targetId);
+        }
+    }
+
+    // Dias especiales, tematicas y categoria (las imagenes ya se borraron)
+    private void deleteCategoryTree(Long categoryId) {
+        specialDayRepository.deleteAllByCategoryIdInBulk(categoryId);
+        themeRepository.deleteAllByCategoryIdInBulk(categoryId);
+        categoryRepository.deleteByIdInBulk(categoryId);
+    }
+
+    private void deleteThemeTree(Long themeId) {
+        specialDayRepository.deleteAllByThemeIdInBulk(themeId);
+        themeRepository.deleteByIdInBulk(themeId);
+    }
+
+    // Estado de un job; lo escribe solo su hilo y lo leen las consultas de progreso
+    private static class PurgeJob {
+
+        private final String id;
+        private final String target;
+        private final Long targetId;
+        private final long totalImages;
+        private final Instant startedAt = Instant.now();
+        private volatile long deletedImages;
+        private volatile String status = "RUNNING";
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        PurgeJob(String id, String target, Long targetId, long totalImages) {
+            this.id = id;
+            this.target = target;
+            this.targetId = targetId;
+            this.totalImages = totalImages;
+        }
+
+        void finish(String status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        PurgeJobDTO toDTO() {
+            return new PurgeJobDTO(id, target, targetId, status, totalImages, deletedImages, startedAt, finishedAt, error);
+        }
+    }
+}
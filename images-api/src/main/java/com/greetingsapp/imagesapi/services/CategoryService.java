@@ -5,15 +5,26 @@ import com.greetingsapp.imagesapi.domain.categories.CategoryMapper;
 import com.greetingsapp.imagesapi.dto.categories.CategoryResponseDTO;
 import com.greetingsapp.imagesapi.dto.categories.CreateCategoryDTO;
 import com.greetingsapp.imagesapi.dto.categories.UpdateCategoryDTO;
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
 import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
 import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.errors.UniqueConstraints;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import com.greetingsapp.imagesapi.infra.resilience.DatabaseBulkheadConfig;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.resilience.SingleFlight;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +44,19 @@ public class CategoryService {
     @Autowired
     private CategoryMapper categoryMapper;
 
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogPurgeService catalogPurgeService;
+
+    // Ultimas respuestas correctas, servidas por los fallbacks si la BD falla
+    @Autowired
+    private LastKnownGoodStore lastKnownGood;
+
     /**
      * Obtiene todas las categorías disponibles.
      * <p>
@@ -40,42 +64,52 @@ public class CategoryService {
      * - @RateLimiter: Limita peticiones para proteger el servidor
      * - @CircuitBreaker: Previene fallos en cascada si la BD está caída
      * - @Retry: Reintenta automáticamente ante fallos transitorios
+     * - @Bulkhead: Limita las llamadas concurrentes al tamaño del pool de conexiones (503 si está lleno)
+     * - @SingleFlight: Las peticiones identicas simultaneas comparten una sola consulta
+     * - @Transactional(readOnly): Sesion de solo lectura en el pool de lectura, sin dirty checking ni flush
      */
+    @SingleFlight
     @RateLimiter(name = "publicApiRL")
     @CircuitBreaker(name = "databaseCB", fallbackMethod = "getAllCategoriesFallback")
     @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
     public List<CategoryResponseDTO> getAllCategories() {
 
         // 1. Obtienes las entidades de la base de datos
         List<Category> categories = categoryRepository.findAll();
 
         // 2. Usas el mapper para convertirlas a DTOs antes de devolverlas
-        return categoryMapper.categoryListToCategoryResponseDTOList(categories);
+        List<CategoryResponseDTO> response = categoryMapper.categoryListToCategoryResponseDTOList(categories);
+        lastKnownGood.put("getAllCategories", response);
+        return response;
     }
 
     /**
-     * Fallback para getAllCategories: devuelve lista vacía cuando el servicio falla
+     * Fallback para getAllCategories: devuelve la última lista correcta conocida, o una lista vacía si no la hay
      */
     private List<CategoryResponseDTO> getAllCategoriesFallback(Exception ex) {
+        DatabaseBulkheadConfig.rethrowIfFull(ex);
+        LastKnownGoodStore.rethrowIfNotFound(ex);
         log.error("Fallback activado en getAllCategories. Causa: {}", ex.getMessage());
-        return Collections.emptyList();
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<List<CategoryResponseDTO>>recall("getAllCategories")
+                .orElseGet(Collections::emptyList);
     }
 
     //--- Metodo para crear una nueva categoria ---
+    @Transactional
     public CategoryResponseDTO createCategory(CreateCategoryDTO createCategoryDTO) {
 
-        // --- VALIDACION (Buena práctica) ---
-        // Verificar si ya existe una categoría con ese nombre para evitar duplicados.
-        if (categoryRepository.findByName(createCategoryDTO.name()).isPresent()) {
-            throw new DuplicateResourceException("Category with name '" + createCategoryDTO.name() + "' already exists.");
-        }
-
         // 1. Mapear del DTO de entrada a la Entidad
         Category newCategory = new Category();
         newCategory.setName(createCategoryDTO.name());
 
-        // 2. GUARDAR la nueva entidad en la base de datos (¡Este paso faltaba!)
-        Category savedCategory = categoryRepository.save(newCategory);
+        // 2. GUARDAR la nueva entidad en la base de datos.
+        // Un nombre repetido lo rechaza la restriccion UNIQUE de la BD (sin SELECT previo).
+        Category savedCategory = saveCategory(newCategory,
+                "Category with name '" + createCategoryDTO.name() + "' already exists.");
+        eventPublisher.publishEvent(new CatalogChangedEvent("category-created"));
 
         // 3. Mapear la entidad guardada (que ahora tiene un ID) al DTO de respuesta
         return categoryMapper.categoryToCategoryResponseDTO(savedCategory);
@@ -90,29 +124,25 @@ public class CategoryService {
         // Si no la encuentra, lanza una excepción 404.
         Category categoryToUpdate = getCategory(categoryId);
 
-        // 2. --- VALIDACIÓN DE DUPLICIDAD ---
-        // Busca si ya existe una categoría con el nuevo nombre.
-        Optional<Category> existingCategory = categoryRepository.findByName(updateCategoryDTO.name());
-
-        // Si existe, y su ID es DIFERENTE al de la categoría que estamos actualizando,
-        // entonces es un conflicto.
-        if (existingCategory.isPresent() && !existingCategory.get().getId().equals(categoryId)) {
-            throw new DuplicateResourceException("Category name '" + updateCategoryDTO.name() + "' is already in use by another category.");
-        }
-
-        // 3. Actualiza los campos de la entidad.
+        // 2. Actualiza los campos de la entidad.
         categoryToUpdate.setName(updateCategoryDTO.name());
 
-        // 4. Guarda la entidad (JPA hará un UPDATE).
-        Category updatedCategory = categoryRepository.save(categoryToUpdate);
+        // 3. Guarda la entidad (JPA hará un UPDATE). Si el nombre ya lo usa otra categoría,
+        // la restricción UNIQUE de la BD lo rechaza y se responde 409.
+        Category updatedCategory = saveCategory(categoryToUpdate,
+                "Category name '" + updateCategoryDTO.name() + "' is already in use by another category.");
+        // El nombre de la categoria es buscable: se reindexan sus imagenes tras el commit
+        imageSearchIndex.renameCategory(categoryId, updatedCategory.getName());
+        eventPublisher.publishEvent(new CatalogChangedEvent("category-updated"));
 
-        // 5. Mapea y devuelve el DTO.
+        // 4. Mapea y devuelve el DTO.
         return categoryMapper.categoryToCategoryResponseDTO(updatedCategory);
     }
 
     //--- Metodo para eliminar una categoria ---
+    // Devuelve el job de borrado si la categoria es grande y se elimina en segundo plano
     @Transactional
-    public void deleteCategory(Long categoryId) {
+    public Optional<PurgeJobDTO> deleteCategory(Long categoryId) {
 
         // 1. VALIDACIÓN: Primero, comprueba si la categoría existe.
         if (!categoryRepository.existsById(categoryId)) {
@@ -120,9 +150,10 @@ public class CategoryService {
             throw new ResourceNotFoundException("Category not found with id: " + categoryId);
         }
 
-        // 2. ACCIÓN: Si existe, bórrala directamente por su ID.
-        // No es necesario hacer un findById() primero.
-        categoryRepository.deleteById(categoryId);
+        // 2. ACCIÓN: Si existe, se borra con sus tematicas e imagenes mediante DELETE set-based
+        // (sin cargar las entidades), o por lotes en segundo plano si tiene muchas imagenes.
+        // El indice de busqueda y el evento de catalogo los maneja CatalogPurgeService.
+        return catalogPurgeService.purgeCategory(categoryId);
     }
 
 
@@ -131,5 +162,19 @@ public class CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category with ID " + categoryId + " not found."));
     }
 
+    // Un solo INSERT/UPDATE; el flush hace que la violacion de uk_categories_name aparezca aqui (ver UniqueConstraints)
+    private Category saveCategory(Category category, String duplicateMessage) {
+        try {
+            Category saved = categoryRepository.save(category);
+            categoryRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CATEGORY_NAME)) {
+                throw new DuplicateResourceException(duplicateMessage);
+            }
+            throw e;
+        }
+    }
+
 }
 
@@ -1,28 +1,45 @@
 package com.greetingsapp.imagesapi.services;
 
-import com.greetingsapp.imagesapi.domain.images.Image;
-import com.greetingsapp.imagesapi.domain.images.ImageMapper;
-import com.greetingsapp.imagesapi.domain.specialdays.SpecialDay;
 import com.greetingsapp.imagesapi.dto.home.HomeContentDTO;
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.calendar.SpecialDayCalendar;
+import com.greetingsapp.imagesapi.infra.calendar.SpecialDayEntry;
+import com.greetingsapp.imagesapi.infra.datasource.ReadWriteRoutingDataSource;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import com.greetingsapp.imagesapi.infra.resilience.DatabaseBulkheadConfig;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.resilience.SingleFlight;
 import com.greetingsapp.imagesapi.repository.ImageRepository;
-import com.greetingsapp.imagesapi.repository.SpecialDayRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 // Servicio para manejar la lógica de la página de inicio
 @Service
@@ -31,13 +48,39 @@ public class HomeService {
     private static final Logger log = LoggerFactory.getLogger(HomeService.class);
 
     @Autowired
-    private SpecialDayRepository specialDayRepository;
+    private SpecialDayCalendar specialDayCalendar;
 
     @Autowired
     private ImageRepository imageRepository;
 
+    // El executor de Spring Boot: taskScheduler tambien es un TaskExecutor
     @Autowired
-    private ImageMapper imageMapper;
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    // Solo el calculo que consulta la BD pasa por databaseBH: los aciertos de cache no ocupan un permiso
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    // Ultimo contenido correcto, servido por el fallback si la BD falla y el cache del dia esta vacio
+    @Autowired
+    private LastKnownGoodStore lastKnownGood;
+
+    // Cantidad de imagenes que se muestran en el home
+    private static final int HOME_IMAGES_LIMIT = 20;
+
+    // Zona horaria de referencia para decidir que dia es "hoy"
+    static final ZoneId HOME_ZONE = ZoneId.of("America/Santo_Domingo");
+
+    // Contenido ya calculado por fecha local (hoy y, antes de medianoche, mañana)
+    private final Map<LocalDate, CachedHome> homeCache = new ConcurrentHashMap<>();
+
+    // Se incrementa en cada invalidacion; una entrada de una generacion anterior ya no se sirve
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    // Contenido junto con la generacion del cache en la que se empezo a calcular
+    private record CachedHome(long generation, HomeContentDTO content) {
+    }
 
     /**
      * Obtiene el contenido dinámico de la página de inicio.
@@ -46,47 +89,134 @@ public class HomeService {
      * - @RateLimiter: Limita a 50 peticiones/segundo para proteger el servidor
      * - @CircuitBreaker: Previene fallos en cascada si la BD está caída
      * - @Retry: Reintenta automáticamente ante fallos transitorios de red/BD
+     * - @SingleFlight: Las peticiones identicas simultaneas comparten una sola consulta
+     * - Bulkhead databaseBH: solo en el calculo contra la BD (loadAndCache), 503 si está lleno
+     * <p>
+     * El orden de ejecución es: SingleFlight → Retry → CircuitBreaker → RateLimiter → Método
      * <p>
-     * El orden de ejecución es: RateLimiter → CircuitBreaker → Retry → Método
+     * El resultado se guarda en cache por fecha local: solo cambia al pasar la medianoche
+     * en America/Santo_Domingo o cuando un admin modifica el catalogo.
      */
+    @SingleFlight
     @RateLimiter(name = "publicApiRL")
     @CircuitBreaker(name = "databaseCB", fallbackMethod = "getHomeContentFallback")
     @Retry(name = "databaseRetry")
     public HomeContentDTO getHomeContent() {
-        log.debug("Obteniendo contenido del home...");
-
         // Forzamos a que calcule 'hoy' basado en la zona horaria deseada
-        LocalDate today = LocalDate.now(ZoneId.of("America/Santo_Domingo"));
+        LocalDate today = LocalDate.now(HOME_ZONE);
 
-        // 1. Preguntar: ¿Hay algo especial hoy (dia, mes)?
-        Optional<SpecialDay> specialDay = specialDayRepository.findByDayAndMonth(
-                today.getDayOfMonth(), // día del mes
-                today.getMonthValue() // mes del año
-        );
+        CachedHome cached = homeCache.get(today);
+        if (cached != null && cached.generation() == cacheGeneration.get()) {
+            return cached.content();
+        }
 
-        if (specialDay.isPresent()) { // si se encuentra un día especial, es decir, que coincide tanto el dia como el mes
-            // --- CASO 1: ES UN DÍA ESPECIAL ---
-            SpecialDay event = specialDay.get(); // obtenemos t0do el objeto SpecialDay
+        log.debug("Cache del home vacio para {}, calculando...", today);
+        return loadAndCache(today);
+    }
 
-            Long themeId = event.getTheme().getId();  // obtenemos el id de la tematica asociado a ese día especial
+    // ============================================
+    // CACHE DEL HOME POR FECHA
+    // ============================================
+    // La clave es la fecha local: la entrada de hoy deja de usarse exactamente a medianoche
+    // porque la siguiente peticion busca la clave de mañana (ya precargada por prefetchTomorrow).
 
-            Pageable limit = PageRequest.of(0, 20); // Creamos un objeto Pageable para limitar a 20 resultados
-            // Buscamos las imágenes asociadas al TEMA de ese día especial
-            List<Image> themeImages = imageRepository.findByThemeId(themeId, limit).getContent();
+    /**
+     * Precarga el contenido de mañana unos minutos antes de medianoche,
+     * para que ninguna peticion pague el calculo al cambiar de dia.
+     */
+    @Scheduled(cron = "0 55 23 * * *", zone = "America/Santo_Domingo")
+    public void prefetchTomorrow() {
+        LocalDate tomorrow = LocalDate.now(HOME_ZONE).plusDays(1);
+        try {
+            loadAndCache(tomorrow);
+            log.debug("Contenido del home precargado para {}", tomorrow);
+        } catch (Exception ex) {
+            // Si falla, la primera peticion de mañana lo calculara
+            log.warn("No se pudo precargar el home para {}. Causa: {}", tomorrow, ex.getMessage());
+        }
+    }
 
-            // Limitamos a 20 para no saturar si hay muchas
-            List<ImageResponseDTO> dtos = imageMapper.ImageDTOtoList(
-                    themeImages
-                            .stream()
-                            .limit(20)
-                            .toList()
-            );
+    /**
+     * Invalida el cache cuando un admin cambia el catalogo (despues del commit)
+     * y lo recalcula en segundo plano para que la siguiente peticion no pague el fallo de cache.
+     */
+    @Order(0) // antes que CatalogVersion: cuando cambie el ETag, el cache viejo ya no debe servirse
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Catalogo modificado ({}), invalidando cache del home", event.source());
+        cacheGeneration.incrementAndGet();
+        homeCache.clear();
+
+        // Contra el pool de escritura: una replica podria no tener todavia el cambio recien confirmado
+        taskExecutor.execute(() -> ReadWriteRoutingDataSource.onWritePool(this::refreshToday));
+    }
+
+    // Calienta el cache al arrancar, para que la primera peticion tampoco pague el calculo
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refreshToday();
+    }
+
+    private void refreshToday() {
+        try {
+            loadAndCache(LocalDate.now(HOME_ZONE));
+        } catch (Exception ex) {
+            // Si falla, la siguiente peticion lo calculara
+            log.warn("No se pudo recalcular el contenido del home. Causa: {}", ex.getMessage());
+        }
+    }
+
+    private HomeContentDTO loadAndCache(LocalDate date) {
+        // Si hubo una invalidacion mientras se calculaba, el resultado puede estar desactualizado:
+        // se entrega a quien lo pidio, pero no se guarda. La comprobacion y el guardado son atomicos (compute),
+        // y si la invalidacion llega justo despues, la lectura descarta la entrada por su generacion.
+        long generation = cacheGeneration.get();
+        HomeContentDTO content = bulkheadRegistry.bulkhead("databaseBH")
+                .executeSupplier(() -> buildHomeContent(date));
+        LocalDate today = LocalDate.now(HOME_ZONE);
+        homeCache.compute(date, (key, previous) -> cacheGeneration.get() == generation
+                ? new CachedHome(generation, content)
+                : previous);
+        // Descarta las fechas pasadas (como mucho quedan hoy y mañana)
+        homeCache.keySet().removeIf(cachedDate -> cachedDate.isBefore(today));
+        // El precalculo de mañana no sirve como respaldo de hoy
+        if (!date.isAfter(today)) {
+            lastKnownGood.put("getHomeContent", content);
+        }
+        return content;
+    }
+
+    // Calcula el contenido del home para una fecha (consulta la BD)
+    HomeContentDTO buildHomeContent(LocalDate date) {
+        // 1. Preguntar: ¿Hay algo especial ese dia? (calendario en memoria, sin consultar la BD)
+        List<SpecialDayEntry> events = specialDayCalendar.eventsOn(date);
+
+        if (!events.isEmpty()) { // si hay uno o mas dias especiales activos ese dia
+            // --- CASO 1: ES UN DÍA ESPECIAL ---
+            // Las 20 mas recientes de cada tema (orden resuelto por el indice (theme_id, created, id))
+            Pageable limit = PageRequest.of(0, HOME_IMAGES_LIMIT,
+                    Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id")));
+
+            // Buscamos las imágenes asociadas al TEMA de cada evento
+            // (proyeccion directa a DTO, sin COUNT(*) porque no se necesita el total)
+            List<List<ImageResponseDTO>> imagesPerEvent = events.stream()
+                    .map(SpecialDayEntry::themeId)
+                    .distinct()
+                    .map(themeId -> imageRepository.findResponseListByThemeId(themeId, limit))
+                    .toList();
+
+            // Ej: Hoy es Navidad ✨ / Hoy es Día de las Madres y Día de la Tierra ✨
+            String names = events.stream()
+                    .map(SpecialDayEntry::name)
+                    .distinct()
+                    .collect(Collectors.joining(" y "));
 
             // Retornamos el contenido especial para hoy
             return new HomeContentDTO(
                     "SPECIAL_EVENT",
-                    "Hoy es " + event.getName() + " ✨", // Ej: Hoy es Navidad ✨
-                    dtos
+                    "Hoy es " + names + " ✨",
+                    interleave(imagesPerEvent, HOME_IMAGES_LIMIT)
             );
 
         } else {
@@ -95,14 +225,12 @@ public class HomeService {
             // Buscamos las últimas 20 imágenes subidas al sistema en general
             // Usamos Paging para traer solo 20 ordenadas por ID descendente (o created date)
             // PageRequest es el control remoto de paginación
-            List<Image> recentImages = imageRepository.findAll(
+            List<ImageResponseDTO> dtos = imageRepository.findResponseList(
                     PageRequest.of(
                             0,
-                            20,
+                            HOME_IMAGES_LIMIT,
                             Sort.by(Sort.Direction.DESC, "id"))
-            ).getContent(); //obtemos los datos crudos de la paginacion
-
-            List<ImageResponseDTO> dtos = imageMapper.ImageDTOtoList(recentImages);
+            );
 
             return new HomeContentDTO(
                     "DEFAULT",
@@ -112,22 +240,46 @@ public class HomeService {
         }
     }
 
+    // Intercala las imagenes de varios eventos (una de cada uno por turno) para que ninguno acapare el home
+    private static List<ImageResponseDTO> interleave(List<List<ImageResponseDTO>> lists, int max) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        List<ImageResponseDTO> result = new ArrayList<>(max);
+        for (int i = 0; result.size() < max; i++) {
+            boolean added = false;
+            for (List<ImageResponseDTO> list : lists) {
+                if (i < list.size() && result.size() < max) {
+                    result.add(list.get(i));
+                    added = true;
+                }
+            }
+            if (!added) {
+                break;
+            }
+        }
+        return result;
+    }
+
     /**
      * Método fallback que se ejecuta cuando:
      * - El Circuit Breaker está ABIERTO (demasiados fallos recientes)
      * - Se agotaron los reintentos del Retry
      * <p>
-     * Devuelve una respuesta degradada pero funcional para mantener
-     * la experiencia del usuario aunque el sistema esté parcialmente caído.
+     * Devuelve el último contenido correcto conocido (aunque sea de otro día) o, si no lo hay,
+     * una respuesta degradada pero funcional para mantener la experiencia del usuario
+     * aunque el sistema esté parcialmente caído.
      */
     private HomeContentDTO getHomeContentFallback(Exception ex) {
+        DatabaseBulkheadConfig.rethrowIfFull(ex);
         log.error("Fallback activado en getHomeContent. Causa: {}", ex.getMessage());
+        ResponseDegradation.markDegraded();
 
         // Respuesta degradada: contenido estático de emergencia
-        return new HomeContentDTO(
+        return lastKnownGood.<HomeContentDTO>recall("getHomeContent").orElseGet(() -> new HomeContentDTO(
                 "FALLBACK",
                 "Contenido temporalmente no disponible 🔄",
                 Collections.emptyList() // Lista vacía en lugar de null
-        );
+        ));
     }
 }
\ No newline at end of file
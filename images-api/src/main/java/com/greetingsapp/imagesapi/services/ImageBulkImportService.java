@@ -0,0 +1,270 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.dto.images.BulkImportErrorDTO;
+import com.greetingsapp.imagesapi.dto.images.BulkImportReportDTO;
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
+import com.greetingsapp.imagesapi.infra.errors.UniqueConstraints;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.CatalogVersion;
+import com.greetingsapp.imagesapi.infra.imports.ImageImportReader;
+import com.greetingsapp.imagesapi.infra.imports.ImageImportRow;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importacion masiva de imagenes (POST /api/admin/images/bulk).
+ * <p>
+ * Las filas se leen del cuerpo una a una y se insertan en transacciones de
+ * app.bulk-import.batch-size filas: cada lote es un commit corto con un INSERT multi-fila (ver ImageBatchInsert),
+ * en lugar de una transaccion por imagen o una sola transaccion que bloquee minutos.
+ * <p>
+ * Para no afectar al trafico publico:
+ * <ul>
+ *   <li>Todo corre en transacciones de escritura, es decir en el pool de escritura (ver ReadWriteRoutingDataSource),
+ *       nunca en el de lectura que atiende los listados.</li>
+ *   <li>Solo se permite una importacion a la vez; una segunda recibe 409.</li>
+ *   <li>El evento de catalogo (cache de la home, ETags) se publica una sola vez al final, no por imagen.
+ *       Tras cada lote solo se recalcula el sello del catalogo (ver CatalogVersion#refreshAfterLocalCommit).</li>
+ * </ul>
+ * Si un lote viola una restriccion (duplicados, columnas demasiado largas) se reintenta fila a fila,
+ * para reportar solo las filas culpables. Cualquier otro error de la BD (caida, timeout)
+ * detiene la importacion: reintentar fila a fila solo multiplicaria la carga. Se devuelve el reporte parcial
+ * con la linea desde la que se puede reanudar.
+ */
+@Service
+public class ImageBulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageBulkImportService.class);
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.bulk-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.bulk-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final Semaphore running = new Semaphore(1);
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkImportReportDTO importImages(ImageImportReader reader) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new DuplicateResourceException("Another bulk image import is already running.");
+        }
+        try {
+            ImportRun run = new ImportRun(maxReportedErrors);
+            List<ImageImportRow> batch = new ArrayList<>(batchSize);
+
+            ImageImportRow row;
+            while ((row = reader.next()) != null) {
+                run.totalRows++;
+                String error = row.error() != null ? row.error() : validate(row.image());
+                if (error != null) {
+                    run.reject(row.line(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    if (!insertBatch(batch, run)) {
+                        break;
+                    }
+                    batch.clear();
+                }
+            }
+            if (!run.aborted() && !batch.isEmpty()) {
+                insertBatch(batch, run);
+            }
+
+            if (run.imported > 0) {
+                eventPublisher.publishEvent(new CatalogChangedEvent("images-imported"));
+            }
+            log.info("Importacion masiva{}: {} filas, {} imagenes creadas, {} rechazadas",
+                    run.aborted() ? " detenida" : "", run.totalRows, run.imported, run.failed);
+            return run.report();
+        } finally {
+            running.release();
+        }
+    }
+
+    // Validaciones del DTO (las mismas que POST /api/admin/images), sin tocar la BD
+    private String validate(CreateImageDTO image) {
+        var violations = validator.validate(image);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    // Devuelve false si la importacion se detuvo: el error no es de una fila concreta
+    private boolean insertBatch(List<ImageImportRow> batch, ImportRun run) {
+        try {
+            insertInTransaction(batch, run);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                run.reject(batch.get(0).line(), rejection(batch.get(0).image(), e));
+                return true;
+            }
+            log.warn("Lote de {} imagenes revertido, se reintenta fila a fila. Causa: {}", batch.size(), e.getMessage());
+            for (ImageImportRow row : batch) {
+                if (!insertBatch(List.of(row), run)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (DataAccessException | TransactionException e) {
+            long line = batch.get(0).line();
+            log.error("Importacion masiva detenida en la linea {}. Causa: {}", line, e.getMessage());
+            run.abort(line, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return false;
+        }
+    }
+
+    // Motivo del rechazo de una fila: los duplicados con el mismo mensaje que POST /api/admin/images
+    private static String rejection(CreateImageDTO image, DataIntegrityViolationException e) {
+        if (UniqueConstraints.isViolated(e, UniqueConstraints.IMAGE_THEME_NAME)) {
+            return "Image with name '" + image.name() + "' already exists in this theme.";
+        }
+        if (UniqueConstraints.isViolated(e, UniqueConstraints.IMAGE_THEME_URL)) {
+            return "Image with url '" + image.url() + "' already exists in this theme.";
+        }
+        return "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    // Inserta el lote en una sola transaccion; el reporte solo se actualiza si hace commit
+    private void insertInTransaction(List<ImageImportRow> batch, ImportRun run) {
+        List<BulkImportErrorDTO> missingThemes = new ArrayList<>();
+        List<Image> images = new ArrayList<>(batch.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Las tematicas del lote, con una sola consulta y bloqueadas hasta el commit: la categoria que se copia
+            // en images.category_id es la actual aunque otro admin este moviendo la tematica (ver ThemeRepository)
+            Set<Long> themeIds = batch.stream().map(row -> row.image().themeId()).collect(Collectors.toSet());
+            Map<Long, Theme> themes = themeRepository.findAllWithCategoryForUpdate(themeIds).stream()
+                    .collect(Collectors.toMap(Theme::getId, Function.identity()));
+
+            for (ImageImportRow row : batch) {
+                CreateImageDTO dto = row.image();
+                Theme theme = themes.get(dto.themeId());
+                if (theme == null) {
+                    missingThemes.add(new BulkImportErrorDTO(row.line(), "Theme not found with id: " + dto.themeId()));
+                    continue;
+                }
+                Image image = new Image();
+                image.setName(dto.name());
+                image.setDescription(dto.description());
+                image.setUrl(dto.url());
+                image.setTheme(theme);
+                images.add(image);
+            }
+
+            imageRepository.insertAll(images); // un solo INSERT multi-fila; los errores de BD aparecen aqui
+            images.forEach(image -> imageSearchIndex.upsert(ImageService.toSearchDocument(image))); // tras el commit
+        });
+
+        run.imported += images.size();
+        missingThemes.forEach(error -> run.reject(error.line(), error.message()));
+        if (!images.isEmpty()) {
+            // El lote ya hizo commit: el refresco periodico no debe verlo como un cambio de otra instancia
+            catalogVersion.refreshAfterLocalCommit();
+        }
+    }
+
+    // Estado de una importacion: contadores y errores por fila
+    private static class ImportRun {
+
+        private final List<BulkImportErrorDTO> errors = new ArrayList<>();
+        private final int maxErrors;
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private Long abortedAtLine;
+        private String abortReason;
+
+        ImportRun(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            // Solo se guardan los primeros: un archivo entero mal formado no debe llenar la memoria
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkImportErrorDTO(line, message));
+            }
+        }
+
+        void abort(long line, String reason) {
+            abortedAtLine = line;
+            abortReason = reason;
+        }
+
+        boolean aborted() {
+            return abortedAtLine != null;
+        }
+
+        BulkImportReportDTO report() {
+            // Los errores de BD de un lote se registran despues que los de validacion de filas posteriores
+            List<BulkImportErrorDTO> sorted = errors.stream()
+                    .sorted(Comparator.comparingLong(BulkImportErrorDTO::line))
+                    .toList();
+            return new BulkImportReportDTO(totalRows, imported, failed, sorted, failed > sorted.size(),
+                    aborted(), abortedAtLine, abortReason);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import com.greetingsapp.imagesapi.infra.resilience.DatabaseBulkheadConfig;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.resilience.SingleFlight;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Búsqueda de imágenes con LIKE en la BD, usada por {@link ImageService#searchImages} mientras
+ * el índice en memoria no está listo.
+ * <p>
+ * Está en un bean aparte para que Circuit Breaker, Retry, Bulkhead y la transacción envuelvan solo
+ * esta consulta: con el circuito de la BD abierto, las búsquedas que resuelve el índice siguen respondiendo.
+ */
+@Service
+public class ImageDatabaseSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDatabaseSearchService.class);
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    // Ultimas respuestas correctas, servidas por el fallback si la BD falla
+    @Autowired
+    private LastKnownGoodStore lastKnownGood;
+
+    @SingleFlight
+    @CircuitBreaker(name = "databaseCB", fallbackMethod = "searchImagesFallback")
+    @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
+    public Page<ImageResponseDTO> searchImages(String query, Pageable pageable) {
+        // 1. Limpieza básica
+        String cleanQuery = query.trim();//elimina espacios al inicio y al final
+
+        // 2. Versión para la Descripción (mantiene espacios)
+        // Ej: "feliz cumpleaños" -> busca tal cual en la descripción
+        String descriptionQuery = cleanQuery;
+
+        // 3. Versión para el Nombre (convierte espacios a guiones)
+        // Ej: "feliz cumpleaños" -> "feliz-cumpleaños"
+        // El "\\s+" maneja si el usuario pone varios espacios por error.
+        String nameQuery = cleanQuery.replaceAll("\\s+", "-"); // convierte espacios a guiones
+
+        // 4. Pasamos la versión "kebab" al primer parámetro (name)
+        // y la versión "normal" al segundo (description).
+        // Con % y _ escapados: "100%" no debe encontrar todo lo que empiece por "100"
+        Page<ImageResponseDTO> page = imageRepository.searchResponses(
+                escapeLike(nameQuery),
+                escapeLike(descriptionQuery),
+                pageable
+        );
+        lastKnownGood.put("searchImages", page, cleanQuery, pageable);
+        return page;
+    }
+
+    // Escapa los comodines de LIKE (y el propio caracter de escape) para buscar el texto tal cual.
+    // Se usa '!' y no la barra invertida, que tiene su propio escape en HQL y en MySQL.
+    static String escapeLike(String text) {
+        return text.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+
+    /**
+     * Fallback para searchImages cuando el Circuit Breaker está abierto o hay fallos.
+     * Retorna el último resultado correcto para la misma búsqueda, o una página vacía si no lo hay.
+     */
+    private Page<ImageResponseDTO> searchImagesFallback(String query, Pageable pageable, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
+        log.error("Fallback activado en searchImages para query='{}'. Causa: {}", query, t.getMessage());
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<Page<ImageResponseDTO>>recall("searchImages", query.trim(), pageable)
+                .orElseGet(() -> Page.empty(pageable));
+    }
+}
@@ -0,0 +1,104 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
+import com.greetingsapp.imagesapi.infra.exports.ImageExportFormat;
+import com.greetingsapp.imagesapi.infra.exports.ImageExportWriter;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Exportacion completa del catalogo (GET /api/admin/images/export) para respaldos y para
+ * precalentar la CDN.
+ * <p>
+ * Las filas se leen por bloques con keyset por id ({@link ImageRepository#findExportPageAfter}) y cada
+ * bloque se escribe en la respuesta antes de leer el siguiente: ni la consulta ni la respuesta se arman
+ * en memoria, asi que el consumo es el mismo con mil o con diez millones de imagenes.
+ * <p>
+ * Cada bloque es una transaccion corta de solo lectura en el pool de lectura: la conexion se devuelve
+ * antes de escribir, asi que un cliente lento no retiene ninguna conexion mientras el stream de la
+ * respuesta esta bloqueado. Solo se permite una exportacion a la vez: una segunda recibe 409.
+ */
+@Service
+public class ImageExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageExportService.class);
+
+    // Filas leidas por consulta
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Semaphore running = new Semaphore(1);
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // Destino de la exportacion; se abre solo cuando la exportacion ya fue admitida
+    @FunctionalInterface
+    public interface ExportTarget {
+        OutputStream open() throws IOException;
+    }
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long exportImages(ImageExportFormat format, ExportTarget target) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new DuplicateResourceException("Another catalog export is already running.");
+        }
+        try {
+            return writeAll(format, target);
+        } finally {
+            running.release();
+        }
+    }
+
+    private long writeAll(ImageExportFormat format, ExportTarget target) throws IOException {
+        // El primer bloque se lee antes de abrir la respuesta: si la BD falla, todavia se puede responder con error
+        List<ImageExportDTO> chunk = readChunk(0L);
+        ImageExportWriter writer = ImageExportWriter.open(format, target.open(), objectMapper);
+        long rows = 0;
+        while (!chunk.isEmpty()) {
+            for (ImageExportDTO image : chunk) {
+                writer.write(image);
+            }
+            rows += chunk.size();
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+            chunk = readChunk(chunk.get(chunk.size() - 1).id());
+        }
+        writer.flush();
+        log.info("Exportacion del catalogo ({}): {} imagenes", format, rows);
+        return rows;
+    }
+
+    // Una transaccion de solo lectura por bloque (pool de lectura); la conexion se libera al volver
+    private List<ImageExportDTO> readChunk(Long afterId) {
+        return readOnlyTransaction.execute(status ->
+                imageRepository.findExportPageAfter(afterId, PageRequest.ofSize(CHUNK_SIZE)));
+    }
+}
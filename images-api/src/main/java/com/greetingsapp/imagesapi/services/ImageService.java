@@ -6,29 +6,49 @@ import com.greetingsapp.imagesapi.domain.themes.Theme;
 import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
 import com.greetingsapp.imagesapi.dto.images.UpdateImageDTO;
+import com.greetingsapp.imagesapi.dto.pagination.CursorPageDTO;
 import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
 import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.errors.UniqueConstraints;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow;
+import com.greetingsapp.imagesapi.infra.pagination.IndexedSort;
+import com.greetingsapp.imagesapi.infra.pagination.KeysetCursor;
+import com.greetingsapp.imagesapi.infra.resilience.DatabaseBulkheadConfig;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.resilience.SingleFlight;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchDocument;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
 import com.greetingsapp.imagesapi.repository.ImageRepository;
 import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 public class ImageService {
 
     private static final Logger log = LoggerFactory.getLogger(ImageService.class);
 
+    // Tamaño maximo de pagina permitido en el modo cursor
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private ImageRepository imageRepository;
 
@@ -41,11 +61,25 @@ public class ImageService {
     @Autowired
     private ImageMapper imageMapper;
 
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Ultimas respuestas correctas, servidas por los fallbacks si la BD falla
+    @Autowired
+    private LastKnownGoodStore lastKnownGood;
+
+    // Busqueda LIKE en la BD (con Circuit Breaker, Retry y databaseBH) mientras el indice no esta listo
+    @Autowired
+    private ImageDatabaseSearchService imageDatabaseSearchService;
+
 
     @Transactional
     public ImageResponseDTO createImage(CreateImageDTO createImageDTO) {
-        //validar que la tematica exista
-        Theme theme = themeRepository.findById(createImageDTO.themeId())
+        //validar que la tematica exista (bloqueada: su categoria se copia en la imagen, ver ThemeRepository)
+        Theme theme = themeRepository.findWithCategoryForUpdate(createImageDTO.themeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Theme not found with id: " + createImageDTO.themeId()));
 
         Image newImage = new Image();
@@ -54,7 +88,10 @@ public class ImageService {
         newImage.setUrl(createImageDTO.url());
         newImage.setTheme(theme);// Asocia la imagen a su tematica.
 
-        Image savedImage = imageRepository.save(newImage);
+        // Nombre repetido en la tematica o url ya registrada -> 409 (restricciones UNIQUE de la BD)
+        Image savedImage = saveImage(newImage);
+        imageSearchIndex.upsert(toSearchDocument(savedImage)); // se aplica tras el commit
+        eventPublisher.publishEvent(new CatalogChangedEvent("image-created"));
 
         return imageMapper.imageToImageResponseDTO(savedImage);
     }
@@ -67,28 +104,21 @@ public class ImageService {
         Image imageToUpdate = imageRepository.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Image not found with id: " + imageId));
 
-        // 2. Busca la temática a la que se asignará la imagen.
-        Theme theme = themeRepository.findById(updateImageDTO.themeId())
+        // 2. Busca la temática a la que se asignará la imagen (bloqueada: su categoria se copia en la imagen).
+        Theme theme = themeRepository.findWithCategoryForUpdate(updateImageDTO.themeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Theme not found with id: " + updateImageDTO.themeId()));
 
-        // 3. --- VALIDACIÓN DE DUPLICIDAD ---
-        // Busca si ya existe una imagen con el nuevo nombre en la nueva temática.
-        Optional<Image> existingImage = imageRepository.findByNameAndTheme(updateImageDTO.name(), theme);
-
-        // Si se encuentra una imagen y su ID es diferente al de la imagen que estamos actualizando,
-        // entonces es un conflicto.
-        if (existingImage.isPresent() && !existingImage.get().getId().equals(imageId)) {
-            throw new DuplicateResourceException("Image with name '" + updateImageDTO.name() + "' already exists in this theme.");
-        }
-
-        // 4. Actualiza la entidad.
+        // 3. Actualiza la entidad.
         imageToUpdate.setName(updateImageDTO.name());
         imageToUpdate.setDescription(updateImageDTO.description());
         imageToUpdate.setUrl(updateImageDTO.url());
         imageToUpdate.setTheme(theme);
 
-        // 5. Guarda y mapea la respuesta.
-        Image updatedImage = imageRepository.save(imageToUpdate);
+        // 4. Guarda y mapea la respuesta. Un nombre que ya existe en la temática (u otra imagen con
+        // la misma url) lo rechaza la restricción UNIQUE de la BD, sin SELECT previo.
+        Image updatedImage = saveImage(imageToUpdate);
+        imageSearchIndex.upsert(toSearchDocument(updatedImage));
+        eventPublisher.publishEvent(new CatalogChangedEvent("image-updated"));
         return imageMapper.imageToImageResponseDTO(updatedImage);
     }
 
@@ -99,13 +129,59 @@ public class ImageService {
             throw new ResourceNotFoundException("Image not found with id: " + imageId);
         }
         imageRepository.deleteById(imageId);
+        imageSearchIndex.remove(imageId);
+        eventPublisher.publishEvent(new CatalogChangedEvent("image-deleted"));
+    }
+
+    // Un solo INSERT/UPDATE; el flush hace que las violaciones de uk_images_* aparezcan aqui (ver UniqueConstraints)
+    private Image saveImage(Image image) {
+        try {
+            Image saved = imageRepository.save(image);
+            imageRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.IMAGE_THEME_NAME)) {
+                throw new DuplicateResourceException("Image with name '" + image.getName() + "' already exists in this theme.");
+            }
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.IMAGE_THEME_URL)) {
+                throw new DuplicateResourceException("Image with url '" + image.getUrl() + "' already exists in this theme.");
+            }
+            throw e;
+        }
+    }
+
+    // Arma el documento del indice de busqueda (la tematica ya esta cargada en la transaccion).
+    // Tambien lo usa la importacion masiva.
+    static ImageSearchDocument toSearchDocument(Image image) {
+        Theme theme = image.getTheme();
+        return new ImageSearchDocument(
+                image.getId(),
+                image.getName(),
+                image.getDescription(),
+                image.getUrl(),
+                theme.getId(),
+                theme.getName(),
+                theme.getCategory() != null ? theme.getCategory().getId() : null,
+                theme.getCategory() != null ? theme.getCategory().getName() : null,
+                image.getCreated()
+        );
     }
 
+    // ============================================
+    // CONSULTAS PUBLICAS
+    // ============================================
+    // Todas corren en una transaccion readOnly: pool de lectura, una sola sesion para la comprobacion
+    // de existencia, la pagina y su COUNT, sin flush al terminar (FlushMode.MANUAL) y con las
+    // entidades cargadas en modo solo lectura (sin copia para dirty checking).
+    // La transaccion se abre dentro de Retry: cada reintento usa una sesion nueva.
 
     //usando para paginacion para traer las imagenes de una tematica especificada
+    @SingleFlight
     @RateLimiter(name = "publicApiRL")
     @CircuitBreaker(name = "databaseCB", fallbackMethod = "getImagesFallback")
     @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
     public Page<ImageResponseDTO> getImages(Long themeId, Pageable pageable) {
 
         // 1. VALIDACIÓN CORRECTA: ¿Existe la temática que nos piden?
@@ -116,52 +192,45 @@ public class ImageService {
         }
 
         // 2. Si la temática existe, procede a buscar sus imágenes.
-        Page<Image> imagePage = imageRepository.findByThemeId(themeId, pageable);
-
-        // mapear la lista/pagina de imagenes retornada
-        return imagePage.map(image -> imageMapper.imageToImageResponseDTO(image));
-        // return imagePage.map(imageMapper::imageToImageResponseDTO);
+        // La consulta ya devuelve ImageResponseDTO (proyeccion), no hace falta mapear entidades.
+        // El orden se limita al que resuelve el indice (theme_id, created, id), sin filesort.
+        Page<ImageResponseDTO> page = imageRepository.findResponsesByThemeId(themeId, IndexedSort.apply(pageable));
+        lastKnownGood.put("getImages", page, themeId, pageable);
+        return page;
     }
 
     // metodo usado para traer todas las imagenes con paginacion
+    @SingleFlight
     @RateLimiter(name = "publicApiRL")
     @CircuitBreaker(name = "databaseCB", fallbackMethod = "getAllImagesFallback")
     @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
     public Page<ImageResponseDTO> getAllImages(Pageable pageable) {
-        Page<Image> imagePage = imageRepository.findAll(pageable);
-
-        return imagePage.map(image -> imageMapper.imageToImageResponseDTO(image));
+        Page<ImageResponseDTO> page = imageRepository.findAllResponses(IndexedSort.apply(pageable));
+        lastKnownGood.put("getAllImages", page, pageable);
+        return page;
     }
 
     // Metodo de búsqueda
+    // Usa el indice invertido en memoria (ranking por relevancia, sin acentos), que no depende de la BD:
+    // responde aunque el Circuit Breaker de la BD este abierto y no ocupa un permiso del bulkhead.
+    // Si el indice aun no esta listo, recurre a la consulta LIKE (ver ImageDatabaseSearchService).
     @RateLimiter(name = "publicApiRL")
-    @CircuitBreaker(name = "databaseCB", fallbackMethod = "searchImagesFallback")
-    @Retry(name = "databaseRetry")
     public Page<ImageResponseDTO> searchImages(String query, Pageable pageable) {
-        // 1. Limpieza básica
-        String cleanQuery = query.trim();//elimina espacios al inicio y al final
-
-        // 2. Versión para la Descripción (mantiene espacios)
-        // Ej: "feliz cumpleaños" -> busca tal cual en la descripción
-        String descriptionQuery = cleanQuery;
-
-        // 3. Versión para el Nombre (convierte espacios a guiones)
-        // Ej: "feliz cumpleaños" -> "feliz-cumpleaños"
-        // El "\\s+" maneja si el usuario pone varios espacios por error.
-        String nameQuery = cleanQuery.replaceAll("\\s+", "-"); // convierte espacios a guiones
-
-        // 4. Pasamos la versión "kebab" al primer parámetro (name)
-        // y la versión "normal" al segundo (description).
-        Page<Image> results = imageRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                nameQuery,
-                descriptionQuery,
-                pageable
-        );
-
-        return results.map(image -> imageMapper.imageToImageResponseDTO(image));
+        if (imageSearchIndex.isReady()) {
+            return imageSearchIndex.search(query, pageable);
+        }
+        return imageDatabaseSearchService.searchImages(query, pageable);
     }
 
     // Obtiene todas las imágenes pertenecientes a una categoría específica (a través de sus temáticas)
+    @SingleFlight
+    @RateLimiter(name = "publicApiRL")
+    @CircuitBreaker(name = "databaseCB", fallbackMethod = "getImagesByCategoryFallback")
+    @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
     public Page<ImageResponseDTO> getImagesByCategory(Long categoryId, Pageable pageable) {
 
         // 1. Validar que la categoría exista
@@ -169,11 +238,103 @@ public class ImageService {
             throw new ResourceNotFoundException("Category not found with id: " + categoryId);
         }
 
-        // 2. Buscar imágenes por categoría usando el metodo que creamos en el repositorio
-        Page<Image> imagePage = imageRepository.findByThemeCategoryId(categoryId, pageable);
+        // 2. Buscar imágenes por categoría (proyeccion directa a DTO)
+        Page<ImageResponseDTO> page = imageRepository.findResponsesByCategoryId(categoryId, IndexedSort.apply(pageable));
+        lastKnownGood.put("getImagesByCategory", page, categoryId, pageable);
+        return page;
+    }
+
+    // ============================================
+    // PAGINACION POR CURSOR (KEYSET) - Scroll infinito
+    // ============================================
+    // A diferencia de Pageable (OFFSET), el costo de cada pagina no crece con la profundidad
+    // del scroll y no se ejecuta COUNT(*). Un cursor null significa "primera pagina".
+    // El cursor se decodifica en el controlador: asi un cursor invalido responde 400
+    // en lugar de terminar en el fallback del Circuit Breaker.
 
-        // 3. Mapear a DTO
-        return imagePage.map(image -> imageMapper.imageToImageResponseDTO(image));
+    // Imagenes de una tematica especifica, paginadas por cursor
+    @SingleFlight
+    @RateLimiter(name = "publicApiRL")
+    @CircuitBreaker(name = "databaseCB", fallbackMethod = "getImagesByCursorFallback")
+    @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ImageResponseDTO> getImagesByCursor(Long themeId, KeysetCursor cursor, int size) {
+        if (!themeRepository.existsById(themeId)) {
+            throw new ResourceNotFoundException("Theme not found with id: " + themeId);
+        }
+
+        int pageSize = clampPageSize(size);
+        // Pedimos una fila extra para saber si hay pagina siguiente sin hacer COUNT(*)
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<ImageKeysetRow> rows = cursor == null
+                ? imageRepository.findFirstPageByThemeId(themeId, limit)
+                : imageRepository.findPageAfterByThemeId(themeId, cursor.created(), cursor.id(), limit);
+
+        CursorPageDTO<ImageResponseDTO> page = toCursorPage(rows, pageSize);
+        lastKnownGood.put("getImagesByCursor", page, themeId, cursor, size);
+        return page;
+    }
+
+    // Todas las imagenes, paginadas por cursor
+    @SingleFlight
+    @RateLimiter(name = "publicApiRL")
+    @CircuitBreaker(name = "databaseCB", fallbackMethod = "getAllImagesByCursorFallback")
+    @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ImageResponseDTO> getAllImagesByCursor(KeysetCursor cursor, int size) {
+        int pageSize = clampPageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<ImageKeysetRow> rows = cursor == null
+                ? imageRepository.findFirstPage(limit)
+                : imageRepository.findPageAfter(cursor.created(), cursor.id(), limit);
+
+        CursorPageDTO<ImageResponseDTO> page = toCursorPage(rows, pageSize);
+        lastKnownGood.put("getAllImagesByCursor", page, cursor, size);
+        return page;
+    }
+
+    // Imagenes de una categoria (a traves de sus tematicas), paginadas por cursor
+    @SingleFlight
+    @RateLimiter(name = "publicApiRL")
+    @CircuitBreaker(name = "databaseCB", fallbackMethod = "getImagesByCategoryCursorFallback")
+    @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ImageResponseDTO> getImagesByCategoryCursor(Long categoryId, KeysetCursor cursor, int size) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+
+        int pageSize = clampPageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<ImageKeysetRow> rows = cursor == null
+                ? imageRepository.findFirstPageByCategoryId(categoryId, limit)
+                : imageRepository.findPageAfterByCategoryId(categoryId, cursor.created(), cursor.id(), limit);
+
+        CursorPageDTO<ImageResponseDTO> page = toCursorPage(rows, pageSize);
+        lastKnownGood.put("getImagesByCategoryCursor", page, categoryId, cursor, size);
+        return page;
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    private CursorPageDTO<ImageResponseDTO> toCursorPage(List<ImageKeysetRow> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<ImageKeysetRow> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        // El siguiente cursor apunta a la ultima fila entregada
+        String nextCursor = null;
+        if (hasNext) {
+            ImageKeysetRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.created(), last.id()).encode();
+        }
+
+        List<ImageResponseDTO> content = pageRows.stream().map(ImageKeysetRow::toResponse).toList();
+        return new CursorPageDTO<>(content, nextCursor, pageSize, hasNext);
     }
 
     // ============================================
@@ -182,28 +343,79 @@ public class ImageService {
 
     /**
      * Fallback para getImages cuando el Circuit Breaker está abierto o hay fallos.
-     * Retorna una página vacía para degradación elegante.
+     * Retorna la última página correcta conocida, o una página vacía si no la hay.
      */
     private Page<ImageResponseDTO> getImagesFallback(Long themeId, Pageable pageable, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
         log.error("Fallback activado en getImages para themeId={}. Causa: {}", themeId, t.getMessage());
-        return Page.empty(pageable);
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<Page<ImageResponseDTO>>recall("getImages", themeId, pageable)
+                .orElseGet(() -> Page.empty(pageable));
     }
 
     /**
      * Fallback para getAllImages cuando el Circuit Breaker está abierto o hay fallos.
-     * Retorna una página vacía para degradación elegante.
+     * Retorna la última página correcta conocida, o una página vacía si no la hay.
      */
     private Page<ImageResponseDTO> getAllImagesFallback(Pageable pageable, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
         log.error("Fallback activado en getAllImages. Causa: {}", t.getMessage());
-        return Page.empty(pageable);
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<Page<ImageResponseDTO>>recall("getAllImages", pageable)
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
+    /**
+     * Fallback para getImagesByCategory cuando el Circuit Breaker está abierto o hay fallos.
+     * Retorna la última página correcta conocida, o una página vacía si no la hay.
+     */
+    private Page<ImageResponseDTO> getImagesByCategoryFallback(Long categoryId, Pageable pageable, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
+        log.error("Fallback activado en getImagesByCategory para categoryId={}. Causa: {}", categoryId, t.getMessage());
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<Page<ImageResponseDTO>>recall("getImagesByCategory", categoryId, pageable)
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
+    /**
+     * Fallback para getImagesByCursor cuando el Circuit Breaker está abierto o hay fallos.
+     * Retorna la última página correcta para el mismo cursor, o una página vacía y sin cursor siguiente.
+     */
+    private CursorPageDTO<ImageResponseDTO> getImagesByCursorFallback(Long themeId, KeysetCursor cursor, int size, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
+        log.error("Fallback activado en getImagesByCursor para themeId={}. Causa: {}", themeId, t.getMessage());
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<CursorPageDTO<ImageResponseDTO>>recall("getImagesByCursor", themeId, cursor, size)
+                .orElseGet(() -> new CursorPageDTO<>(Collections.emptyList(), null, size, false));
+    }
+
+    /**
+     * Fallback para getAllImagesByCursor cuando el Circuit Breaker está abierto o hay fallos.
+     * Retorna la última página correcta para el mismo cursor, o una página vacía y sin cursor siguiente.
+     */
+    private CursorPageDTO<ImageResponseDTO> getAllImagesByCursorFallback(KeysetCursor cursor, int size, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
+        log.error("Fallback activado en getAllImagesByCursor. Causa: {}", t.getMessage());
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<CursorPageDTO<ImageResponseDTO>>recall("getAllImagesByCursor", cursor, size)
+                .orElseGet(() -> new CursorPageDTO<>(Collections.emptyList(), null, size, false));
     }
 
     /**
-     * Fallback para searchImages cuando el Circuit Breaker está abierto o hay fallos.
-     * Retorna una página vacía para degradación elegante.
+     * Fallback para getImagesByCategoryCursor cuando el Circuit Breaker está abierto o hay fallos.
+     * Retorna la última página correcta para el mismo cursor, o una página vacía y sin cursor siguiente.
      */
-    private Page<ImageResponseDTO> searchImagesFallback(String query, Pageable pageable, Throwable t) {
-        log.error("Fallback activado en searchImages para query='{}'. Causa: {}", query, t.getMessage());
-        return Page.empty(pageable);
+    private CursorPageDTO<ImageResponseDTO> getImagesByCategoryCursorFallback(Long categoryId, KeysetCursor cursor, int size, Throwable t) {
+        DatabaseBulkheadConfig.rethrowIfFull(t);
+        LastKnownGoodStore.rethrowIfNotFound(t);
+        log.error("Fallback activado en getImagesByCategoryCursor para categoryId={}. Causa: {}", categoryId, t.getMessage());
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<CursorPageDTO<ImageResponseDTO>>recall("getImagesByCategoryCursor", categoryId, cursor, size)
+                .orElseGet(() -> new CursorPageDTO<>(Collections.emptyList(), null, size, false));
     }
 }
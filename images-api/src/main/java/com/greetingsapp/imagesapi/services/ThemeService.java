@@ -3,24 +3,37 @@ package com.greetingsapp.imagesapi.services;
 import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
 import com.greetingsapp.imagesapi.domain.themes.ThemeMapper;
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
 import com.greetingsapp.imagesapi.dto.themes.CreateThemeDTO;
 import com.greetingsapp.imagesapi.dto.themes.ThemeResponseDTO;
 import com.greetingsapp.imagesapi.dto.themes.UpdateThemeDTO;
 import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
 import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.errors.UniqueConstraints;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import com.greetingsapp.imagesapi.infra.resilience.DatabaseBulkheadConfig;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.resilience.SingleFlight;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
 import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ThemeService {
@@ -36,6 +49,22 @@ public class ThemeService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogPurgeService catalogPurgeService;
+
+    // Ultimas respuestas correctas, servidas por los fallbacks si la BD falla
+    @Autowired
+    private LastKnownGoodStore lastKnownGood;
+
     // --- Metodo para crear una nueva temática --- ✍️
     @Transactional
     public ThemeResponseDTO createTheme(CreateThemeDTO createThemeDTO) {
@@ -43,42 +72,61 @@ public class ThemeService {
         Category category = categoryRepository.findById(createThemeDTO.categoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + createThemeDTO.categoryId()));
 
-        // 2. VALIDACIÓN: Asegura que el nombre de la temática sea único DENTRO de esa categoría.
-        if (themeRepository.findByNameAndCategory(createThemeDTO.name(), category).isPresent()) {
-            throw new DuplicateResourceException("Theme with name '" + createThemeDTO.name() + "' already exists in this category.");
-        }
-
-        // 3. Crea la nueva entidad Theme.
+        // 2. Crea la nueva entidad Theme.
         Theme newTheme = new Theme();
         newTheme.setName(createThemeDTO.name());
         newTheme.setCategory(category); // Asocia la temática a su categoría.
 
-        // 4. Guarda en la base de datos.
-        Theme savedTheme = themeRepository.save(newTheme);
+        // 3. Guarda en la base de datos. El nombre debe ser único DENTRO de la categoría:
+        // lo garantiza la restricción UNIQUE (category_id, name), sin SELECT previo.
+        Theme savedTheme = saveTheme(newTheme);
+        eventPublisher.publishEvent(new CatalogChangedEvent("theme-created"));
 
-        // 5. Devuelve el DTO de respuesta.
+        // 4. Devuelve el DTO de respuesta.
         return themeMapper.themeToThemeResponseDTO(savedTheme);
     }
 
     // --- Metodo para actualizar una temática --- 🔄
     @Transactional
     public ThemeResponseDTO updateTheme(Long themeId, UpdateThemeDTO updateThemeDTO) {
-        Theme themeToUpdate = themeRepository.findById(themeId)
+        // Bloqueada: las altas de imagenes en curso copian su categoria actual (ver ThemeRepository)
+        Theme themeToUpdate = themeRepository.findWithCategoryForUpdate(themeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Theme not found with id: " + themeId));
 
         themeToUpdate.setName(updateThemeDTO.name());
-        Theme updatedTheme = themeRepository.save(themeToUpdate);
+
+        // Mover la temática de categoría: sus imágenes guardan una copia de la categoría (images.category_id)
+        Long newCategoryId = updateThemeDTO.categoryId();
+        boolean moved = newCategoryId != null && !newCategoryId.equals(themeToUpdate.getCategory().getId());
+        if (moved) {
+            Category category = categoryRepository.findById(newCategoryId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + newCategoryId));
+            themeToUpdate.setCategory(category);
+        }
+
+        // Nombre repetido en la categoría (destino) -> 409 por la restricción UNIQUE
+        Theme updatedTheme = saveTheme(themeToUpdate);
+        if (moved) {
+            int updated = imageRepository.updateCategoryByThemeId(themeId, updatedTheme.getCategory());
+            log.debug("Tematica {} movida a la categoria {} ({} imagenes)", themeId, newCategoryId, updated);
+            imageSearchIndex.moveTheme(themeId, newCategoryId, updatedTheme.getCategory().getName());
+        }
+        // El nombre de la tematica es buscable: se reindexan sus imagenes tras el commit
+        imageSearchIndex.renameTheme(themeId, updatedTheme.getName());
+        eventPublisher.publishEvent(new CatalogChangedEvent("theme-updated"));
 
         return themeMapper.themeToThemeResponseDTO(updatedTheme);
     }
 
     // --- Metodo para eliminar una temática --- 🗑️
+    // Borra la tematica con sus imagenes mediante DELETE set-based (ver CatalogPurgeService).
+    // Devuelve el job de borrado si tiene muchas imagenes y se elimina en segundo plano.
     @Transactional
-    public void deleteTheme(Long themeId) {
+    public Optional<PurgeJobDTO> deleteTheme(Long themeId) {
         if (!themeRepository.existsById(themeId)) {
             throw new ResourceNotFoundException("Theme not found with id: " + themeId);
         }
-        themeRepository.deleteById(themeId);
+        return catalogPurgeService.purgeTheme(themeId);
     }
 
     //metodo para traer todas las tematicas de una categoria especifica
@@ -90,10 +138,16 @@ public class ThemeService {
      * - @RateLimiter: Limita peticiones para proteger el servidor
      * - @CircuitBreaker: Previene fallos en cascada si la BD está caída
      * - @Retry: Reintenta automáticamente ante fallos transitorios
+     * - @Bulkhead: Limita las llamadas concurrentes al tamaño del pool de conexiones (503 si está lleno)
+     * - @SingleFlight: Las peticiones identicas simultaneas comparten una sola consulta
+     * - @Transactional(readOnly): Sesion de solo lectura en el pool de lectura, sin dirty checking ni flush
      */
+    @SingleFlight
     @RateLimiter(name = "publicApiRL")
     @CircuitBreaker(name = "databaseCB", fallbackMethod = "getThemesFallback")
     @Retry(name = "databaseRetry")
+    @Bulkhead(name = "databaseBH")
+    @Transactional(readOnly = true)
     public List<ThemeResponseDTO> getThemes(Long categoryId) {
 
         if (!categoryRepository.existsById(categoryId)) {
@@ -104,14 +158,34 @@ public class ThemeService {
 
         List<Theme> themes = themeRepository.findByCategoryId(categoryId);
 
-        return themeMapper.themeListToThemeResponseDTOList(themes);
+        List<ThemeResponseDTO> response = themeMapper.themeListToThemeResponseDTOList(themes);
+        lastKnownGood.put("getThemes", response, categoryId);
+        return response;
     }
 
     /**
-     * Fallback para getThemes: devuelve lista vacía cuando el servicio falla
+     * Fallback para getThemes: devuelve la última lista correcta de la categoría, o una lista vacía si no la hay
      */
     private List<ThemeResponseDTO> getThemesFallback(Long categoryId, Exception ex) {
+        DatabaseBulkheadConfig.rethrowIfFull(ex);
+        LastKnownGoodStore.rethrowIfNotFound(ex);
         log.error("Fallback activado en getThemes para categoryId={}. Causa: {}", categoryId, ex.getMessage());
-        return Collections.emptyList();
+        ResponseDegradation.markDegraded();
+        return lastKnownGood.<List<ThemeResponseDTO>>recall("getThemes", categoryId)
+                .orElseGet(Collections::emptyList);
+    }
+
+    // Un solo INSERT/UPDATE; el flush hace que la violacion de uk_themes_category_name aparezca aqui (ver UniqueConstraints)
+    private Theme saveTheme(Theme theme) {
+        try {
+            Theme saved = themeRepository.save(theme);
+            themeRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.THEME_CATEGORY_NAME)) {
+                throw new DuplicateResourceException("Theme with name '" + theme.getName() + "' already exists in this category.");
+            }
+            throw e;
+        }
     }
 }
@@ -4,9 +4,13 @@ import com.greetingsapp.imagesapi.domain.users.User;
 import com.greetingsapp.imagesapi.domain.users.UserMapper;
 import com.greetingsapp.imagesapi.dto.users.CreateUserDTO;
 import com.greetingsapp.imagesapi.dto.users.UserResponseDTO;
+import com.greetingsapp.imagesapi.infra.authentication.TokenRevocationList;
 import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
+import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.errors.UniqueConstraints;
 import com.greetingsapp.imagesapi.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,23 +27,43 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     @Transactional
     public UserResponseDTO createUser(CreateUserDTO createUserDTO) {
 
-        // Lógica de negocio: Verificar si el usuario ya existe
-        if (userRepository.findByUsername(createUserDTO.username()).isPresent()) {
-            throw new DuplicateResourceException("Username " + createUserDTO.username() + " already exists.");
-        }
-
         User newUser = new User();
         newUser.setUsername(createUserDTO.username());
         // Lógica de negocio: Encriptar la contraseña antes de guardarla
         newUser.setPassword(passwordEncoder.encode(createUserDTO.password()));
         newUser.setRole(createUserDTO.role());
 
-        User savedUser = userRepository.save(newUser);
+        // Un username repetido lo rechaza la restricción UNIQUE de la BD (sin SELECT previo)
+        User savedUser;
+        try {
+            savedUser = userRepository.save(newUser);
+            userRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.USER_USERNAME)) {
+                throw new DuplicateResourceException("Username " + createUserDTO.username() + " already exists.");
+            }
+            throw e;
+        }
 
         return userMapper.userToUserResponseDTO(savedUser);
     }
+
+    // --- Revoca todas las sesiones (JWT) emitidas para un usuario --- 🔒
+    @Transactional
+    public void revokeTokens(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+
+        // Los tokens con una version menor dejan de ser validos
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        tokenRevocationList.userTokensRevoked(userId, user.getTokenVersion()); // se aplica tras el commit
+    }
 }
 
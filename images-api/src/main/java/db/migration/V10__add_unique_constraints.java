@@ -0,0 +1,93 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restricciones UNIQUE para detectar duplicados en la BD: los servicios hacen un solo INSERT/UPDATE
+ * y traducen la violacion a 409 (ver UniqueConstraints), en lugar de consultar antes si el nombre existe
+ * (un viaje mas a la BD por escritura y una carrera entre dos administradores simultaneos).
+ * <p>
+ * La migracion no borra ni renombra filas del catalogo. Si ya hay duplicados que impedirian crear
+ * alguna restriccion, falla ANTES de cambiar el esquema y lista cada grupo (con los ids de las filas)
+ * para corregirlos a mano; despues basta con volver a arrancar. Las consultas de {@link #DUPLICATES}
+ * sirven tambien para revisarlos directamente en la BD.
+ * <p>
+ * Es una migracion Java y no SQL porque MySQL/TiDB no pueden abortar un script SQL con un mensaje
+ * propio fuera de un procedimiento almacenado (y TiDB no los soporta).
+ */
+public class V10__add_unique_constraints extends BaseJavaMigration {
+
+    // Filas por restriccion incluidas en el mensaje de error
+    private static final int MAX_REPORTED = 50;
+
+    // Restriccion -> consulta de los grupos que la violan (descripcion del grupo + ids de sus filas)
+    private static final Map<String, String> DUPLICATES = new LinkedHashMap<>();
+
+    static {
+        // Una misma imagen puede estar en varias tematicas: la url solo es unica dentro de la tematica
+        DUPLICATES.put("uk_images_theme_url_hash", """
+                SELECT CONCAT('theme_id=', theme_id, ' url=', LEFT(MIN(url), 200)), GROUP_CONCAT(id ORDER BY id)
+                FROM images GROUP BY theme_id, UNHEX(SHA2(url, 256)) HAVING COUNT(*) > 1""");
+        DUPLICATES.put("uk_images_theme_name", """
+                SELECT CONCAT('theme_id=', theme_id, ' name=', MIN(name)), GROUP_CONCAT(id ORDER BY id)
+                FROM images GROUP BY theme_id, name HAVING COUNT(*) > 1""");
+        DUPLICATES.put("uk_themes_category_name", """
+                SELECT CONCAT('category_id=', category_id, ' name=', MIN(name)), GROUP_CONCAT(id ORDER BY id)
+                FROM themes GROUP BY category_id, name HAVING COUNT(*) > 1""");
+        DUPLICATES.put("uk_categories_name", """
+                SELECT CONCAT('name=', MIN(name)), GROUP_CONCAT(id ORDER BY id)
+                FROM categories GROUP BY name HAVING COUNT(*) > 1""");
+    }
+
+    private static final List<String> SCHEMA_CHANGES = List.of(
+            // Hash de la url (TEXT no admite un indice UNIQUE completo). Columna virtual: la calcula la BD,
+            // la aplicacion no la escribe ni la lee.
+            "ALTER TABLE images ADD COLUMN url_hash BINARY(32) AS (UNHEX(SHA2(url, 256))) VIRTUAL",
+            "CREATE UNIQUE INDEX uk_images_theme_url_hash ON images (theme_id, url_hash)",
+            "CREATE UNIQUE INDEX uk_images_theme_name ON images (theme_id, name)",
+            "CREATE UNIQUE INDEX uk_themes_category_name ON themes (category_id, name)",
+            "CREATE UNIQUE INDEX uk_categories_name ON categories (name)",
+            // uk_themes_category_name empieza por category_id: tambien sirve a la FK fk_themes_category
+            "DROP INDEX idx_themes_category_id ON themes");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        List<String> duplicates = findDuplicates(connection);
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("Cannot add the catalog UNIQUE constraints: existing rows are duplicated. "
+                    + "Fix them by hand and restart (no schema change was applied):\n" + String.join("\n", duplicates));
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : SCHEMA_CHANGES) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static List<String> findDuplicates(Connection connection) throws SQLException {
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> check : DUPLICATES.entrySet()) {
+                statement.setMaxRows(MAX_REPORTED);
+                try (ResultSet rows = statement.executeQuery(check.getValue())) {
+                    while (rows.next()) {
+                        duplicates.add("  " + check.getKey() + ": " + rows.getString(1) + " (ids " + rows.getString(2) + ")");
+                    }
+                }
+            }
+        }
+        return duplicates;
+    }
+}
@@ -0,0 +1,20 @@
+-- Reglas para días especiales con fecha móvil (ej: segundo domingo de mayo) y celebraciones de varios días.
+-- Las filas existentes quedan como FIXED (día/mes) con duración de 1 día.
+ALTER TABLE special_days ADD COLUMN rule_type VARCHAR(20) NOT NULL DEFAULT 'FIXED';
+ALTER TABLE special_days ADD COLUMN week_of_month INT DEFAULT NULL;   -- Ej: 2 (segundo)
+ALTER TABLE special_days ADD COLUMN day_of_week VARCHAR(10) DEFAULT NULL; -- Ej: SUNDAY
+ALTER TABLE special_days ADD COLUMN easter_offset INT DEFAULT NULL;   -- Ej: -2 (Viernes Santo)
+ALTER TABLE special_days ADD COLUMN duration_days INT NOT NULL DEFAULT 1;
+
+-- Las reglas móviles no usan día (y las de Pascua tampoco mes)
+ALTER TABLE special_days MODIFY COLUMN day_month INT NULL;
+ALTER TABLE special_days MODIFY COLUMN month_of_year INT NULL;
+
+-- Fechas que antes se aproximaban con un día fijo
+UPDATE special_days
+SET rule_type = 'NTH_WEEKDAY', week_of_month = 2, day_of_week = 'SUNDAY', day_month = NULL
+WHERE name = 'Día de las Madres' AND month_of_year = 5;
+
+UPDATE special_days
+SET rule_type = 'LAST_WEEKDAY', day_of_week = 'SUNDAY', day_month = NULL
+WHERE name = 'Día del Padre' AND month_of_year = 6;
@@ -0,0 +1,21 @@
+-- Version de tokens por usuario: incrementarla revoca todos los JWT emitidos antes
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
+
+-- JWT revocados individualmente (logout), identificados por su claim "jti"
+CREATE TABLE revoked_tokens(
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    jti VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,      -- Despues de esta fecha el token ya no es valido y la fila se purga
+
+    created_by VARCHAR(255) DEFAULT NULL,
+    created DATETIME(6) NOT NULL,
+    last_modified_by VARCHAR(255) DEFAULT NULL,
+    last_modified DATETIME(6) NOT NULL,
+
+    CONSTRAINT fk_revoked_tokens_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens(expires_at);
@@ -0,0 +1,11 @@
+-- Indices compuestos para los listados publicos de imagenes.
+-- Los listados ordenan por (created DESC, id DESC); con estos indices MySQL lee las filas
+-- ya ordenadas y se detiene en el LIMIT, en lugar de ordenar toda la tabla (filesort).
+
+-- Listados por tematica (pagina por offset, cursor y home de dias especiales).
+-- Empieza por theme_id, asi que tambien sirve a la FK fk_images_theme y reemplaza a idx_images_theme_id.
+CREATE INDEX idx_images_theme_created ON images (theme_id, created, id);
+DROP INDEX idx_images_theme_id ON images;
+
+-- Listado general (GET /api/images) y su cursor
+CREATE INDEX idx_images_created ON images (created, id);
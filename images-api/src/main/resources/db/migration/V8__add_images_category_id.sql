@@ -0,0 +1,19 @@
+-- Categoria desnormalizada en images: los listados por categoria leen solo esta tabla,
+-- sin JOIN con themes (ni en la pagina ni en su COUNT).
+-- La aplicacion la mantiene al crear/mover una imagen y al mover una tematica de categoria.
+ALTER TABLE images ADD COLUMN category_id BIGINT NULL;
+
+-- Backfill desde la tematica de cada imagen
+UPDATE images i
+    JOIN themes t ON t.id = i.theme_id
+SET i.category_id = t.category_id;
+
+ALTER TABLE images MODIFY category_id BIGINT NOT NULL;
+
+-- Listados por categoria (pagina por offset y cursor), ordenados por (created, id)
+CREATE INDEX idx_images_category_created ON images (category_id, created, id);
+
+ALTER TABLE images
+    ADD CONSTRAINT fk_images_category
+        FOREIGN KEY (category_id) REFERENCES categories(id)
+        ON DELETE CASCADE;
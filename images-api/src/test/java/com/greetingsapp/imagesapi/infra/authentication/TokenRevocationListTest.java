@@ -0,0 +1,74 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+import com.greetingsapp.imagesapi.domain.users.Role;
+import com.greetingsapp.imagesapi.repository.RevokedTokenRepository;
+import com.greetingsapp.imagesapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TokenRevocationList tokenRevocationList;
+
+    private final Instant expiresAt = Instant.now().plusSeconds(3600);
+
+    @Test
+    void shouldDetectRevokedJtiAndOutdatedVersion_afterRefresh() {
+        // Arrange: un jti revocado (logout) y el usuario 2 con version minima 3
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of(new RevokedTokenEntry("jti-revocado", expiresAt)));
+        when(userRepository.findRevokedTokenVersions()).thenReturn(List.of(new UserTokenVersion(2L, 3)));
+
+        // Act
+        tokenRevocationList.refresh();
+
+        // Assert
+        assertTrue(tokenRevocationList.isReady());
+        assertTrue(tokenRevocationList.isRevoked(claims("jti-revocado", 1L, 0)));
+        assertTrue(tokenRevocationList.isRevoked(claims("otro", 2L, 2)));
+        assertFalse(tokenRevocationList.isRevoked(claims("otro", 2L, 3)));
+        assertFalse(tokenRevocationList.isRevoked(claims("valido", 1L, 0)));
+    }
+
+    @Test
+    void shouldApplyLocalRevocationImmediately_outsideTransaction() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of());
+        when(userRepository.findRevokedTokenVersions()).thenReturn(List.of());
+        tokenRevocationList.refresh();
+
+        tokenRevocationList.revoke(claims("logout", 1L, 0));
+
+        assertTrue(tokenRevocationList.isRevoked(claims("logout", 1L, 0)));
+    }
+
+    @Test
+    void shouldNotBeReady_untilLoaded() {
+        when(revokedTokenRepository.findActive(any())).thenThrow(new RuntimeException("BD caida"));
+
+        tokenRevocationList.refresh();
+
+        // El filtro JWT seguira validando contra la BD
+        assertFalse(tokenRevocationList.isReady());
+    }
+
+    private TokenClaims claims(String jti, Long userId, int tokenVersion) {
+        return new TokenClaims(jti, "user" + userId, userId, Role.ADMIN, tokenVersion, expiresAt);
+    }
+}
@@ -0,0 +1,61 @@
+package com.greetingsapp.imagesapi.infra.authentication;
+
+import com.greetingsapp.imagesapi.domain.users.Role;
+import com.greetingsapp.imagesapi.domain.users.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private TokenService tokenService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "apiSecret", "clave-de-prueba");
+        ReflectionTestUtils.setField(tokenService, "cacheSize", 100L);
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", meterRegistry);
+        tokenService.init();
+    }
+
+    @Test
+    void shouldServeRepeatedTokenFromCache() {
+        // Arrange
+        String token = tokenService.generateToken(user());
+
+        // Act
+        TokenClaims first = tokenService.verify(token);
+        TokenClaims second = tokenService.verify(token);
+
+        // Assert: la segunda verificacion no repite el HMAC, devuelve los mismos claims
+        assertSame(first, second);
+        assertEquals("admin", first.username());
+        assertEquals(Role.ADMIN, first.role());
+        assertNotNull(first.jti());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        String token = tokenService.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(RuntimeException.class, () -> tokenService.verify(tampered));
+        assertThrows(RuntimeException.class, () -> tokenService.verify(null));
+    }
+
+    private User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setRole(Role.ADMIN);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.greetingsapp.imagesapi.infra.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+        ReflectionTestUtils.setField(config, "maxEntities", 500L);
+        ReflectionTestUtils.setField(config, "maxQueries", 300L);
+        ReflectionTestUtils.setField(config, "ttl", Duration.ofMinutes(10));
+        cacheManager = config.hibernateCacheManager(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void shouldCreateBoundedRegions() {
+        assertEquals(OptionalLong.of(500), configuration(SecondLevelCacheConfig.CATEGORIES).getMaximumSize());
+        assertEquals(OptionalLong.of(500), configuration(SecondLevelCacheConfig.THEMES).getMaximumSize());
+        assertEquals(OptionalLong.of(500), configuration(SecondLevelCacheConfig.SPECIAL_DAYS).getMaximumSize());
+        assertEquals(OptionalLong.of(300), configuration(SecondLevelCacheConfig.QUERIES).getMaximumSize());
+        assertEquals(OptionalLong.of(300), configuration(SecondLevelCacheConfig.DEFAULT_QUERY_RESULTS).getMaximumSize());
+        assertEquals(OptionalLong.of(Duration.ofMinutes(10).toNanos()),
+                configuration(SecondLevelCacheConfig.THEMES).getExpireAfterWrite());
+
+        // Las marcas de tiempo de las tablas no expiran, pero tambien tienen limite
+        CaffeineConfiguration<?, ?> timestamps = configuration(SecondLevelCacheConfig.UPDATE_TIMESTAMPS);
+        assertTrue(timestamps.getMaximumSize().isPresent());
+        assertTrue(timestamps.getExpireAfterWrite().isEmpty());
+    }
+
+    @Test
+    void shouldPublishHitRatioPerRegion() {
+        Cache<Object, Object> themes = cacheManager.getCache(SecondLevelCacheConfig.THEMES);
+        themes.put(1L, "Cumpleaños");
+        themes.get(1L);
+        themes.get(1L);
+        themes.get(1L);
+        themes.get(2L);
+
+        double hits = meterRegistry.get("cache.gets").tags("cache", SecondLevelCacheConfig.THEMES, "result", "hit")
+                .functionCounter().count();
+        assertEquals(3, hits);
+        assertEquals(0.75, meterRegistry.get("cache.hit.ratio").tag("cache", SecondLevelCacheConfig.THEMES).gauge().value(), 0.001);
+        assertEquals(0, meterRegistry.get("cache.hit.ratio").tag("cache", SecondLevelCacheConfig.CATEGORIES).gauge().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CaffeineConfiguration<?, ?> configuration(String region) {
+        return cacheManager.getCache(region).getConfiguration(CaffeineConfiguration.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.greetingsapp.imagesapi.infra.calendar;
+
+import com.greetingsapp.imagesapi.domain.specialdays.SpecialDayRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecialDayCalendarTest {
+
+    @Test
+    void shouldResolveMovableDates() {
+        // Arrange
+        SpecialDayDefinition madres = rule("Madres", SpecialDayRule.NTH_WEEKDAY, null, 5, 2, DayOfWeek.SUNDAY, null, 1);
+        SpecialDayDefinition padre = rule("Padre", SpecialDayRule.LAST_WEEKDAY, null, 6, null, DayOfWeek.SUNDAY, null, 1);
+        SpecialDayDefinition viernesSanto = rule("Viernes Santo", SpecialDayRule.EASTER_OFFSET, null, null, null, null, -2, 1);
+
+        // Act
+        List<List<SpecialDayEntry>> year2026 = SpecialDayCalendar.buildYear(List.of(madres, padre, viernesSanto), 2026);
+
+        // Assert: 2do domingo de mayo, ultimo domingo de junio y Pascua 2026 = 5 de abril
+        assertEquals("Madres", on(year2026, LocalDate.of(2026, 5, 10)).get(0).name());
+        assertEquals("Padre", on(year2026, LocalDate.of(2026, 6, 28)).get(0).name());
+        assertEquals("Viernes Santo", on(year2026, LocalDate.of(2026, 4, 3)).get(0).name());
+        assertTrue(on(year2026, LocalDate.of(2026, 5, 11)).isEmpty());
+    }
+
+    @Test
+    void shouldKeepSeveralEventsOnSameDate_andSpanRangesAcrossYears() {
+        // Arrange: dos eventos fijos el mismo dia y uno de 3 dias que empieza el 31/12
+        SpecialDayDefinition navidad = rule("Navidad", SpecialDayRule.FIXED, 25, 12, null, null, null, 1);
+        SpecialDayDefinition otro = rule("Otro", SpecialDayRule.FIXED, 25, 12, null, null, null, 1);
+        SpecialDayDefinition fiestas = rule("Fiestas", SpecialDayRule.FIXED, 31, 12, null, null, null, 3);
+
+        // Act
+        List<List<SpecialDayEntry>> year2027 = SpecialDayCalendar.buildYear(List.of(navidad, otro, fiestas), 2027);
+
+        // Assert
+        assertEquals(2, on(year2027, LocalDate.of(2027, 12, 25)).size());
+        assertEquals("Fiestas", on(year2027, LocalDate.of(2027, 1, 2)).get(0).name());
+        assertTrue(on(year2027, LocalDate.of(2027, 1, 3)).isEmpty());
+    }
+
+    @Test
+    void shouldSkipDatesThatDoNotExistThatYear() {
+        SpecialDayDefinition bisiesto = rule("Bisiesto", SpecialDayRule.FIXED, 29, 2, null, null, null, 1);
+        SpecialDayDefinition quintoLunes = rule("Quinto lunes", SpecialDayRule.NTH_WEEKDAY, null, 2, 5, DayOfWeek.MONDAY, null, 1);
+
+        assertNull(bisiesto.startIn(2026));
+        assertEquals(LocalDate.of(2028, 2, 29), bisiesto.startIn(2028));
+        assertNull(quintoLunes.startIn(2026)); // febrero 2026 solo tiene 4 lunes
+    }
+
+    private static List<SpecialDayEntry> on(List<List<SpecialDayEntry>> table, LocalDate date) {
+        return table.get(date.getDayOfYear() - 1);
+    }
+
+    private static SpecialDayDefinition rule(String name, SpecialDayRule type, Integer day, Integer month,
+                                             Integer weekOfMonth, DayOfWeek dayOfWeek, Integer easterOffset,
+                                             Integer durationDays) {
+        return new SpecialDayDefinition(1L, name, 1L, type, day, month, weekOfMonth, dayOfWeek, easterOffset, durationDays);
+    }
+}
@@ -0,0 +1,44 @@
+package com.greetingsapp.imagesapi.infra.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.greetingsapp.imagesapi.infra.datasource.ReadWriteRoutingDataSource.Route.READ;
+import static com.greetingsapp.imagesapi.infra.datasource.ReadWriteRoutingDataSource.Route.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readsWithoutTransaction_shouldUseReadPool() {
+        assertEquals(READ, ReadWriteRoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReadPool() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(READ, ReadWriteRoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void writeTransaction_shouldUseWritePool() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals(WRITE, ReadWriteRoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void onWritePool_shouldForceWritePool_onlyInsideTheAction() {
+        assertEquals(WRITE, ReadWriteRoutingDataSource.onWritePool(ReadWriteRoutingDataSource::currentRoute));
+        assertEquals(READ, ReadWriteRoutingDataSource.currentRoute());
+    }
+}
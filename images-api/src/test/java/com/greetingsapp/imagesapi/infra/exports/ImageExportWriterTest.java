@@ -0,0 +1,59 @@
+package com.greetingsapp.imagesapi.infra.exports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+import com.greetingsapp.imagesapi.infra.imports.ImageImportReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageExportWriterTest {
+
+    private static final ImageExportDTO IMAGE = new ImageExportDTO(7L, "feliz-dia", "Para ti, \"mamá\"\nCon cariño",
+            "https://example.com/a.jpg", 3L, "Día de la Madre", 1L, "Fechas", Instant.parse("2024-05-10T08:00:00Z"));
+
+    @Test
+    void csv_shouldQuoteOnlyWhenNeeded() {
+        assertEquals("simple", CsvImageExportWriter.escape("simple"));
+        assertEquals("\"a,b\"", CsvImageExportWriter.escape("a,b"));
+        assertEquals("\"dice \"\"hola\"\"\"", CsvImageExportWriter.escape("dice \"hola\""));
+        assertEquals("", CsvImageExportWriter.escape(null));
+    }
+
+    @Test
+    void csv_shouldBeReadableByTheBulkImport() throws IOException {
+        String csv = export(ImageExportFormat.CSV);
+
+        assertTrue(csv.startsWith(CsvImageExportWriter.HEADER + "\r\n"));
+        var row = ImageImportReader.csv(new StringReader(csv)).next();
+        assertEquals(new CreateImageDTO("feliz-dia", "Para ti, \"mamá\"\nCon cariño", "https://example.com/a.jpg", 3L), row.image());
+    }
+
+    @Test
+    void ndjson_shouldWriteOneObjectPerLine() throws IOException {
+        String ndjson = export(ImageExportFormat.NDJSON);
+
+        assertEquals(1, ndjson.lines().count());
+        assertTrue(ndjson.contains("\"themeName\":\"Día de la Madre\""));
+        assertTrue(ndjson.contains("\"created\":\"2024-05-10T08:00:00Z\""));
+    }
+
+    private static String export(ImageExportFormat format) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageExportWriter writer = ImageExportWriter.open(format, out, objectMapper);
+        writer.write(IMAGE);
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
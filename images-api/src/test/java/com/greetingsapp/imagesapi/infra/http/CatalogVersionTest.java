@@ -0,0 +1,106 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskExecutor taskExecutor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CatalogVersion catalogVersion;
+
+    // Total de imagenes que devuelve la consulta simulada
+    private final AtomicLong images = new AtomicLong(10);
+
+    @Test
+    void current_withoutStamp_loadsInBackgroundOnce() {
+        // Sin sello: la peticion no consulta la BD, solo encola un calculo (uno aunque lleguen varias)
+        assertNull(catalogVersion.current());
+        assertNull(catalogVersion.current());
+
+        verifyNoInteractions(jdbcTemplate);
+        verify(taskExecutor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    void refresh_withChangeFromAnotherInstance_publishesRemoteChangeBeforeNewStamp() throws Exception {
+        mockFingerprint();
+        catalogVersion.warmUp();
+        CatalogVersion.Stamp first = catalogVersion.current();
+        assertNotNull(first);
+
+        // Sin cambios: no se avisa a nadie
+        catalogVersion.refresh();
+        verifyNoInteractions(eventPublisher);
+
+        // Otra instancia borra una imagen: se invalida antes de anunciar el nuevo ETag
+        images.decrementAndGet();
+        doAnswer(invocation -> {
+            assertSame(first, catalogVersion.current());
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+        catalogVersion.refresh();
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(((CatalogChangedEvent) event.getValue()).isRemote());
+        assertNotEquals(first.etag(), catalogVersion.current().etag());
+    }
+
+    @Test
+    void onCatalogChanged_afterLocalChange_updatesStampWithoutPublishing() throws Exception {
+        mockFingerprint();
+        catalogVersion.warmUp();
+        String etag = catalogVersion.current().etag();
+
+        images.incrementAndGet();
+        catalogVersion.onCatalogChanged(new CatalogChangedEvent("image-created"));
+
+        assertNotEquals(etag, catalogVersion.current().etag());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // Una fila por tabla: la misma fecha y el total de imagenes en la tercera
+    private void mockFingerprint() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        // Siempre con un Calendar en UTC, la zona en la que Hibernate guarda las fechas
+        when(rs.getTimestamp(eq(1), argThat((Calendar calendar) -> "UTC".equals(calendar.getTimeZone().getID()))))
+                .thenReturn(Timestamp.from(Instant.parse("2026-03-01T12:00:00Z")));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long total : new long[]{2, 3, images.get(), 1}) {
+                when(rs.getLong(2)).thenReturn(total);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,104 @@
+package com.greetingsapp.imagesapi.infra.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalGetInterceptorTest {
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    private ConditionalGetInterceptor interceptor;
+
+    private final CatalogVersion.Stamp stamp =
+            new CatalogVersion.Stamp("abc123", Instant.parse("2026-03-01T12:00:00Z"));
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ConditionalGetInterceptor(catalogVersion);
+    }
+
+    @Test
+    void shouldAnswer304_whenEtagMatches() {
+        // Arrange
+        when(catalogVersion.current()).thenReturn(stamp);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.addHeader("If-None-Match", "\"otro\", \"abc123\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert: no se llega al controlador (ni a la BD)
+        assertFalse(proceed);
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc123\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void shouldContinue_whenEtagIsOutdated() {
+        // Arrange
+        when(catalogVersion.current()).thenReturn(stamp);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/themes/1/images");
+        request.addHeader("If-None-Match", "\"viejo\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert: se responde completo y los validadores quedan para el ResponseBodyAdvice
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+        assertNotNull(request.getAttribute(ConditionalGetInterceptor.VALIDATORS_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldContinue_whenIfNoneMatchIsWildcard() {
+        // Arrange
+        when(catalogVersion.current()).thenReturn(stamp);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.addHeader("If-None-Match", "*");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert: "*" no identifica ninguna copia del cliente, se responde completo
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void shouldAnswer304_whenNotModifiedSinceClientCopy() {
+        // Arrange
+        when(catalogVersion.current()).thenReturn(stamp);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.addHeader("If-Modified-Since", stamp.lastModified().toEpochMilli());
+
+        // Act & Assert
+        assertFalse(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void shouldChangeHomeEtag_whenDayChanges() {
+        ConditionalGetInterceptor.Validators monday =
+                ConditionalGetInterceptor.validatorsFor("/api/home", stamp, LocalDate.of(2026, 3, 2));
+        ConditionalGetInterceptor.Validators tuesday =
+                ConditionalGetInterceptor.validatorsFor("/api/home", stamp, LocalDate.of(2026, 3, 3));
+
+        assertNotEquals(monday.etag(), tuesday.etag());
+        assertTrue(tuesday.lastModified() > monday.lastModified());
+    }
+}
@@ -0,0 +1,69 @@
+package com.greetingsapp.imagesapi.infra.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+import com.greetingsapp.imagesapi.infra.errors.InvalidImportFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageImportReaderTest {
+
+    @Test
+    void ndjson_shouldReadOneImagePerLine_andReportInvalidLines() throws IOException {
+        String body = """
+                {"name":"amanecer","description":"Buenos dias","url":"https://example.com/a.jpg","themeId":1}
+
+                {"name":"roto",
+                {"name":"noche","description":"Buenas noches","url":"https://example.com/b.jpg","themeId":2}
+                """;
+
+        List<ImageImportRow> rows = readAll(ImageImportReader.ndjson(new StringReader(body), new ObjectMapper()));
+
+        assertEquals(3, rows.size());
+        assertEquals(new CreateImageDTO("amanecer", "Buenos dias", "https://example.com/a.jpg", 1L), rows.get(0).image());
+        assertEquals(3, rows.get(1).line()); // la linea en blanco se salta pero cuenta
+        assertNotNull(rows.get(1).error());
+        assertEquals(4, rows.get(2).line());
+        assertEquals(2L, rows.get(2).image().themeId());
+    }
+
+    @Test
+    void csv_shouldMapColumnsByHeader_withQuotedFieldsAcrossLines() throws IOException {
+        String body = "url,theme_id,name,description\r\n"
+                + "https://example.com/a.jpg,1,amanecer,\"Buenos dias, \"\"familia\"\"\"\r\n"
+                + "https://example.com/b.jpg,2,noche,\"Primera linea\nSegunda linea\"\r\n"
+                + "https://example.com/c.jpg,dos,tarde,Buenas tardes\r\n";
+
+        List<ImageImportRow> rows = readAll(ImageImportReader.csv(new StringReader(body)));
+
+        assertEquals(3, rows.size());
+        assertEquals(new CreateImageDTO("amanecer", "Buenos dias, \"familia\"", "https://example.com/a.jpg", 1L), rows.get(0).image());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("Primera linea\nSegunda linea", rows.get(1).image().description());
+        assertEquals(3, rows.get(1).line());
+        // La descripcion anterior ocupa dos lineas
+        assertEquals(5, rows.get(2).line());
+        assertEquals("themeId must be a number: 'dos'", rows.get(2).error());
+    }
+
+    @Test
+    void csv_shouldRejectHeaderWithoutRequiredColumns() {
+        assertThrows(InvalidImportFormatException.class,
+                () -> ImageImportReader.csv(new StringReader("name,url\namanecer,https://example.com/a.jpg\n")));
+    }
+
+    private static List<ImageImportRow> readAll(ImageImportReader reader) throws IOException {
+        List<ImageImportRow> rows = new ArrayList<>();
+        ImageImportRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,61 @@
+package com.greetingsapp.imagesapi.infra.pagination;
+
+import com.greetingsapp.imagesapi.infra.errors.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void shouldRoundTrip_keepingMicroseconds() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2026-05-10T12:30:45.123456Z"), 42L);
+
+        // Act
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void shouldReturnNull_forEmptyCursor() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void shouldReject_malformedCursors() {
+        assertInvalid("no es base64!");
+        assertInvalid(encode("sin-separadores"));
+        assertInvalid(encode("12:34.5"));
+        assertInvalid(encode("abc.0:1"));
+        assertInvalid(encode("1700000000.0:"));
+    }
+
+    @Test
+    void shouldReject_overflowingOrOutOfRangeValues() {
+        // Con nanos negativos o >= 1e9, Instant.ofEpochSecond desborda al ajustar los segundos
+        assertInvalid(encode(Long.MAX_VALUE + ".1000000000:1"));
+        assertInvalid(encode(Long.MIN_VALUE + ".-1:1"));
+        assertInvalid(encode("1700000000.-1:1"));
+        assertInvalid(encode("1700000000.1000000000:1"));
+        // Fuera del rango de Instant y de DATETIME
+        assertInvalid(encode(Long.MAX_VALUE + ".0:1"));
+        assertInvalid(encode("253402300800.0:1"));
+        assertInvalid(encode("-30610224001.0:1"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(cursor));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package com.greetingsapp.imagesapi.infra.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greetingsapp.imagesapi.domain.users.Role;
+import com.greetingsapp.imagesapi.infra.authentication.TokenClaims;
+import com.greetingsapp.imagesapi.infra.authentication.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientRateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private ClientRateLimitFilter filter;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = mock(TokenService.class);
+        filter = new ClientRateLimitFilter();
+        ReflectionTestUtils.setField(filter, "tokenService", tokenService);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "capacity", 10);
+        ReflectionTestUtils.setField(filter, "refillPerSecond", 5);
+        ReflectionTestUtils.setField(filter, "idleTimeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(filter, "maxClients", 100L);
+        filter.init();
+    }
+
+    @Test
+    void bucketShouldAllowBurst_thenRefillAtConfiguredRate() {
+        // Arrange: 10 tokens de capacidad, 5 por segundo
+        TokenBucketPolicy policy = new TokenBucketPolicy(10, 5);
+        AtomicLong bucket = policy.newBucket(0);
+
+        // Act & Assert: la rafaga completa pasa y el siguiente token se rechaza
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, policy.tryConsume(bucket, 1, 0));
+        }
+        long rejected = policy.tryConsume(bucket, 1, 0);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND / 5, -rejected);
+
+        // A los 200ms se recupera exactamente un token
+        assertEquals(0, policy.tryConsume(bucket, 1, SECOND / 5));
+    }
+
+    @Test
+    void bucketShouldChargeRouteWeight() {
+        TokenBucketPolicy policy = new TokenBucketPolicy(10, 5);
+        AtomicLong bucket = policy.newBucket(0);
+
+        assertEquals(5, policy.tryConsume(bucket, 5, 0));
+        assertEquals(0, policy.tryConsume(bucket, 5, 0));
+        // Faltan 5 tokens: 1 segundo de espera
+        assertEquals(-SECOND, policy.tryConsume(bucket, 5, 0));
+    }
+
+    @Test
+    void shouldRejectWith429_andAccurateHeaders_whenClientExhaustsBucket() throws Exception {
+        // Busqueda cuesta 5 tokens: con capacidad 10, la tercera peticion seguida se rechaza
+        MockHttpServletResponse first = search("10.0.0.1");
+        MockHttpServletResponse second = search("10.0.0.1");
+        MockHttpServletResponse third = search("10.0.0.1");
+
+        assertEquals(200, first.getStatus());
+        assertEquals("5", first.getHeader(ClientRateLimitFilter.REMAINING_HEADER));
+        assertEquals("0", second.getHeader(ClientRateLimitFilter.REMAINING_HEADER));
+        assertEquals(429, third.getStatus());
+        assertEquals("1", third.getHeader("Retry-After"));
+        assertEquals("10", third.getHeader(ClientRateLimitFilter.LIMIT_HEADER));
+
+        // Otro cliente tiene su propia cubeta
+        assertEquals(200, search("10.0.0.2").getStatus());
+    }
+
+    @Test
+    void shouldKeyAuthenticatedClientsByUser_andSkipHealthChecks() throws Exception {
+        when(tokenService.verify("abc")).thenReturn(
+                new TokenClaims("jti", "admin", 1L, Role.ADMIN, 0, null));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/search");
+            request.setRemoteAddr("10.0.0." + i);
+            request.addHeader("Authorization", "Bearer abc");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+        // Mismo usuario desde dos IPs: comparten cubeta y queda agotada
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+        assertNull(health.getHeader(ClientRateLimitFilter.REMAINING_HEADER));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.addHeader("Authorization", "Bearer abc");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        assertEquals(429, response.getStatus());
+    }
+
+    private MockHttpServletResponse search(String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/search");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
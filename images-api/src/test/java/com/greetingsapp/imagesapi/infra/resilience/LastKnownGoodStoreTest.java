@@ -0,0 +1,103 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.ConditionalGetResponseAdvice;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastKnownGoodStoreTest {
+
+    private LastKnownGoodStore store;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        store = new LastKnownGoodStore();
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "maxEntries", 100L);
+        ReflectionTestUtils.setField(store, "maxAge", Duration.ofDays(1));
+        store.init();
+
+        request = new MockHttpServletRequest("GET", "/api/categories");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldRecallByOperationAndArguments_includingNullArguments() {
+        // Arrange: primera pagina por cursor (cursor null) de dos tematicas distintas
+        store.put("getImagesByCursor", List.of("tema-1"), 1L, null, 20);
+        store.put("getImagesByCursor", List.of("tema-2"), 2L, null, 20);
+
+        // Act & Assert
+        assertEquals(Optional.of(List.of("tema-1")), store.recall("getImagesByCursor", 1L, null, 20));
+        assertEquals(Optional.of(List.of("tema-2")), store.recall("getImagesByCursor", 2L, null, 20));
+        assertTrue(store.recall("getImagesByCursor", 3L, null, 20).isEmpty());
+        assertEquals(Optional.of("pagina"), putAndRecall(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void shouldAddStaleAgeHeader_onlyWhenServingStoredData() throws Exception {
+        // Sin dato guardado: no se marca la respuesta
+        assertTrue(store.recall("getAllCategories").isEmpty());
+        assertNull(writeHeaders().getHeader(ConditionalGetResponseAdvice.STALE_AGE_HEADER));
+
+        // Con dato guardado: la respuesta informa su antiguedad
+        store.put("getAllCategories", List.of("Cumpleaños"));
+        store.recall("getAllCategories");
+        assertEquals("0", writeHeaders().getHeader(ConditionalGetResponseAdvice.STALE_AGE_HEADER));
+    }
+
+    @Test
+    void shouldForgetStoredData_onlyAfterADeletionOrRemoteChange() {
+        store.put("getThemes", List.of("Infantil"), 1L);
+
+        // Una alta no vacia el respaldo
+        store.onCatalogChanged(new CatalogChangedEvent("theme-created"));
+        assertEquals(Optional.of(List.of("Infantil")), store.recall("getThemes", 1L));
+
+        // Un borrado si: lo borrado no debe volver a servirse
+        store.onCatalogChanged(new CatalogChangedEvent("theme-deleted"));
+        assertTrue(store.recall("getThemes", 1L).isEmpty());
+
+        // Un cambio de otra instancia tambien: puede haber sido un borrado
+        store.put("getThemes", List.of("Infantil"), 1L);
+        store.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.REMOTE_SOURCE));
+        assertTrue(store.recall("getThemes", 1L).isEmpty());
+    }
+
+    private Optional<Object> putAndRecall(PageRequest pageable) {
+        store.put("getAllImages", "pagina", pageable);
+        // Un Pageable igual (otra instancia) encuentra la misma entrada
+        return store.recall("getAllImages", PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    private MockHttpServletResponse writeHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        new ConditionalGetResponseAdvice().beforeBodyWrite(null, null, null, null,
+                new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+        return response;
+    }
+}
@@ -0,0 +1,189 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import com.greetingsapp.imagesapi.infra.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.repository.Repository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private RepositoryConcurrencyLimiter limiter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new RepositoryConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 1);
+        ReflectionTestUtils.setField(limiter, "minLimit", 1);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 50);
+        limiter.init();
+    }
+
+    @Test
+    void limitShouldGrow_whileLatencyStaysAtBaseline() {
+        VegasLimit limit = new VegasLimit(10, 1, 100);
+        limit.onSample("list", 10 * MS, 10, false); // primera muestra: RTT sin carga
+
+        for (int i = 0; i < 5; i++) {
+            limit.onSample("list", 10 * MS, limit.getLimit(), false);
+        }
+
+        assertTrue(limit.getLimit() > 10, "limit=" + limit.getLimit());
+    }
+
+    @Test
+    void limitShouldShrink_whenLatencyGrowsOrQueriesTimeOut() {
+        VegasLimit limit = new VegasLimit(40, 1, 100);
+        limit.onSample("list", 10 * MS, 40, false);
+
+        // El RTT se triplica con el limite lleno: hay consultas encoladas
+        for (int i = 0; i < 5; i++) {
+            limit.onSample("list", 30 * MS, limit.getLimit(), false);
+        }
+        int afterLatency = limit.getLimit();
+        assertTrue(afterLatency < 40, "limit=" + afterLatency);
+
+        // Un timeout siempre reduce, aunque el RTT parezca bueno
+        limit.onSample("list", 10 * MS, 1, true);
+        assertTrue(limit.getLimit() < afterLatency);
+    }
+
+    @Test
+    void fastAndSlowQueries_shouldNotLookQueued_whenEachStaysAtItsOwnBaseline() {
+        // Una busqueda por PK (0.2 ms) y un listado con COUNT (20 ms), mezclados y sin encolamiento:
+        // con un solo RTT minimo el listado pareceria encolado al 99% y el limite caeria al minimo
+        VegasLimit limit = new VegasLimit(20, 2, 200);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample("CrudRepository.findById(..)", 200_000L, limit.getLimit(), false);
+            limit.onSample("ImageRepository.findAllResponses(..)", 20 * MS, limit.getLimit(), false);
+        }
+
+        assertTrue(limit.getLimit() > 20, "limit=" + limit.getLimit());
+        assertEquals(20 * MS, limit.getRttNoLoad());
+        assertEquals(200_000L, limit.getRttNoLoadByQuery().get("CrudRepository.findById(..)"));
+
+        // Si el listado si se encola (su RTT se triplica), el limite baja aunque la otra consulta siga rapida
+        int before = limit.getLimit();
+        for (int i = 0; i < 10; i++) {
+            limit.onSample("CrudRepository.findById(..)", 200_000L, limit.getLimit(), false);
+            limit.onSample("ImageRepository.findAllResponses(..)", 60 * MS, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() < before, "limit=" + limit.getLimit() + ", before=" + before);
+    }
+
+    @Test
+    void shouldShedCallsAboveLimit_onRepositoryMethods() throws Exception {
+        // Con limite 1, una segunda consulta concurrente se rechaza al instante
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SampleRepository repository = proxy(() -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "ok";
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            var first = executor.submit(repository::find);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConcurrencyLimitExceededException.class, repository::find);
+            assertEquals(1.0, meterRegistry.get("db.concurrency.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+            assertEquals(0, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldReleasePermit_whenRepositoryFails() {
+        SampleRepository repository = proxy(() -> {
+            throw new QueryTimeoutException("timeout");
+        });
+
+        assertThrows(QueryTimeoutException.class, repository::find);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldNotLimitNorSample_callsOnTheWritePool() throws Exception {
+        // Escrituras del admin, lotes de importacion/purga: van al pool de escritura y no cuentan.
+        // Con limite 1, la segunda llamada concurrente pasa igual
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        SampleRepository repository = proxy(() -> {
+            if (calls.incrementAndGet() == 1) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return "ok";
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            var first = executor.submit(() -> ReadWriteRoutingDataSource.onWritePool(() -> call(repository)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertEquals("ok", ReadWriteRoutingDataSource.onWritePool(() -> call(repository)));
+            release.countDown();
+            assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+            assertEquals(0.0, meterRegistry.get("db.concurrency.rejected").counter().count());
+            assertTrue(limiter.getRttNoLoadNanosByQuery().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldNotSample_callsServedWithoutSql() throws Exception {
+        // Resuelta por el cache (ninguna sentencia SQL): ocupa un permiso pero no es una muestra de RTT
+        SampleRepository cached = proxy(() -> "cache");
+        cached.find();
+        assertTrue(limiter.getRttNoLoadNanosByQuery().isEmpty());
+
+        SqlStatementCounter counter = new SqlStatementCounter(null);
+        SampleRepository queried = proxy(() -> counter.inspect("select 1"));
+        queried.find();
+        assertEquals(1, limiter.getRttNoLoadNanosByQuery().size());
+    }
+
+    private static String call(SampleRepository repository) {
+        try {
+            return repository.find();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SampleRepository proxy(SampleRepository target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(SampleRepository.class);
+        factory.addAspect(limiter);
+        return factory.getProxy();
+    }
+
+    interface SampleRepository extends Repository<Object, Long> {
+        String find() throws InterruptedException;
+    }
+}
@@ -0,0 +1,58 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResilienceExceptionHandlerTest {
+
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final RepositoryConcurrencyLimiter concurrencyLimiter = mock(RepositoryConcurrencyLimiter.class);
+    private final ResilienceExceptionHandler handler = new ResilienceExceptionHandler();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(handler, "bulkheadRegistry", bulkheadRegistry);
+        ReflectionTestUtils.setField(handler, "concurrencyLimiter", concurrencyLimiter);
+    }
+
+    @Test
+    void bulkheadRetryAfter_shouldFollowItsMaxWaitDuration() {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("databaseBH",
+                BulkheadConfig.custom().maxWaitDuration(Duration.ofMillis(2500)).build());
+
+        var response = handler.handleBulkheadFull(BulkheadFullException.createBulkheadFullException(bulkhead));
+
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void concurrencyLimitRetryAfter_shouldFollowTheMeasuredLatency() {
+        // 40 consultas en curso con limite 20 y 1,2 s sin carga: dos tandas, 2,4 s
+        when(concurrencyLimiter.getLimit()).thenReturn(20);
+        when(concurrencyLimiter.getInFlight()).thenReturn(40);
+        when(concurrencyLimiter.getRttNoLoadNanos()).thenReturn(1_200_000_000L);
+
+        var response = handler.handleBulkheadFull(new ConcurrencyLimitExceededException(20));
+
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void retryAfter_shouldBeAtLeastOneSecond() {
+        // Sin muestras de latencia todavia
+        when(concurrencyLimiter.getLimit()).thenReturn(20);
+
+        assertEquals(1, handler.retryAfterSeconds(new ConcurrencyLimitExceededException(20)));
+    }
+}
@@ -0,0 +1,191 @@
+package com.greetingsapp.imagesapi.infra.resilience;
+
+import com.greetingsapp.imagesapi.infra.http.ResponseDegradation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private SingleFlightAspect aspect;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new SingleFlightAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aspect, "enabled", true);
+        ReflectionTestUtils.setField(aspect, "timeout", Duration.ofSeconds(5));
+        aspect.init();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_shouldShareOneExecution() throws Exception {
+        SampleService service = proxy(new SampleService(null));
+
+        FutureTask<String> leader = start(() -> service.load(1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        FutureTask<String> follower1 = startAndWaitUntilBlocked(() -> service.load(1L));
+        FutureTask<String> follower2 = startAndWaitUntilBlocked(() -> service.load(1L));
+
+        release.countDown();
+
+        assertEquals("result-1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result-1", follower1.get(5, TimeUnit.SECONDS));
+        assertEquals("result-1", follower2.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(2.0, meterRegistry.get("singleflight.shared").counter().count());
+        assertEquals(0, aspect.getInFlight());
+    }
+
+    @Test
+    void callsWithDifferentArguments_shouldNotShare() throws Exception {
+        release.countDown();
+        SampleService service = proxy(new SampleService(null));
+
+        assertEquals("result-1", service.load(1L));
+        assertEquals("result-2", service.load(2L));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void leaderFailure_shouldBeRethrownToWaitingCalls() throws Exception {
+        SampleService service = proxy(new SampleService(id -> {
+            throw new ConcurrencyLimitExceededException(1);
+        }));
+
+        FutureTask<String> leader = start(() -> service.load(1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        FutureTask<String> follower = startAndWaitUntilBlocked(() -> service.load(1L));
+
+        release.countDown();
+
+        assertInstanceOf(ConcurrencyLimitExceededException.class,
+                assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertInstanceOf(ConcurrencyLimitExceededException.class,
+                assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(1, executions.get());
+        assertEquals(0, aspect.getInFlight());
+    }
+
+    @Test
+    void waitingCall_shouldQueryOnItsOwn_afterTimeout() throws Exception {
+        ReflectionTestUtils.setField(aspect, "timeout", Duration.ofMillis(50));
+        SampleService service = proxy(new SampleService(null));
+
+        FutureTask<String> leader = start(() -> service.load(1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Pasado el timeout, la segunda llamada consulta por su cuenta (y tambien se queda colgada)
+        FutureTask<String> follower = start(() -> service.load(1L));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executions.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, executions.get());
+        assertEquals(1.0, meterRegistry.get("singleflight.timeouts").counter().count());
+
+        release.countDown();
+        assertEquals("result-1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result-1", follower.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void degradedSharedResult_shouldMarkWaitingRequestsAsDegraded() throws Exception {
+        SampleService service = proxy(new SampleService(id -> {
+            ResponseDegradation.markDegraded(); // como haria un fallback
+            return "result-" + id;
+        }));
+
+        FutureTask<String> leader = start(inRequest(() -> service.load(1L)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        FutureTask<Boolean> follower = startAndWaitUntilBlocked(inRequest(() -> {
+            service.load(1L);
+            return ResponseDegradation.capture().degraded();
+        }));
+
+        release.countDown();
+
+        assertEquals("result-1", leader.get(5, TimeUnit.SECONDS));
+        assertTrue(follower.get(5, TimeUnit.SECONDS));
+    }
+
+    private SampleService proxy(SampleService target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private static <T> FutureTask<T> start(Callable<T> call) {
+        FutureTask<T> task = new FutureTask<>(call);
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    // Arranca la llamada y espera a que quede bloqueada esperando el resultado de la ejecucion en curso
+    private static <T> FutureTask<T> startAndWaitUntilBlocked(Callable<T> call) throws InterruptedException {
+        FutureTask<T> task = new FutureTask<>(call);
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.TIMED_WAITING, thread.getState());
+        return task;
+    }
+
+    private static <T> Callable<T> inRequest(Callable<T> call) {
+        return () -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            try {
+                return call.call();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+
+    class SampleService {
+
+        // Lo que devuelve la consulta una vez liberada (null: "result-" + id)
+        private final Function<Long, String> result;
+
+        SampleService(Function<Long, String> result) {
+            this.result = result;
+        }
+
+        @SingleFlight
+        public String load(Long id) throws InterruptedException {
+            executions.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return result != null ? result.apply(id) : "result-" + id;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.greetingsapp.imagesapi.infra.search;
+
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ImageSearchIndexTest {
+
+    private ImageSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Sin transaccion activa, las actualizaciones se aplican de inmediato
+        index = new ImageSearchIndex();
+        index.upsert(document(1L, "feliz-cumpleaños-mama", "Un abrazo en tu día", 10L, "Cumpleaños", "Familia"));
+        index.upsert(document(2L, "rosas-rojas", "Feliz cumpleaños con flores", 11L, "Flores", "Amor y Amistad"));
+        index.upsert(document(3L, "buenos-dias-cafe", "Que tengas un lindo lunes", 12L, "Feliz Lunes", "Buenos Días"));
+    }
+
+    @Test
+    void shouldMatchWithoutAccents_andRankNameMatchesFirst() {
+        Page<ImageResponseDTO> result = index.search("cumpleanos", PageRequest.of(0, 10));
+
+        assertEquals(2, result.getTotalElements());
+        // La imagen 1 lo tiene en el nombre y en la tematica; la 2 solo en la descripcion
+        assertEquals(1L, result.getContent().get(0).imageId());
+    }
+
+    @Test
+    void shouldTreatHyphensAndSpacesAlike_andRequireEveryWord() {
+        List<Long> ids = ids(index.search("feliz-cumpleaños mama", PageRequest.of(0, 10)));
+
+        assertEquals(List.of(1L), ids);
+    }
+
+    @Test
+    void shouldMatchIncompleteWords() {
+        assertEquals(List.of(3L), ids(index.search("buen di", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void shouldApplyIncrementalUpdates() {
+        index.remove(2L);
+        assertEquals(List.of(1L), ids(index.search("cumpleaños", PageRequest.of(0, 10))));
+
+        index.renameTheme(12L, "Saludos Matutinos");
+        assertEquals(List.of(3L), ids(index.search("matutinos", PageRequest.of(0, 10))));
+        assertTrue(index.search("lunes feliz", PageRequest.of(0, 10)).isEmpty());
+
+        // La categoria de la tematica 10 es la 100 (ver document())
+        index.removeCategory(100L);
+        assertTrue(index.search("mama", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesCommittedWhileReadingTheTable() {
+        ImageRepository imageRepository = mock(ImageRepository.class);
+        ReflectionTestUtils.setField(index, "imageRepository", imageRepository);
+        ReflectionTestUtils.setField(index, "taskExecutor", new SyncTaskExecutor());
+        // La lectura ve las imagenes 1 y 3; mientras tanto se crea la 4 y se borra la 3
+        when(imageRepository.findSearchDocumentsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            index.upsert(document(4L, "globos-de-colores", "Fiesta", 10L, "Cumpleaños", "Familia"));
+            index.remove(3L);
+            return List.of(
+                    document(1L, "feliz-cumpleaños-mama", "Un abrazo en tu día", 10L, "Cumpleaños", "Familia"),
+                    document(3L, "buenos-dias-cafe", "Que tengas un lindo lunes", 12L, "Feliz Lunes", "Buenos Días"));
+        });
+
+        // Un cambio de otra instancia dispara la reconstruccion
+        index.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.REMOTE_SOURCE));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(4L), ids(index.search("globos", PageRequest.of(0, 10))));
+        assertTrue(index.search("cafe", PageRequest.of(0, 10)).isEmpty());
+        // La 2 no esta en la BD: la reconstruccion la descarta
+        assertTrue(index.search("rosas", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static List<Long> ids(Page<ImageResponseDTO> page) {
+        return page.getContent().stream().map(ImageResponseDTO::imageId).toList();
+    }
+
+    private static ImageSearchDocument document(Long id, String name, String description,
+                                                Long themeId, String themeName, String categoryName) {
+        return new ImageSearchDocument(id, name, description, "http://example.com/" + id + ".jpg",
+                themeId, themeName, themeId * 10, categoryName, Instant.parse("2026-02-01T10:00:00Z").plusSeconds(id));
+    }
+}
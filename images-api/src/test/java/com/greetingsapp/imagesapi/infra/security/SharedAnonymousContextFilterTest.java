@@ -0,0 +1,47 @@
+package com.greetingsapp.imagesapi.infra.security;
+
+import com.greetingsapp.imagesapi.domain.users.Role;
+import com.greetingsapp.imagesapi.domain.users.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedAnonymousContextFilterTest {
+
+    private final SharedAnonymousContextFilter filter = new SharedAnonymousContextFilter();
+
+    @Test
+    void shouldInstallSharedContextDuringRequest_andClearItAfterwards() throws Exception {
+        AtomicReference<SecurityContext> seen = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/home"), new MockHttpServletResponse(),
+                (request, response) -> seen.set(SecurityContextHolder.getContext()));
+
+        // Todas las peticiones ven la misma instancia, con un token anonimo
+        assertSame(SharedAnonymousContextFilter.ANONYMOUS_CONTEXT, seen.get());
+        assertInstanceOf(AnonymousAuthenticationToken.class, seen.get().getAuthentication());
+        assertNotSame(SharedAnonymousContextFilter.ANONYMOUS_CONTEXT, SecurityContextHolder.getContext());
+    }
+
+    @Test
+    void shouldRejectChangesToSharedContext() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> SharedAnonymousContextFilter.ANONYMOUS_CONTEXT.setAuthentication(null));
+    }
+
+    @Test
+    void shouldReuseRoleAuthorities_insteadOfBuildingThemPerCall() {
+        User user = new User();
+        user.setRole(Role.CLIENT);
+
+        assertSame(user.getAuthorities(), user.getAuthorities());
+        assertEquals("ROLE_CLIENT", user.getAuthorities().iterator().next().getAuthority());
+    }
+}
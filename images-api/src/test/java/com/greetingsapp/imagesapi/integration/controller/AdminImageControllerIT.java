@@ -21,6 +21,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -85,6 +88,37 @@ public class AdminImageControllerIT {
                 .andExpect(jsonPath("$.imageName").value("Imagen Nueva"));
     }
 
+    @Test
+    void createImage_withExistingUrl_returns409Conflict() throws Exception {
+        // La misma url que testImage en su tematica: la rechaza uk_images_theme_url_hash (V10), sin consulta previa
+        CreateImageDTO newImageDTO = new CreateImageDTO("Otro Nombre", "Descripción", "http://example.com/image.jpg", testTheme.getId());
+
+        mockMvc.perform(post("/api/admin/images")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newImageDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorDetails").value("Image with url 'http://example.com/image.jpg' already exists in this theme."));
+    }
+
+    @Test
+    void createImage_withExistingUrlInAnotherTheme_returns201Created() throws Exception {
+        // Una misma imagen puede estar en varias tematicas: la url solo es unica dentro de cada una
+        Theme otherTheme = new Theme();
+        otherTheme.setName("Otra Temática");
+        otherTheme.setCategory(testCategory);
+        themeRepository.save(otherTheme);
+        CreateImageDTO newImageDTO = new CreateImageDTO("Imagen Existente", "Descripción", "http://example.com/image.jpg", otherTheme.getId());
+
+        mockMvc.perform(post("/api/admin/images")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newImageDTO)))
+                .andExpect(status().isCreated());
+    }
+
     @Test
     void createImage_forNonExistentTheme_returns404NotFound() throws Exception {
         CreateImageDTO newImageDTO = new CreateImageDTO("Imagen Fantasma", "Descripción", "http://example.com/ghost.jpg", 999L);
@@ -97,6 +131,52 @@ public class AdminImageControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+    // --- Tests para POST /api/admin/images/bulk ---
+
+    @Test
+    void importImages_withCsv_createsValidRowsAndReportsTheRest() throws Exception {
+        String csv = "name,description,url,themeId\n"
+                + "Bulk Uno,\"Feliz día, mamá\",http://example.com/bulk1.jpg," + testTheme.getId() + "\n"
+                + "Bulk Dos,Descripción,no-es-una-url," + testTheme.getId() + "\n"
+                + "Bulk Tres,Descripción,http://example.com/bulk3.jpg,999\n";
+
+        mockMvc.perform(post("/api/admin/images/bulk")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[1].message").value("Theme not found with id: 999"));
+    }
+
+    @Test
+    void importImages_withCsvMissingColumns_returns400() throws Exception {
+        mockMvc.perform(post("/api/admin/images/bulk")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType("text/csv")
+                        .content("name,url\nBulk,http://example.com/bulk.jpg\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // --- Tests para GET /api/admin/images/export ---
+
+    @Test
+    void exportImages_asCsv_streamsEveryImageWithThemeAndCategory() throws Exception {
+        mockMvc.perform(get("/api/admin/images/export")
+                        .param("format", "CSV")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("attachment")))
+                .andExpect(content().string(containsString(
+                        "Imagen Existente,,http://example.com/image.jpg," + testTheme.getId() + ",Temática de Prueba")));
+    }
+
     // --- Tests para PUT /api/admin/images/{imageId} ---
 
     @Test
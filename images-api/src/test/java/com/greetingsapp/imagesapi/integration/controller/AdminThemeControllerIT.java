@@ -2,22 +2,26 @@ package com.greetingsapp.imagesapi.integration.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.greetingsapp.imagesapi.domain.categories.Category;
+import com.greetingsapp.imagesapi.domain.images.Image;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
 import com.greetingsapp.imagesapi.dto.themes.CreateThemeDTO;
 import com.greetingsapp.imagesapi.dto.themes.UpdateThemeDTO;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
 import com.greetingsapp.imagesapi.repository.ThemeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -39,6 +43,9 @@ public class AdminThemeControllerIT {
     @Autowired
     private ThemeRepository themeRepository;
 
+    @Autowired
+    private ImageRepository imageRepository;
+
     private Category testCategory;
     private Theme testTheme;
 
@@ -98,6 +105,33 @@ public class AdminThemeControllerIT {
                 .andExpect(jsonPath("$.themeName").value("Nombre Actualizado"));
     }
 
+    @Test
+    void updateTheme_withNewCategory_movesItsImages() throws Exception {
+        Category otherCategory = new Category();
+        otherCategory.setName("Otra Categoría");
+        categoryRepository.save(otherCategory);
+
+        Image image = new Image();
+        image.setName("Imagen de la Temática");
+        image.setDescription("Descripción");
+        image.setUrl("http://example.com/image.jpg");
+        image.setTheme(testTheme);
+        imageRepository.save(image);
+
+        UpdateThemeDTO updateDTO = new UpdateThemeDTO("Temática Existente", otherCategory.getId());
+
+        mockMvc.perform(put("/api/admin/themes/" + testTheme.getId())
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isOk());
+
+        // La imagen aparece en el listado de la nueva categoria (images.category_id actualizado)
+        assertEquals(1, imageRepository.findResponsesByCategoryId(otherCategory.getId(), PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, imageRepository.findResponsesByCategoryId(testCategory.getId(), PageRequest.of(0, 10)).getTotalElements());
+    }
+
     @Test
     void updateTheme_withNonExistentId_returns404NotFound() throws Exception {
         UpdateThemeDTO updateDTO = new UpdateThemeDTO("Nombre Fantasma");
@@ -0,0 +1,97 @@
+package com.greetingsapp.imagesapi.integration.controller;
+
+import com.greetingsapp.imagesapi.domain.categories.Category;
+import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
+import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sin @Transactional: el indice se reconstruye leyendo lo que ya esta confirmado en la BD
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ImageSearchControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private Category testCategory;
+    private Theme testTheme;
+    private Image testImage;
+    private String term;
+
+    @BeforeEach
+    void setUp() {
+        term = "busqueda" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+
+        testCategory = new Category();
+        testCategory.setName("Categoría " + term);
+        categoryRepository.save(testCategory);
+
+        testTheme = new Theme();
+        testTheme.setName("Temática " + term);
+        testTheme.setCategory(testCategory);
+        themeRepository.save(testTheme);
+
+        testImage = new Image();
+        testImage.setName("imagen-" + term);
+        testImage.setUrl("http://example.com/" + term + ".jpg");
+        testImage.setTheme(testTheme);
+        imageRepository.save(testImage);
+
+        imageSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        circuitBreakerRegistry.circuitBreaker("databaseCB").reset();
+        imageRepository.delete(testImage);
+        themeRepository.delete(testTheme);
+        categoryRepository.delete(testCategory);
+    }
+
+    @Test
+    void searchImages_withDatabaseCircuitOpen_isAnsweredByTheIndex() throws Exception {
+        assertTrue(imageSearchIndex.isReady());
+        circuitBreakerRegistry.circuitBreaker("databaseCB").transitionToForcedOpenState();
+        assertTrue(circuitBreakerRegistry.circuitBreaker("databaseCB").getState() == CircuitBreaker.State.FORCED_OPEN);
+
+        // Con el circuito abierto la busqueda LIKE iria al fallback (pagina vacia): el resultado sale del indice
+        mockMvc.perform(get("/api/images/search").param("q", term))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].imageId").value(testImage.getId()))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.greetingsapp.imagesapi.integration.repository;
+
+import com.greetingsapp.imagesapi.domain.categories.Category;
+import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mide filas/segundo al insertar 10.000 imagenes con persist() de Hibernate (ids IDENTITY: un viaje
+ * a la BD por fila) y con el lote JDBC de la importacion masiva (ImageBatchInsert + rewriteBatchedStatements).
+ * <p>
+ * No forma parte de la suite: inserta miles de filas contra la BD configurada (todo se revierte al final).
+ * Ejecutar con:
+ * <pre>
+ * mvn test -Dtest=ImageInsertBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ImageInsertBenchmarkIT {
+
+    private static final int ROWS = 10_000;
+    // Filas por lote, como app.bulk-import.batch-size; tambien cada cuantas se hace flush + clear con persist()
+    private static final int CHUNK = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Test
+    void insertTenThousandImages() {
+        double persisted = insertImages("persist", false);
+        double batched = insertImages("batch", true);
+
+        System.out.printf("%n%d imagenes: persist() %.0f filas/s, lote JDBC de %d %.0f filas/s (x%.1f)%n%n",
+                ROWS, persisted, CHUNK, batched, batched / persisted);
+    }
+
+    // Inserta ROWS imagenes de una u otra forma y devuelve filas por segundo
+    private double insertImages(String mode, boolean batch) {
+        Category category = new Category();
+        category.setName("Benchmark " + mode + " " + System.nanoTime());
+        entityManager.persist(category);
+
+        Theme theme = new Theme();
+        theme.setName("Benchmark " + mode);
+        theme.setCategory(category);
+        entityManager.persist(theme);
+        entityManager.flush();
+
+        long start = System.nanoTime();
+        List<Image> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < ROWS; i++) {
+            Image image = new Image();
+            image.setName("benchmark-" + mode + "-" + i);
+            image.setDescription("Imagen de benchmark " + i);
+            image.setUrl("https://example.com/benchmark/" + mode + "/" + i + ".jpg");
+            image.setTheme(theme);
+            if (batch) {
+                chunk.add(image);
+            } else {
+                entityManager.persist(image);
+            }
+
+            if ((i + 1) % CHUNK == 0) {
+                if (batch) {
+                    imageRepository.insertAll(chunk);
+                    chunk.clear();
+                } else {
+                    entityManager.flush();
+                    entityManager.clear();
+                    theme = entityManager.find(Theme.class, theme.getId());
+                }
+            }
+        }
+        imageRepository.insertAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        long elapsedNanos = System.nanoTime() - start;
+
+        return ROWS / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,162 @@
+package com.greetingsapp.imagesapi.integration.repository;
+
+import com.greetingsapp.imagesapi.domain.categories.Category;
+import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.infra.pagination.IndexedSort;
+import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica con EXPLAIN (MySQL) que las consultas de los listados publicos usan los indices de V7:
+ * ninguna debe ordenar con filesort ni recorrer una tabla completa (type = ALL).
+ * <p>
+ * Se ejecuta cada metodo del repositorio tal como lo llaman los servicios, se captura el SQL que
+ * genera Hibernate (StatementInspector) y se pide su plan. Los parametros se sustituyen por valores
+ * fijos (una fecha para created, 1 para el resto): lo que se verifica es la forma de la consulta.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.greetingsapp.imagesapi.integration.repository.QueryPlanIT$SqlRecorder")
+@Transactional
+public class QueryPlanIT {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category testCategory;
+    private Theme testTheme;
+
+    @BeforeEach
+    void setUp() {
+        testCategory = new Category();
+        testCategory.setName("Categoría de Prueba");
+        categoryRepository.save(testCategory);
+
+        testTheme = new Theme();
+        testTheme.setName("Temática de Prueba");
+        testTheme.setCategory(testCategory);
+        themeRepository.save(testTheme);
+
+        // Suficientes filas para que las consultas paginadas ejecuten tambien el COUNT(*)
+        for (int i = 0; i < 30; i++) {
+            Image image = new Image();
+            image.setName("imagen-" + i);
+            image.setDescription("Descripción " + i);
+            image.setUrl("http://example.com/" + i + ".jpg");
+            image.setTheme(testTheme);
+            imageRepository.save(image);
+        }
+        imageRepository.flush();
+    }
+
+    @Test
+    void themeListings_shouldUseIndexOrder() {
+        Long themeId = testTheme.getId();
+        Pageable page = IndexedSort.apply(PageRequest.of(1, 5));
+
+        assertIndexedPlans(() -> imageRepository.findResponsesByThemeId(themeId, page));
+        assertIndexedPlans(() -> imageRepository.findResponseListByThemeId(themeId, PageRequest.of(0, 20,
+                Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id")))));
+        assertIndexedPlans(() -> imageRepository.findFirstPageByThemeId(themeId, PageRequest.ofSize(21)));
+        assertIndexedPlans(() -> imageRepository.findPageAfterByThemeId(themeId, Instant.now(), 100L, PageRequest.ofSize(21)));
+    }
+
+    @Test
+    void globalListings_shouldUseIndexOrder() {
+        assertIndexedPlans(() -> imageRepository.findAllResponses(IndexedSort.apply(PageRequest.of(1, 5))));
+        assertIndexedPlans(() -> imageRepository.findResponseList(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"))));
+        assertIndexedPlans(() -> imageRepository.findFirstPage(PageRequest.ofSize(21)));
+        assertIndexedPlans(() -> imageRepository.findPageAfter(Instant.now(), 100L, PageRequest.ofSize(21)));
+    }
+
+    @Test
+    void categoryListings_shouldReadOnlyImages() {
+        Long categoryId = testCategory.getId();
+
+        // Usan images.category_id (V8): ni la pagina ni su COUNT hacen JOIN con themes
+        assertImagesOnlyPlans(() -> imageRepository.findResponsesByCategoryId(categoryId, IndexedSort.apply(PageRequest.of(1, 5))));
+        assertImagesOnlyPlans(() -> imageRepository.findFirstPageByCategoryId(categoryId, PageRequest.ofSize(21)));
+        assertImagesOnlyPlans(() -> imageRepository.findPageAfterByCategoryId(categoryId, Instant.now(), 100L, PageRequest.ofSize(21)));
+    }
+
+    private void assertImagesOnlyPlans(Runnable query) {
+        assertIndexedPlans(query);
+        for (String sql : SqlRecorder.statements()) {
+            assertFalse(sql.contains(" join "), "JOIN inesperado: " + sql);
+        }
+    }
+
+    private void assertIndexedPlans(Runnable query) {
+        SqlRecorder.clear();
+        query.run();
+        List<String> statements = SqlRecorder.statements();
+        assertFalse(statements.isEmpty(), "No se capturo ninguna consulta");
+
+        for (String sql : statements) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + withLiterals(sql))) {
+                String extra = String.valueOf(row.get("Extra"));
+                if (extra.contains("Using filesort")) {
+                    fail("Filesort en " + row.get("table") + ": " + sql);
+                }
+                if ("ALL".equals(row.get("type"))) {
+                    fail("Recorrido completo de " + row.get("table") + ": " + sql);
+                }
+            }
+        }
+    }
+
+    private static String withLiterals(String sql) {
+        return sql.replaceAll("(created\\s*<=?\\s*)\\?", "$1'2030-01-01 00:00:00'").replace("?", "1");
+    }
+
+    // Registrado en Hibernate por nombre de clase: guarda el SQL de las consultas ejecutadas.
+    // Por hilo, para no mezclar las consultas de tareas en segundo plano (ej: indice de busqueda).
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                STATEMENTS.get().add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            STATEMENTS.get().clear();
+        }
+
+        static List<String> statements() {
+            return List.copyOf(STATEMENTS.get());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.greetingsapp.imagesapi.integration.repository;
+
+import com.greetingsapp.imagesapi.domain.categories.Category;
+import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.pagination.IndexedSort;
+import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mide memoria asignada y CPU por peticion al leer una pagina de 1.000 imagenes:
+ * <ul>
+ *   <li>entidades en una transaccion de escritura (snapshot de cada entidad + dirty checking al hacer commit),</li>
+ *   <li>entidades en una transaccion readOnly (como las consultas publicas de los servicios),</li>
+ *   <li>proyeccion a ImageResponseDTO en una transaccion readOnly (lo que usan los listados de imagenes).</li>
+ * </ul>
+ * Memoria: bytes asignados por el hilo (ThreadMXBean), no el heap retenido. CPU: tiempo de CPU del hilo,
+ * sin la espera a la BD. Se promedian {@value #RUNS} ejecuciones tras {@value #WARMUP} de calentamiento.
+ * <p>
+ * No forma parte de la suite: confirma 1.000 imagenes en la BD configurada y las borra al terminar.
+ * Ejecutar con:
+ * <pre>
+ * mvn test -Dtest=ReadOnlySessionBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReadOnlySessionBenchmarkIT {
+
+    private static final int ROWS = 1_000;
+    private static final int WARMUP = 50;
+    private static final int RUNS = 200;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long categoryId;
+    private Long themeId;
+
+    @BeforeEach
+    void setUp() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Los datos se confirman: las transacciones medidas son independientes y deben verlos
+        readWrite.executeWithoutResult(status -> {
+            Category category = new Category();
+            category.setName("Benchmark lectura " + System.nanoTime());
+            categoryRepository.save(category);
+
+            Theme theme = new Theme();
+            theme.setName("Benchmark lectura " + System.nanoTime());
+            theme.setCategory(category);
+            themeRepository.save(theme);
+
+            for (int i = 0; i < ROWS; i++) {
+                Image image = new Image();
+                image.setName("benchmark-lectura-" + i);
+                image.setDescription("Imagen de benchmark " + i);
+                image.setUrl("https://example.com/benchmark/lectura/" + i + ".jpg");
+                image.setTheme(theme);
+                entityManager.persist(image);
+            }
+            categoryId = category.getId();
+            themeId = theme.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        readWrite.executeWithoutResult(status -> {
+            imageRepository.deleteAllByThemeIdInBulk(themeId);
+            themeRepository.deleteByIdInBulk(themeId);
+            categoryRepository.deleteByIdInBulk(categoryId);
+        });
+    }
+
+    @Test
+    void readThousandRowPage() {
+        Measurement writable = measure(() -> readWrite.execute(status -> loadEntities()));
+        Measurement readOnlyEntities = measure(() -> readOnly.execute(status -> loadEntities()));
+        Measurement projection = measure(() -> readOnly.execute(status -> imageRepository
+                .findResponsesByThemeId(themeId, IndexedSort.apply(PageRequest.of(0, ROWS))).getContent()));
+
+        System.out.printf("%nPagina de %d imagenes (promedio por peticion):%n", ROWS);
+        print("entidades, transaccion de escritura", writable);
+        print("entidades, transaccion readOnly", readOnlyEntities);
+        print("DTO, transaccion readOnly", projection);
+        System.out.printf("readOnly ahorra %.0f KB y %.2f ms de CPU por peticion frente a escritura%n%n",
+                (writable.bytes - readOnlyEntities.bytes) / 1024.0, (writable.cpuNanos - readOnlyEntities.cpuNanos) / 1e6);
+    }
+
+    private List<Image> loadEntities() {
+        return entityManager.createQuery("SELECT i FROM Image i WHERE i.theme.id = :themeId ORDER BY i.id", Image.class)
+                .setParameter("themeId", themeId)
+                .setMaxResults(ROWS)
+                .getResultList();
+    }
+
+    private static Measurement measure(Supplier<List<?>> request) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(ROWS, request.get().size());
+        }
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long cpu = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < RUNS; i++) {
+            request.get();
+        }
+        return new Measurement((THREADS.getCurrentThreadAllocatedBytes() - bytes) / RUNS,
+                (THREADS.getCurrentThreadCpuTime() - cpu) / RUNS);
+    }
+
+    private static void print(String mode, Measurement measurement) {
+        System.out.printf("  %-38s %8.0f KB asignados  %6.2f ms CPU%n", mode, measurement.bytes / 1024.0, measurement.cpuNanos / 1e6);
+    }
+
+    private record Measurement(long bytes, long cpuNanos) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.greetingsapp.imagesapi.integration.repository;
+
+import com.greetingsapp.imagesapi.infra.calendar.SpecialDayCalendar;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica que el camino JDBC (Hikari + driver MySQL + Hibernate) no fija (pin) el hilo portador
+ * cuando corre en hilos virtuales, como en el perfil virtual-threads.
+ * <p>
+ * Lanza {@value #TASKS} lecturas simultaneas en hilos virtuales, muchas mas que conexiones tiene el pool,
+ * para que tambien se espere en Hikari, y recarga a la vez el calendario de dias especiales (consulta bajo lock).
+ * Con JFR se registran los eventos jdk.VirtualThreadPinned (sin umbral): un hilo virtual bloqueado dentro de
+ * un synchronized o de codigo nativo. La prueba falla con la pila de cada bloqueo encontrado.
+ * <p>
+ * Solo corre con Java 21 o superior. Ejecutar con un JDK 21:
+ * <pre>
+ * mvn -Pjava21 test -Dtest=VirtualThreadPinningIT
+ * </pre>
+ */
+@SpringBootTest
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadPinningIT {
+
+    private static final int TASKS = 200;
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private SpecialDayCalendar specialDayCalendar;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void jdbcPathDoesNotPinCarrierThreads() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Path dump = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            for (int i = 0; i < TASKS; i++) {
+                int task = i;
+                executor.submit(() -> {
+                    if (task % 10 == 0) {
+                        // Descarta el calendario para que varias tareas compitan por recargarlo
+                        specialDayCalendar.onCatalogChanged(new CatalogChangedEvent("pinning-test"));
+                        specialDayCalendar.eventsOn(LocalDate.now());
+                    }
+                    readOnly.executeWithoutResult(status -> {
+                        categoryRepository.findAll();
+                        imageRepository.findAllResponses(PageRequest.of(0, 20));
+                    });
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "Las lecturas no terminaron a tiempo");
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        try {
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                    .toList();
+            if (!pinned.isEmpty()) {
+                fail(pinned.size() + " bloqueos con el hilo portador fijado:\n"
+                        + pinned.stream().map(VirtualThreadPinningIT::describe).distinct()
+                        .collect(Collectors.joining("\n\n")));
+            }
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    // El codigo de pruebas compila con el java.version del build (17 por defecto): se obtiene por reflexion
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(sin pila)";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(15)
+                .map(VirtualThreadPinningIT::frame)
+                .collect(Collectors.joining("\n  at ", "  at ", ""));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,106 @@
+package com.greetingsapp.imagesapi.integration.security;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mide el costo de Spring Security para un GET anonimo (sin header Authorization) a /api/categories:
+ * <ul>
+ *   <li>por la cadena completa (securityFilterChain), como antes de la cadena corta,</li>
+ *   <li>por la cadena corta (anonymousPublicGetChain), la que usa hoy un GET anonimo.</li>
+ * </ul>
+ * Se ejecuta cada cadena con un FilterChainProxy propio y un final vacio: no hay controlador, ni BD, ni red,
+ * solo los filtros de seguridad. La fila "sin Spring Security" mide lo que cuesta crear la peticion y la
+ * respuesta simuladas, para restarlo. Memoria: bytes asignados por el hilo (ThreadMXBean). Tiempo: reloj
+ * de pared del hilo, promedio de {@value #RUNS} peticiones tras {@value #WARMUP} de calentamiento.
+ * <p>
+ * No forma parte de la suite. Ejecutar con:
+ * <pre>
+ * mvn test -Dtest=SecurityFilterChainBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SecurityFilterChainBenchmarkIT {
+
+    private static final int WARMUP = 50_000;
+    private static final int RUNS = 200_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // El final de la cadena: en la aplicacion seria el DispatcherServlet
+    private static final FilterChain END = (request, response) -> {
+    };
+
+    @Autowired
+    @Qualifier("securityFilterChain")
+    private SecurityFilterChain fullChain;
+
+    @Autowired
+    @Qualifier("anonymousPublicGetChain")
+    private SecurityFilterChain anonymousChain;
+
+    @Test
+    void anonymousGet() throws Exception {
+        Filter none = (request, response, chain) -> chain.doFilter(request, response);
+        Filter fullProxy = new FilterChainProxy(fullChain);
+        Filter anonymousProxy = new FilterChainProxy(anonymousChain);
+        // Las dos cadenas comparten filtros: se calientan todas antes de medir para que el orden no favorezca a ninguna
+        for (Filter filter : new Filter[]{none, fullProxy, anonymousProxy}) {
+            for (int i = 0; i < WARMUP; i++) {
+                assertEquals(200, run(filter));
+            }
+        }
+
+        Measurement baseline = measure(none);
+        Measurement full = measure(fullProxy);
+        Measurement anonymous = measure(anonymousProxy);
+
+        System.out.printf("%nGET anonimo a /api/categories, solo filtros de seguridad (promedio por peticion):%n");
+        print("sin Spring Security", baseline);
+        print("cadena completa (" + fullChain.getFilters().size() + " filtros)", full);
+        print("cadena corta (" + anonymousChain.getFilters().size() + " filtros)", anonymous);
+        System.out.printf("La cadena corta ahorra %.2f us y %d bytes por peticion (%.0f %% del costo de seguridad)%n%n",
+                (full.nanos - anonymous.nanos) / 1e3, full.bytes - anonymous.bytes,
+                100.0 * (full.nanos - anonymous.nanos) / (full.nanos - baseline.nanos));
+    }
+
+    private static Measurement measure(Filter filter) throws Exception {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            run(filter);
+        }
+        long nanos = System.nanoTime() - start;
+        return new Measurement((THREADS.getCurrentThreadAllocatedBytes() - bytes) / RUNS, (double) nanos / RUNS);
+    }
+
+    private static int run(Filter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.setServletPath("/api/categories");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, END);
+        return response.getStatus();
+    }
+
+    private static void print(String mode, Measurement measurement) {
+        System.out.printf("  %-34s %8.2f us  %6d bytes asignados%n", mode, measurement.nanos / 1e3, measurement.bytes);
+    }
+
+    private record Measurement(long bytes, double nanos) {
+    }
+}
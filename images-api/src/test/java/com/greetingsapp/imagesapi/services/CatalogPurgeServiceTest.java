@@ -0,0 +1,124 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.CatalogVersion;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
+import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.SpecialDayRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogPurgeServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ThemeRepository themeRepository;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private SpecialDayRepository specialDayRepository;
+
+    @Mock
+    private ImageSearchIndex imageSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private CatalogPurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        // El job corre en el mismo hilo para poder verificar su resultado
+        ReflectionTestUtils.setField(purgeService, "taskExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(purgeService, "syncMaxImages", 100L);
+        ReflectionTestUtils.setField(purgeService, "chunkSize", 40);
+        ReflectionTestUtils.setField(purgeService, "historySize", 10);
+        purgeService.init();
+    }
+
+    @Test
+    void smallCategory_shouldBeDeletedWithSetBasedStatements_fromLeavesToRoot() {
+        when(imageRepository.countByCategoryId(1L)).thenReturn(30L);
+
+        Optional<PurgeJobDTO> job = purgeService.purgeCategory(1L);
+
+        assertTrue(job.isEmpty());
+        InOrder order = inOrder(imageRepository, specialDayRepository, themeRepository, categoryRepository);
+        order.verify(imageRepository).deleteAllByCategoryIdInBulk(1L);
+        order.verify(specialDayRepository).deleteAllByCategoryIdInBulk(1L);
+        order.verify(themeRepository).deleteAllByCategoryIdInBulk(1L);
+        order.verify(categoryRepository).deleteByIdInBulk(1L);
+        verify(imageSearchIndex).removeCategory(1L);
+        verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+        // Ninguna transaccion propia: se usa la de la peticion
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void largeTheme_shouldBeDeletedInChunks_andReportProgress() {
+        when(imageRepository.countByThemeId(5L)).thenReturn(130L);
+        when(imageRepository.deleteChunkByThemeId(5L, 40)).thenReturn(40, 40, 40, 10);
+        when(imageRepository.deleteAllByThemeIdInBulk(5L)).thenReturn(0);
+
+        PurgeJobDTO job = purgeService.purgeTheme(5L).orElseThrow();
+
+        PurgeJobDTO finished = purgeService.getJob(job.jobId());
+        assertEquals("COMPLETED", finished.status());
+        assertEquals(130, finished.totalImages());
+        assertEquals(130, finished.deletedImages());
+        assertNotNull(finished.finishedAt());
+        // 4 lotes de imagenes + 1 transaccion final para el resto del arbol
+        verify(transactionManager, times(5)).commit(any());
+        verify(themeRepository).deleteByIdInBulk(5L);
+        verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+        // El sello del catalogo se recalcula tras cada lote confirmado
+        verify(catalogVersion, times(4)).refreshAfterLocalCommit();
+    }
+
+    @Test
+    void failedJob_shouldKeepItsProgressAndCause() {
+        when(imageRepository.countByCategoryId(2L)).thenReturn(500L);
+        when(imageRepository.deleteChunkByCategoryId(2L, 40))
+                .thenReturn(40)
+                .thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"));
+
+        PurgeJobDTO job = purgeService.purgeCategory(2L).orElseThrow();
+
+        PurgeJobDTO failed = purgeService.getJob(job.jobId());
+        assertEquals("FAILED", failed.status());
+        assertEquals(40, failed.deletedImages());
+        assertEquals("Lock wait timeout exceeded", failed.error());
+        verify(categoryRepository, never()).deleteByIdInBulk(anyLong());
+    }
+}
@@ -7,12 +7,16 @@ import com.greetingsapp.imagesapi.dto.categories.CreateCategoryDTO;
 import com.greetingsapp.imagesapi.dto.categories.UpdateCategoryDTO;
 import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
 import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Collections;
 import java.util.List;
@@ -30,6 +34,18 @@ class CategoryServiceTest {
     @Mock // 2. Crea una simulación de CategoryMapper
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private ImageSearchIndex imageSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGood;
+
+    @Mock
+    private CatalogPurgeService catalogPurgeService;
+
     @InjectMocks // 3. Crea una instancia real de CategoryService e inyéctale los mocks de arriba
     private CategoryService categoryService;
 
@@ -128,8 +144,6 @@ class CategoryServiceTest {
         CategoryResponseDTO expectedResponseDTO = new CategoryResponseDTO(1L, "Buenos Días");
 
         // 5. Configuramos el comportamiento de los mocks.
-        // "Cuando se busque por nombre, simula que no existe (para pasar la validación)".
-        when(categoryRepository.findByName("Buenos Dias")).thenReturn(Optional.empty());
         // "Cuando se guarde CUALQUIER objeto Category, devuelve la versión con ID".
         when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
         // "Cuando se mapee la entidad guardada, devuelve el DTO de respuesta esperado".
@@ -159,20 +173,16 @@ class CategoryServiceTest {
         // 1. Preparamos el DTO de entrada con un nombre que ya existe.
         CreateCategoryDTO createDTO = new CreateCategoryDTO("Buenos Días");
 
-        // 2. Creamos una entidad falsa para simular la que ya está en la BD.
-        Category existingCategory = new Category();
-        existingCategory.setId(1L);
-        existingCategory.setName("Buenos Días");
-
-        // 3. Configuramos el mock:
-        // "Cuando el repositorio busque por el nombre 'Buenos Días',
-        // simula que SÍ encontró una categoría".
-        when(categoryRepository.findByName("Buenos Días")).thenReturn(Optional.of(existingCategory));
+        // 2. Configuramos el mock:
+        // "Cuando se guarde la categoría, simula que la BD rechaza el nombre
+        // por la restricción UNIQUE uk_categories_name".
+        when(categoryRepository.save(any(Category.class))).thenThrow(new DataIntegrityViolationException(
+                "Duplicate entry 'Buenos Días' for key 'categories.uk_categories_name'"));
 
 
         // --- ACT & ASSERT (Actuar y Verificar) ---
 
-        // 4. Ejecutamos el metodo y verificamos que lanza la excepción esperada.
+        // 3. Ejecutamos el metodo y verificamos que lanza la excepción esperada.
         // assertThrows captura la excepción para que podamos inspeccionarla.
         DuplicateResourceException exception = assertThrows(
                 DuplicateResourceException.class,
@@ -182,12 +192,13 @@ class CategoryServiceTest {
                 }
         );
 
-        // 5. Verificamos que el mensaje de la excepción es el correcto.
+        // 4. Verificamos que el mensaje de la excepción es el correcto.
         assertEquals("Category with name 'Buenos Días' already exists.", exception.getMessage());
 
-        // 6. Verificamos que el metodo save() del repositorio NUNCA fue llamado,
-        // porque la validación falló antes. ¡Esto es muy importante!
-        verify(categoryRepository, never()).save(any(Category.class));
+        // 5. Verificamos que hubo un solo intento de escritura (sin SELECT previo por nombre)
+        // y que no se publicó el evento de catálogo.
+        verify(categoryRepository, times(1)).save(any(Category.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -215,9 +226,6 @@ class CategoryServiceTest {
         // "Cuando se busque la categoría por ID, devuelve la que ya existe".
         when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(existingCategory));
 
-        // "Cuando se busque por el nuevo nombre, simula que no existe (para pasar la validación)".
-        when(categoryRepository.findByName(updateDTO.name())).thenReturn(Optional.empty());
-
         // "Cuando se guarde CUALQUIER objeto Category, devuelve la versión ya actualizada".
         when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
 
@@ -286,9 +294,8 @@ class CategoryServiceTest {
         // 1. Simulamos que la categoría SÍ existe en la base de datos.
         when(categoryRepository.existsById(categoryId)).thenReturn(true);
 
-        // 2. Le decimos a Mockito que no haga nada cuando se llame a deleteById,
-        //    ya que es un método void. Esto es opcional pero es buena práctica.
-        doNothing().when(categoryRepository).deleteById(categoryId);
+        // 2. La categoria es pequeña: el servicio de borrado la elimina en la misma peticion (sin job).
+        when(catalogPurgeService.purgeCategory(categoryId)).thenReturn(Optional.empty());
 
         // --- ACT (Actuar) ---
 
@@ -300,9 +307,10 @@ class CategoryServiceTest {
 
         // --- ASSERT (Verificar) ---
 
-        // 4. Verificamos que el método deleteById() del repositorio fue llamado
-        //    exactamente una vez con el ID correcto.
-        verify(categoryRepository, times(1)).deleteById(categoryId);
+        // 4. Verificamos que el borrado se delego (DELETE set-based) exactamente una vez con el ID correcto,
+        //    y que nunca se uso deleteById, que cargaria tematicas e imagenes una por una.
+        verify(catalogPurgeService, times(1)).purgeCategory(categoryId);
+        verify(categoryRepository, never()).deleteById(anyLong());
     }
 
     @Test
@@ -320,8 +328,8 @@ class CategoryServiceTest {
             categoryService.deleteCategory(nonExistentId);
         });
 
-        // 3. Verificamos que el método deleteById() NUNCA fue llamado,
+        // 3. Verificamos que el borrado NUNCA se ejecuto,
         //    porque la validación falló primero.
-        verify(categoryRepository, never()).deleteById(anyLong());
+        verify(catalogPurgeService, never()).purgeCategory(anyLong());
     }
 }
@@ -0,0 +1,134 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.dto.home.HomeContentDTO;
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.calendar.SpecialDayCalendar;
+import com.greetingsapp.imagesapi.infra.calendar.SpecialDayEntry;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HomeServiceTest {
+
+    @Mock
+    private SpecialDayCalendar specialDayCalendar;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGood;
+
+    // Ejecuta el recalculo en el mismo hilo para poder verificarlo
+    @Spy
+    private TaskExecutor taskExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+    @InjectMocks
+    private HomeService homeService;
+
+    @Test
+    void shouldServeHomeFromCache_onSameDay() {
+        // Arrange: dia normal, sin dia especial
+        when(specialDayCalendar.eventsOn(any(LocalDate.class))).thenReturn(List.of());
+        when(imageRepository.findResponseList(any(Pageable.class)))
+                .thenReturn(List.of(new ImageResponseDTO(1L, "img", "desc", "http://...")));
+
+        // Act
+        HomeContentDTO first = homeService.getHomeContent();
+        HomeContentDTO second = homeService.getHomeContent();
+
+        // Assert: la BD solo se consulta una vez en el mismo dia
+        assertSame(first, second);
+        assertEquals("DEFAULT", first.type());
+        verify(specialDayCalendar, times(1)).eventsOn(any(LocalDate.class));
+        verify(imageRepository, times(1)).findResponseList(any(Pageable.class));
+        // Solo el calculo contra la BD pasa por el bulkhead; el acierto de cache no
+        verify(bulkheadRegistry, times(1)).bulkhead("databaseBH");
+    }
+
+    @Test
+    void shouldRebuildHome_whenCatalogChanges() {
+        // Arrange
+        when(specialDayCalendar.eventsOn(any(LocalDate.class))).thenReturn(List.of());
+        when(imageRepository.findResponseList(any(Pageable.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new ImageResponseDTO(2L, "nueva", "desc", "http://...")));
+
+        homeService.getHomeContent();
+
+        // Act: un admin agrega una imagen (en el test el listener se ejecuta en el mismo hilo)
+        homeService.onCatalogChanged(new CatalogChangedEvent("image-created"));
+        HomeContentDTO afterChange = homeService.getHomeContent();
+
+        // Assert: el listener ya dejo el cache recalculado, la peticion no vuelve a consultar
+        assertEquals(1, afterChange.images().size());
+        verify(imageRepository, times(2)).findResponseList(any(Pageable.class));
+    }
+
+    @Test
+    void shouldNotCacheHomeCalculatedBeforeAnInvalidation() {
+        // Arrange: mientras se calcula el home, un admin cambia el catalogo (una sola vez)
+        when(specialDayCalendar.eventsOn(any(LocalDate.class))).thenReturn(List.of());
+        ImageResponseDTO fresh = new ImageResponseDTO(2L, "nueva", "desc", "http://...");
+        boolean[] changed = {false};
+        when(imageRepository.findResponseList(any(Pageable.class))).thenAnswer(invocation -> {
+            if (!changed[0]) {
+                changed[0] = true;
+                homeService.onCatalogChanged(new CatalogChangedEvent("image-created"));
+                return List.of(); // calculado con el catalogo viejo
+            }
+            return List.of(fresh);
+        });
+
+        // Act
+        HomeContentDTO stale = homeService.getHomeContent();
+        HomeContentDTO next = homeService.getHomeContent();
+
+        // Assert: el resultado viejo se entrega a quien lo pidio, pero el cache conserva el recalculado
+        assertTrue(stale.images().isEmpty());
+        assertEquals(List.of(fresh), next.images());
+        verify(imageRepository, times(2)).findResponseList(any(Pageable.class));
+    }
+
+    @Test
+    void shouldMixImagesOfAllEvents_whenSeveralSpecialDaysCoincide() {
+        // Arrange: dos eventos el mismo dia, cada uno con su tematica
+        LocalDate date = LocalDate.of(2026, 5, 10);
+        when(specialDayCalendar.eventsOn(date)).thenReturn(List.of(
+                new SpecialDayEntry("Día de las Madres", 1L),
+                new SpecialDayEntry("Día de la Tierra", 2L)));
+        when(imageRepository.findResponseListByThemeId(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(new ImageResponseDTO(10L, "madre-1", "desc", "http://..."),
+                        new ImageResponseDTO(11L, "madre-2", "desc", "http://...")));
+        when(imageRepository.findResponseListByThemeId(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(new ImageResponseDTO(20L, "tierra-1", "desc", "http://...")));
+
+        // Act
+        HomeContentDTO result = homeService.buildHomeContent(date);
+
+        // Assert: se nombran ambos eventos y las imagenes se intercalan
+        assertEquals("SPECIAL_EVENT", result.type());
+        assertEquals("Hoy es Día de las Madres y Día de la Tierra ✨", result.title());
+        assertEquals(List.of(10L, 20L, 11L), result.images().stream().map(ImageResponseDTO::imageId).toList());
+    }
+}
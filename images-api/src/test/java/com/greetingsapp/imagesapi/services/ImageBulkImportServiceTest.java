@@ -0,0 +1,187 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.domain.categories.Category;
+import com.greetingsapp.imagesapi.domain.images.Image;
+import com.greetingsapp.imagesapi.domain.themes.Theme;
+import com.greetingsapp.imagesapi.dto.images.BulkImportErrorDTO;
+import com.greetingsapp.imagesapi.dto.images.BulkImportReportDTO;
+import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
+import com.greetingsapp.imagesapi.infra.events.CatalogChangedEvent;
+import com.greetingsapp.imagesapi.infra.http.CatalogVersion;
+import com.greetingsapp.imagesapi.infra.imports.ImageImportReader;
+import com.greetingsapp.imagesapi.infra.imports.ImageImportRow;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageBulkImportServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ThemeRepository themeRepository;
+
+    @Mock
+    private ImageSearchIndex imageSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private ImageBulkImportService importService;
+
+    private Theme theme;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 10);
+        importService.init();
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Cumpleaños");
+        theme = new Theme();
+        theme.setId(10L);
+        theme.setName("Infantil");
+        theme.setCategory(category);
+    }
+
+    @Test
+    void shouldInsertValidRowsInBatches_andReportInvalidOnes() throws IOException {
+        stubThemes();
+
+        BulkImportReportDTO report = importService.importImages(reader(
+                ImageImportRow.valid(1, image("uno", 10L)),
+                ImageImportRow.valid(2, image("dos", 10L)),
+                ImageImportRow.valid(3, new CreateImageDTO("", "Sin nombre", "https://example.com/x.jpg", 10L)),
+                ImageImportRow.invalid(4, "Invalid JSON: Unexpected end-of-input"),
+                ImageImportRow.valid(5, image("tres", 99L)),
+                ImageImportRow.valid(6, image("cuatro", 10L))));
+
+        assertEquals(6, report.totalRows());
+        assertEquals(3, report.imported());
+        assertEquals(3, report.failed());
+        assertEquals(List.of(
+                new BulkImportErrorDTO(3, "name: Image name is required."),
+                new BulkImportErrorDTO(4, "Invalid JSON: Unexpected end-of-input"),
+                new BulkImportErrorDTO(5, "Theme not found with id: 99")), report.errors());
+        assertFalse(report.errorsTruncated());
+
+        // 4 filas validas en lotes de 2 -> 2 transacciones; las tematicas se leen (y bloquean) una vez por lote
+        verify(transactionManager, times(2)).commit(any());
+        verify(themeRepository).findAllWithCategoryForUpdate(Set.of(10L));
+        verify(themeRepository).findAllWithCategoryForUpdate(Set.of(99L, 10L));
+        verify(imageSearchIndex, times(3)).upsert(any());
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+        // El sello del catalogo se recalcula tras cada lote confirmado, no solo al final
+        verify(catalogVersion, times(2)).refreshAfterLocalCommit();
+    }
+
+    @Test
+    void shouldRetryFailedBatchRowByRow_toReportOnlyTheFailingRow() throws IOException {
+        stubThemes();
+        // Falla el lote completo y, en el reintento, solo la fila "mala"
+        doAnswer(invocation -> {
+            List<Image> images = invocation.getArgument(0);
+            if (images.stream().anyMatch(image -> image.getName().equals("mala"))) {
+                throw new DataIntegrityViolationException("Data too long for column 'name'");
+            }
+            return null;
+        }).when(imageRepository).insertAll(anyList());
+
+        BulkImportReportDTO report = importService.importImages(reader(
+                ImageImportRow.valid(1, image("buena", 10L)),
+                ImageImportRow.valid(2, image("mala", 10L))));
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new BulkImportErrorDTO(2, "Could not be saved: Data too long for column 'name'")), report.errors());
+        verify(imageSearchIndex, times(1)).upsert(any());
+        assertFalse(report.aborted());
+    }
+
+    @Test
+    void shouldStopAndReturnPartialReport_whenTheDatabaseFails() throws IOException {
+        stubThemes();
+        // El primer lote se guarda; el segundo falla por timeout (no es culpa de ninguna fila)
+        doNothing()
+                .doThrow(new QueryTimeoutException("Statement cancelled due to timeout"))
+                .when(imageRepository).insertAll(anyList());
+
+        BulkImportReportDTO report = importService.importImages(reader(
+                ImageImportRow.valid(1, image("uno", 10L)),
+                ImageImportRow.valid(2, image("dos", 10L)),
+                ImageImportRow.valid(3, image("tres", 10L)),
+                ImageImportRow.valid(4, image("cuatro", 10L)),
+                ImageImportRow.valid(5, image("cinco", 10L))));
+
+        // Sin reintento fila a fila y sin leer el resto del cuerpo
+        verify(imageRepository, times(2)).insertAll(anyList());
+        assertTrue(report.aborted());
+        assertEquals(3L, report.abortedAtLine());
+        assertEquals("Statement cancelled due to timeout", report.abortReason());
+        assertEquals(4, report.totalRows());
+        assertEquals(2, report.imported());
+        assertEquals(0, report.failed());
+        // Lo importado antes de la falla si invalida los cache
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+        verify(catalogVersion, times(1)).refreshAfterLocalCommit();
+    }
+
+    @Test
+    void shouldNotPublishCatalogChange_whenNothingWasImported() throws IOException {
+        BulkImportReportDTO report = importService.importImages(reader(ImageImportRow.invalid(1, "Unterminated quoted field.")));
+
+        assertEquals(0, report.imported());
+        assertEquals(1, report.failed());
+        verifyNoInteractions(imageRepository, eventPublisher, catalogVersion);
+    }
+
+    // Solo existe la tematica 10
+    private void stubThemes() {
+        when(themeRepository.findAllWithCategoryForUpdate(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).contains(10L) ? List.of(theme) : List.of());
+    }
+
+    private static CreateImageDTO image(String name, Long themeId) {
+        return new CreateImageDTO(name, "Descripción de " + name, "https://example.com/" + name + ".jpg", themeId);
+    }
+
+    private static ImageImportReader reader(ImageImportRow... rows) {
+        Deque<ImageImportRow> pending = new ArrayDeque<>(List.of(rows));
+        return pending::poll;
+    }
+}
@@ -0,0 +1,58 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDatabaseSearchServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGood;
+
+    @InjectMocks
+    private ImageDatabaseSearchService imageDatabaseSearchService;
+
+    @Test
+    void searchImages_shouldEscapeLikeWildcards() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(imageRepository.searchResponses(anyString(), anyString(), eq(pageable))).thenReturn(Page.empty(pageable));
+
+        imageDatabaseSearchService.searchImages(" 100% feliz_dia! ", pageable);
+
+        // % y _ se buscan literalmente (escape '!', ver ImageRepository.searchResponses)
+        verify(imageRepository).searchResponses("100!%-feliz!_dia!!", "100!% feliz!_dia!!", pageable);
+        verify(lastKnownGood).put(eq("searchImages"), any(), eq("100% feliz_dia!"), eq(pageable));
+    }
+
+    @Test
+    void fallbackShouldServeLastKnownGoodResult_forTheSameQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ImageResponseDTO> lastGood = new PageImpl<>(List.of(new ImageResponseDTO(1L, "img", "desc", "http://...")));
+        when(lastKnownGood.recall("searchImages", "feliz", pageable)).thenReturn(Optional.of(lastGood));
+
+        Page<ImageResponseDTO> result = ReflectionTestUtils.invokeMethod(
+                imageDatabaseSearchService, "searchImagesFallback", " feliz ", pageable, new RuntimeException("BD caida"));
+
+        assertSame(lastGood, result);
+    }
+}
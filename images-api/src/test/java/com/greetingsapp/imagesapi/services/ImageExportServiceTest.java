@@ -0,0 +1,78 @@
+package com.greetingsapp.imagesapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.greetingsapp.imagesapi.dto.images.ImageExportDTO;
+import com.greetingsapp.imagesapi.infra.exports.ImageExportFormat;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageExportServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private ImageExportService imageExportService;
+
+    @BeforeEach
+    void setUp() {
+        imageExportService.init();
+    }
+
+    @Test
+    void exportImages_shouldReadKeysetChunks_eachInItsOwnTransaction() throws IOException {
+        // Un bloque lleno (1000 filas) y uno corto: el segundo empieza despues del ultimo id del primero
+        List<ImageExportDTO> full = LongStream.rangeClosed(1, 1000).mapToObj(this::image).toList();
+        when(imageRepository.findExportPageAfter(0L, PageRequest.ofSize(1000))).thenReturn(full);
+        when(imageRepository.findExportPageAfter(1000L, PageRequest.ofSize(1000))).thenReturn(List.of(image(1001)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = imageExportService.exportImages(ImageExportFormat.NDJSON, () -> out);
+
+        assertEquals(1001, rows);
+        assertEquals(1001, out.toString().lines().count());
+        verify(imageRepository, times(2)).findExportPageAfter(any(), any());
+        // Una transaccion corta por bloque: ninguna queda abierta mientras se escribe la respuesta
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void exportImages_shouldNotOpenTheResponse_whenTheFirstChunkFails() {
+        when(imageRepository.findExportPageAfter(0L, PageRequest.ofSize(1000)))
+                .thenThrow(new IllegalStateException("BD caida"));
+
+        assertThrows(IllegalStateException.class, () -> imageExportService.exportImages(ImageExportFormat.CSV,
+                () -> fail("la respuesta no debe abrirse")));
+    }
+
+    private ImageExportDTO image(long id) {
+        return new ImageExportDTO(id, "img-" + id, "desc", "https://example.com/" + id + ".jpg",
+                3L, "Tematica", 1L, "Categoria", Instant.parse("2024-05-10T08:00:00Z"));
+    }
+}
@@ -5,19 +5,36 @@ import com.greetingsapp.imagesapi.domain.images.ImageMapper;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
 import com.greetingsapp.imagesapi.dto.images.CreateImageDTO;
 import com.greetingsapp.imagesapi.dto.images.ImageResponseDTO;
+import com.greetingsapp.imagesapi.dto.pagination.CursorPageDTO;
+import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
+import com.greetingsapp.imagesapi.infra.errors.InvalidCursorException;
 import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
+import com.greetingsapp.imagesapi.infra.pagination.ImageKeysetRow;
+import com.greetingsapp.imagesapi.infra.pagination.IndexedSort;
+import com.greetingsapp.imagesapi.infra.pagination.KeysetCursor;
 import com.greetingsapp.imagesapi.repository.ImageRepository;
 import com.greetingsapp.imagesapi.repository.ThemeRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -37,6 +54,18 @@ class ImageServiceTest {
     @Mock
     private ImageMapper imageMapper;
 
+    @Mock
+    private ImageSearchIndex imageSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGood;
+
+    @Mock
+    private ImageDatabaseSearchService imageDatabaseSearchService;
+
     @InjectMocks
     private ImageService imageService;
 
@@ -46,17 +75,12 @@ class ImageServiceTest {
         Long themeId = 1L;
         Pageable pageable = PageRequest.of(0, 10);
 
-        Image imageEntity = new Image(); // Entidad
-
-        Page<Image> imagePage = new PageImpl<>(List.of(imageEntity));
-
+        // El repositorio ya devuelve la proyeccion (DTO), sin pasar por entidades ni mapper
         ImageResponseDTO imageDTO = new ImageResponseDTO(100L, "Café y sol", "Un saludo...", "http://...");
+        Page<ImageResponseDTO> imagePage = new PageImpl<>(List.of(imageDTO));
 
         when(themeRepository.existsById(themeId)).thenReturn(true);
-        when(imageRepository.findByThemeId(themeId, pageable)).thenReturn(imagePage);
-
-        // Usamos thenAnswer para simular la operación .map() de la página
-        when(imageMapper.imageToImageResponseDTO(any(Image.class))).thenReturn(imageDTO);
+        when(imageRepository.findResponsesByThemeId(themeId, IndexedSort.apply(pageable))).thenReturn(imagePage);
 
         // Act
         Page<ImageResponseDTO> result = imageService.getImages(themeId, pageable);
@@ -72,10 +96,10 @@ class ImageServiceTest {
         // Arrange
         Long themeId = 2L;
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Image> emptyImagePage = new PageImpl<>(Collections.emptyList());
+        Page<ImageResponseDTO> emptyImagePage = new PageImpl<>(Collections.emptyList());
 
         when(themeRepository.existsById(themeId)).thenReturn(true);
-        when(imageRepository.findByThemeId(themeId, pageable)).thenReturn(emptyImagePage);
+        when(imageRepository.findResponsesByThemeId(themeId, IndexedSort.apply(pageable))).thenReturn(emptyImagePage);
 
         // Act
         Page<ImageResponseDTO> result = imageService.getImages(themeId, pageable);
@@ -99,7 +123,19 @@ class ImageServiceTest {
                 imageService.getImages(themeId, pageable)
         );
 
-        verify(imageRepository, never()).findByThemeId(any(), any());
+        verify(imageRepository, never()).findResponsesByThemeId(any(), any());
+    }
+
+    @Test
+    void shouldOnlySortByIndexedColumns_withIdAsTiebreaker() {
+        // sort=name obligaria a ordenar toda la tabla: se usa el orden del indice (created, id)
+        Pageable requested = PageRequest.of(2, 10, Sort.by("name"));
+        when(imageRepository.findAllResponses(any())).thenReturn(Page.empty());
+
+        imageService.getAllImages(requested);
+
+        verify(imageRepository).findAllResponses(PageRequest.of(2, 10,
+                Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id"))));
     }
 
     @Test
@@ -129,7 +165,7 @@ class ImageServiceTest {
 
         // 5. Configuramos el comportamiento de los mocks.
         // "Cuando se busque la temática padre por ID, encuéntrala".
-        when(themeRepository.findById(createDTO.themeId())).thenReturn(Optional.of(parentTheme));
+        when(themeRepository.findWithCategoryForUpdate(createDTO.themeId())).thenReturn(Optional.of(parentTheme));
 
         // "Cuando se guarde la nueva imagen, devuelve la versión con ID".
         when(imageRepository.save(any(Image.class))).thenReturn(savedImage);
@@ -168,7 +204,7 @@ class ImageServiceTest {
 
         // 2. Configuramos el mock:
         // "Cuando se busque la temática padre por este ID, simula que no se encontró nada".
-        when(themeRepository.findById(nonExistentThemeId)).thenReturn(Optional.empty());
+        when(themeRepository.findWithCategoryForUpdate(nonExistentThemeId)).thenReturn(Optional.empty());
 
 
         // --- ACT & ASSERT (Actuar y Verificar) ---
@@ -187,4 +223,168 @@ class ImageServiceTest {
         // 5. Verificamos que el método save() del repositorio de imágenes NUNCA fue llamado.
         verify(imageRepository, never()).save(any(Image.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldThrowConflict_whenImageUrlAlreadyExists() {
+        // --- ARRANGE ---
+        CreateImageDTO createDTO = new CreateImageDTO("Otra taza", "Un saludo con café.", "http://example.com/cafe.jpg", 1L);
+        Theme parentTheme = new Theme();
+        parentTheme.setId(1L);
+        when(themeRepository.findWithCategoryForUpdate(1L)).thenReturn(Optional.of(parentTheme));
+
+        // La BD rechaza la url por uk_images_theme_url_hash; Hibernate informa el nombre de la restriccion
+        SQLException duplicate = new SQLException("Duplicate entry for key 'images.uk_images_theme_url_hash'", "23000", 1062);
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", duplicate, "images.uk_images_theme_url_hash")))
+                .when(imageRepository).flush();
+
+        // --- ACT & ASSERT ---
+        DuplicateResourceException exception = assertThrows(DuplicateResourceException.class,
+                () -> imageService.createImage(createDTO));
+        assertEquals("Image with url 'http://example.com/cafe.jpg' already exists in this theme.", exception.getMessage());
+
+        // Un solo intento de escritura; nada se indexa ni se publica
+        verify(imageRepository, times(1)).save(any(Image.class));
+        verifyNoInteractions(imageSearchIndex, eventPublisher);
+    }
+
+    // --- Paginacion por cursor (keyset) ---
+
+    @Test
+    void shouldReturnNextCursor_whenMoreRowsThanPageSize() {
+        // Arrange: pedimos 2 por pagina y el repositorio devuelve 3 (la fila extra indica que hay mas)
+        Instant now = Instant.parse("2026-02-01T10:15:30.123456Z");
+        List<ImageKeysetRow> rows = List.of(rowAt(30L, now), rowAt(20L, now), rowAt(10L, now.minusSeconds(60)));
+
+        when(imageRepository.findFirstPage(PageRequest.ofSize(3))).thenReturn(rows);
+
+        // Act
+        CursorPageDTO<ImageResponseDTO> result = imageService.getAllImagesByCursor(null, 2);
+
+        // Assert: solo se entregan 2 filas y el cursor apunta a la ultima entregada (id 20)
+        assertTrue(result.hasNext());
+        assertEquals(2, result.content().size());
+        assertEquals(30L, result.content().get(0).imageId());
+        KeysetCursor next = KeysetCursor.decode(result.nextCursor());
+        assertEquals(20L, next.id());
+        assertEquals(now, next.created());
+    }
+
+    @Test
+    void shouldSeekAfterCursor_andReturnNoCursor_onLastPage() {
+        // Arrange
+        Long themeId = 1L;
+        Instant created = Instant.parse("2026-02-01T10:15:30Z");
+        KeysetCursor cursor = new KeysetCursor(created, 20L);
+
+        when(themeRepository.existsById(themeId)).thenReturn(true);
+        when(imageRepository.findPageAfterByThemeId(themeId, created, 20L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(rowAt(10L, created)));
+
+        // Act
+        CursorPageDTO<ImageResponseDTO> result = imageService.getImagesByCursor(themeId, cursor, 2);
+
+        // Assert
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        assertEquals(1, result.content().size());
+        verify(imageRepository, never()).findFirstPageByThemeId(any(), any());
+    }
+
+    @Test
+    void fallbackShouldServeLastKnownGoodPage_insteadOfEmptyPage() {
+        // Arrange: la BD falla, pero hay una respuesta correcta anterior para la misma pagina
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ImageResponseDTO> lastGood = new PageImpl<>(List.of(new ImageResponseDTO(1L, "img", "desc", "http://...")));
+        when(lastKnownGood.recall("getAllImages", pageable)).thenReturn(Optional.of(lastGood));
+
+        // Act
+        Page<ImageResponseDTO> result = ReflectionTestUtils.invokeMethod(
+                imageService, "getAllImagesFallback", pageable, new RuntimeException("BD caida"));
+
+        // Assert
+        assertSame(lastGood, result);
+    }
+
+    @Test
+    void categoryFallbackShouldServeLastKnownGoodPage() {
+        // Las imagenes por categoria tambien tienen respaldo cuando la BD falla
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ImageResponseDTO> lastGood = new PageImpl<>(List.of(new ImageResponseDTO(1L, "img", "desc", "http://...")));
+        when(lastKnownGood.recall("getImagesByCategory", 5L, pageable)).thenReturn(Optional.of(lastGood));
+
+        Page<ImageResponseDTO> result = ReflectionTestUtils.invokeMethod(
+                imageService, "getImagesByCategoryFallback", 5L, pageable, new RuntimeException("BD caida"));
+
+        assertSame(lastGood, result);
+    }
+
+    @Test
+    void fallbackShouldReturnEmptyPage_whenNothingWasStored() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(lastKnownGood.recall("getImages", 1L, pageable)).thenReturn(Optional.empty());
+
+        Page<ImageResponseDTO> result = ReflectionTestUtils.invokeMethod(
+                imageService, "getImagesFallback", 1L, pageable, new RuntimeException("BD caida"));
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void fallbackShouldRethrowBulkheadRejection_soItAnswers503() {
+        // Un bulkhead lleno no es una BD caida: no se sirve el respaldo, se responde 503
+        Pageable pageable = PageRequest.of(0, 10);
+        BulkheadFullException full = BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("databaseBH"));
+
+        assertThrows(BulkheadFullException.class, () -> ReflectionTestUtils.invokeMethod(
+                imageService, "getAllImagesFallback", pageable, full));
+        verifyNoInteractions(lastKnownGood);
+    }
+
+    @Test
+    void fallbackShouldRethrowNotFound_insteadOfServingDeletedThemeImages() {
+        // Una tematica borrada responde 404, no su ultima pagina guardada
+        Pageable pageable = PageRequest.of(0, 10);
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Theme not found with id: 1");
+
+        assertThrows(ResourceNotFoundException.class, () -> ReflectionTestUtils.invokeMethod(
+                imageService, "getImagesFallback", 1L, pageable, notFound));
+        verifyNoInteractions(lastKnownGood);
+    }
+
+    @Test
+    void searchImages_withIndexReady_shouldNotTouchTheDatabase() {
+        // El indice en memoria responde sin pasar por la busqueda LIKE (ni su Circuit Breaker)
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ImageResponseDTO> indexed = new PageImpl<>(List.of(new ImageResponseDTO(1L, "feliz-dia", "desc", "http://...")));
+        when(imageSearchIndex.isReady()).thenReturn(true);
+        when(imageSearchIndex.search("feliz", pageable)).thenReturn(indexed);
+
+        Page<ImageResponseDTO> result = imageService.searchImages("feliz", pageable);
+
+        assertSame(indexed, result);
+        verifyNoInteractions(imageDatabaseSearchService, imageRepository);
+    }
+
+    @Test
+    void searchImages_withoutIndex_shouldUseDatabaseSearch() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(imageSearchIndex.isReady()).thenReturn(false);
+        when(imageDatabaseSearchService.searchImages("feliz", pageable)).thenReturn(Page.empty(pageable));
+
+        imageService.searchImages("feliz", pageable);
+
+        verify(imageDatabaseSearchService).searchImages("feliz", pageable);
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        assertNull(KeysetCursor.decode(""));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("no-es-un-cursor"));
+    }
+
+    private ImageKeysetRow rowAt(Long id, Instant created) {
+        return new ImageKeysetRow(id, "img", "desc", "http://...", created);
+    }
+}
@@ -3,17 +3,26 @@ package com.greetingsapp.imagesapi.services;
 import com.greetingsapp.imagesapi.domain.categories.Category;
 import com.greetingsapp.imagesapi.domain.themes.Theme;
 import com.greetingsapp.imagesapi.domain.themes.ThemeMapper;
+import com.greetingsapp.imagesapi.dto.purge.PurgeJobDTO;
 import com.greetingsapp.imagesapi.dto.themes.CreateThemeDTO;
 import com.greetingsapp.imagesapi.dto.themes.ThemeResponseDTO;
+import com.greetingsapp.imagesapi.dto.themes.UpdateThemeDTO;
+import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
 import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
+import com.greetingsapp.imagesapi.infra.resilience.LastKnownGoodStore;
+import com.greetingsapp.imagesapi.infra.search.ImageSearchIndex;
 import com.greetingsapp.imagesapi.repository.CategoryRepository;
+import com.greetingsapp.imagesapi.repository.ImageRepository;
 import com.greetingsapp.imagesapi.repository.ThemeRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +42,21 @@ class ThemeServiceTest {
     @Mock
     private ThemeMapper themeMapper;
 
+    @Mock
+    private ImageSearchIndex imageSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGood;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private CatalogPurgeService catalogPurgeService;
+
     @InjectMocks
     private ThemeService themeService;
 
@@ -139,9 +163,6 @@ class ThemeServiceTest {
         // "Cuando se busque la categoría padre por ID, encuéntrala".
         when(categoryRepository.findById(createDTO.categoryId())).thenReturn(Optional.of(parentCategory));
 
-        // "Cuando se verifique si el nombre ya existe en esa categoría, di que no".
-        when(themeRepository.findByNameAndCategory(createDTO.name(), parentCategory)).thenReturn(Optional.empty());
-
         // "Cuando se guarde la nueva temática, devuelve la versión con ID".
         when(themeRepository.save(any(Theme.class))).thenReturn(savedTheme);
 
@@ -165,6 +186,51 @@ class ThemeServiceTest {
         verify(themeRepository, times(1)).save(any(Theme.class));
     }
 
+    @Test
+    void shouldCopyNewCategoryToImages_whenThemeIsMoved() {
+        // --- ARRANGE ---
+        Category oldCategory = new Category();
+        oldCategory.setId(1L);
+        Category newCategory = new Category();
+        newCategory.setId(2L);
+        newCategory.setName("Cumpleaños");
+
+        Theme theme = new Theme();
+        theme.setId(10L);
+        theme.setName("Pasteles");
+        theme.setCategory(oldCategory);
+
+        when(themeRepository.findWithCategoryForUpdate(10L)).thenReturn(Optional.of(theme));
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(newCategory));
+        when(themeRepository.save(theme)).thenReturn(theme);
+
+        // --- ACT ---
+        themeService.updateTheme(10L, new UpdateThemeDTO("Pasteles", 2L));
+
+        // --- ASSERT ---
+        // images.category_id se actualiza en bloque y el indice de busqueda reindexa la tematica
+        assertSame(newCategory, theme.getCategory());
+        verify(imageRepository).updateCategoryByThemeId(10L, newCategory);
+        verify(imageSearchIndex).moveTheme(10L, 2L, "Cumpleaños");
+    }
+
+    @Test
+    void shouldNotTouchImages_whenThemeIsOnlyRenamed() {
+        Category category = new Category();
+        category.setId(1L);
+        Theme theme = new Theme();
+        theme.setId(10L);
+        theme.setCategory(category);
+
+        when(themeRepository.findWithCategoryForUpdate(10L)).thenReturn(Optional.of(theme));
+        when(themeRepository.save(theme)).thenReturn(theme);
+
+        themeService.updateTheme(10L, new UpdateThemeDTO("Nuevo nombre", 1L));
+
+        verifyNoInteractions(imageRepository);
+        verify(imageSearchIndex, never()).moveTheme(any(), any(), any());
+    }
+
     @Test
     void shouldThrowNotFound_whenCreatingThemeForNonExistentCategory() {
         // --- ARRANGE (Preparar el escenario) ---
@@ -193,4 +259,48 @@ class ThemeServiceTest {
         // 5. Verificamos que el metodo save() del repositorio de temáticas NUNCA fue llamado.
         verify(themeRepository, never()).save(any(Theme.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldThrowConflict_whenMovedThemeNameExistsInTargetCategory() {
+        // --- ARRANGE ---
+        Category oldCategory = new Category();
+        oldCategory.setId(1L);
+        Category newCategory = new Category();
+        newCategory.setId(2L);
+
+        Theme theme = new Theme();
+        theme.setId(10L);
+        theme.setCategory(oldCategory);
+
+        when(themeRepository.findWithCategoryForUpdate(10L)).thenReturn(Optional.of(theme));
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(newCategory));
+        // La BD rechaza el nombre repetido en la categoria destino (uk_themes_category_name)
+        doThrow(new DataIntegrityViolationException("Duplicate entry '2-Pasteles' for key 'themes.uk_themes_category_name'"))
+                .when(themeRepository).flush();
+
+        // --- ACT & ASSERT ---
+        DuplicateResourceException exception = assertThrows(DuplicateResourceException.class,
+                () -> themeService.updateTheme(10L, new UpdateThemeDTO("Pasteles", 2L)));
+        assertEquals("Theme with name 'Pasteles' already exists in this category.", exception.getMessage());
+
+        // Sin SELECT previo por nombre, y las imagenes no se tocan
+        verifyNoInteractions(imageRepository, imageSearchIndex, eventPublisher);
+    }
+
+    @Test
+    void shouldReturnPurgeJob_whenDeletingLargeTheme() {
+        // --- ARRANGE ---
+        Long themeId = 10L;
+        PurgeJobDTO job = new PurgeJobDTO("job-1", "theme", themeId, "RUNNING", 20_000, 0, Instant.now(), null, null);
+        when(themeRepository.existsById(themeId)).thenReturn(true);
+        when(catalogPurgeService.purgeTheme(themeId)).thenReturn(Optional.of(job));
+
+        // --- ACT ---
+        Optional<PurgeJobDTO> result = themeService.deleteTheme(themeId);
+
+        // --- ASSERT ---
+        // El borrado se delega (nunca deleteById, que recorre las imagenes una a una)
+        assertEquals(Optional.of(job), result);
+        verify(themeRepository, never()).deleteById(anyLong());
+    }
+}
@@ -5,7 +5,9 @@ import com.greetingsapp.imagesapi.domain.users.User;
 import com.greetingsapp.imagesapi.domain.users.UserMapper;
 import com.greetingsapp.imagesapi.dto.users.CreateUserDTO;
 import com.greetingsapp.imagesapi.dto.users.UserResponseDTO;
+import com.greetingsapp.imagesapi.infra.authentication.TokenRevocationList;
 import com.greetingsapp.imagesapi.infra.errors.DuplicateResourceException;
+import com.greetingsapp.imagesapi.infra.errors.ResourceNotFoundException;
 import com.greetingsapp.imagesapi.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -33,6 +36,9 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
     @InjectMocks
     private UserService userService; //aqui se injectan los mocks(simulaciones) declaradas arriba
 
@@ -63,7 +69,6 @@ class UserServiceTest {
         UserResponseDTO expectedDTO = new UserResponseDTO(1L, "newUser", "ADMIN");
 
         // 5. Configuramos el comportamiento de los mocks.
-        when(userRepository.findByUsername(createDTO.username())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(createDTO.password())).thenReturn("encrypted_password");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
@@ -94,8 +99,9 @@ class UserServiceTest {
         // --- ARRANGE ---
         CreateUserDTO createDTO = new CreateUserDTO("existingUser", "password123", Role.ADMIN);
 
-        // Simula que el username SÍ existe en la base de datos.
-        when(userRepository.findByUsername(createDTO.username())).thenReturn(Optional.of(new User()));
+        // Simula que la BD rechaza el username por su restricción UNIQUE.
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "Duplicate entry 'existingUser' for key 'users.username'"));
 
         // --- ACT & ASSERT ---
         // Verifica que se lanza la excepción correcta.
@@ -103,8 +109,9 @@ class UserServiceTest {
             userService.createUser(createDTO);
         });
 
-        // Verifica que el metodo save NUNCA fue llamado.
-        verify(userRepository, never()).save(any(User.class));
+        // Verifica que hubo un solo intento de escritura, sin SELECT previo por username.
+        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, never()).findByUsername(any());
     }
 
     @Test
@@ -117,8 +124,6 @@ class UserServiceTest {
         String expectedEncodedPassword = "hashed_password_from_encoder"; //contra esperada
 
         // 2. Configuramos el comportamiento de los mocks.
-        when(userRepository.findByUsername(createDTO.username())).thenReturn(Optional.empty());
-
         // "Cuando se llame al encoder con la contraseña en texto plano, devuelve esta versión encriptada".
         when(passwordEncoder.encode("plain-password")).thenReturn(expectedEncodedPassword);
 
@@ -143,4 +148,29 @@ class UserServiceTest {
         assertEquals(expectedEncodedPassword, savedUser.getPassword());
         assertNotEquals("plain-password", savedUser.getPassword());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldIncrementTokenVersion_whenRevokingTokens() {
+        // Arrange
+        User user = new User();
+        user.setId(7L);
+        user.setTokenVersion(2);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        // Act
+        userService.revokeTokens(7L);
+
+        // Assert: los tokens con version < 3 quedan revocados
+        assertEquals(3, user.getTokenVersion());
+        verify(userRepository).save(user);
+        verify(tokenRevocationList).userTokensRevoked(7L, 3);
+    }
+
+    @Test
+    void shouldThrowResourceNotFound_whenRevokingTokensOfUnknownUser() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.revokeTokens(99L));
+        verify(tokenRevocationList, never()).userTokensRevoked(any(), anyInt());
+    }
+}
@@ -0,0 +1,131 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+/**
+ * ============================================
+ * BENCHMARK - CADENA RÁPIDA DE GET ANÓNIMOS
+ * ============================================
+ *
+ * 📚 ¿QUÉ MEDIMOS AQUÍ?
+ * Los GET sin header Authorization pasan por una cadena de seguridad corta
+ * (sin filtro JWT, con un SecurityContext anónimo compartido). Los GET con
+ * token siguen por la cadena completa.
+ *
+ * Este script lanza el MISMO endpoint en dos escenarios, uno detrás del otro:
+ * - anonymous: GET sin Authorization  → cadena rápida
+ * - bearer:    GET con token válido   → cadena completa (JWT + contexto nuevo)
+ *
+ * 📚 ¿CÓMO COMPARAR ANTES / DESPUÉS?
+ * 1. Ejecuta el script contra la versión anterior de la API y guarda el resumen:
+ *      k6 run --summary-export=antes.json test-anonymous-get.js
+ * 2. Ejecuta lo mismo contra la versión actual:
+ *      k6 run --summary-export=despues.json test-anonymous-get.js
+ * 3. Compara anonymous_duration (p50/p95) entre ambos archivos.
+ *    bearer_duration sirve de referencia: su coste no debería cambiar.
+ *
+ * La tasa fija (15 req/s) queda por debajo del Rate Limiter público (50 req/s) y del
+ * rate limiting por cliente (20 tokens/s por IP o usuario), así medimos latencia y no respuestas 429.
+ *
+ * Ejecutar: k6 run test-anonymous-get.js
+ * Con otro endpoint o credenciales:
+ *   k6 run -e ENDPOINT=/api/images -e USERNAME=admin -e PASSWORD=secreto test-anonymous-get.js
+ */
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ENDPOINT = __ENV.ENDPOINT || '/api/categories';
+const USERNAME = __ENV.USERNAME || 'test_user';
+const PASSWORD = __ENV.PASSWORD || 'test_password';
+
+const anonymousDuration = new Trend('anonymous_duration', true);
+const bearerDuration = new Trend('bearer_duration', true);
+
+/**
+ * 📚 SCENARIOS - Escenarios separados
+ *
+ * constant-arrival-rate: k6 mantiene una tasa fija de peticiones por segundo,
+ * sin importar cuánto tarde cada una. Así los dos escenarios son comparables.
+ * startTime hace que "bearer" empiece cuando "anonymous" ya terminó.
+ */
+export const options = {
+    scenarios: {
+        anonymous: {
+            executor: 'constant-arrival-rate',
+            exec: 'anonymousGet',
+            rate: 15,
+            timeUnit: '1s',
+            duration: '60s',
+            preAllocatedVUs: 10,
+        },
+        bearer: {
+            executor: 'constant-arrival-rate',
+            exec: 'bearerGet',
+            rate: 15,
+            timeUnit: '1s',
+            duration: '60s',
+            preAllocatedVUs: 10,
+            startTime: '65s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+/**
+ * 📚 SETUP - Se ejecuta UNA VEZ antes de los escenarios
+ *
+ * Obtiene un token para el escenario "bearer". Si el login falla,
+ * ese escenario se omite y solo se mide la cadena anónima.
+ */
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+
+    if (response.status !== 200) {
+        console.log(`⚠️ Login falló (${response.status}): solo se medirá el escenario anónimo`);
+        return { token: null };
+    }
+    return { token: response.json('token') };
+}
+
+export function anonymousGet() {
+    const response = http.get(`${BASE_URL}${ENDPOINT}`);
+    check(response, {
+        '✅ GET anónimo responde 200': (r) => r.status === 200,
+    });
+    anonymousDuration.add(response.timings.duration);
+}
+
+export function bearerGet(data) {
+    if (!data.token) {
+        return;
+    }
+    const response = http.get(`${BASE_URL}${ENDPOINT}`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+    });
+    check(response, {
+        '✅ GET con token responde 200': (r) => r.status === 200,
+    });
+    bearerDuration.add(response.timings.duration);
+}
+
+export function handleSummary(data) {
+    const line = (name) => {
+        const values = data.metrics[name]?.values;
+        if (!values) {
+            return `   ${name}: sin datos`;
+        }
+        return `   ${name}: p50=${values.med.toFixed(2)}ms p95=${values['p(95)'].toFixed(2)}ms max=${values.max.toFixed(2)}ms`;
+    };
+
+    console.log('\n========================================');
+    console.log(`📊 RESUMEN - GET ${ENDPOINT}`);
+    console.log('========================================');
+    console.log(line('anonymous_duration'));
+    console.log(line('bearer_duration'));
+    console.log('========================================\n');
+
+    return {};
+}
@@ -0,0 +1,104 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+/**
+ * ============================================
+ * COMPARATIVA - HILOS DE PLATAFORMA VS HILOS VIRTUALES
+ * ============================================
+ *
+ * 📚 ¿QUÉ MEDIMOS AQUÍ?
+ * La misma carga de lectura pública (home, categorías, temáticas, imágenes) contra la API
+ * arrancada en dos modos:
+ * - platform: hilos de plataforma (pool de Tomcat, 200 hilos por defecto)
+ * - virtual:  perfil "virtual-threads" con el build de Java 21 (un hilo virtual por petición)
+ *
+ * Cada VU hace peticiones sin pausa. Con más VUs que hilos de Tomcat, en modo platform
+ * las peticiones hacen cola esperando un hilo; en modo virtual esperan conexión en Hikari / databaseBH.
+ *
+ * 📚 ¿CÓMO COMPARAR?
+ * 1. Arranca la API en un modo, con los rate limiters desactivados (ver README) y ejecuta:
+ *      k6 run -e MODE=platform test-threading-compare.js
+ * 2. Reinicia la API en el otro modo y ejecuta:
+ *      k6 run -e MODE=virtual test-threading-compare.js
+ * 3. Compara threading-platform.json con threading-virtual.json:
+ *    throughput (req/s), p95/p99 de http_req_duration y tasa de errores (503 = bulkhead lleno).
+ *
+ * Ejecutar: k6 run -e MODE=platform test-threading-compare.js
+ * Con más carga: k6 run -e MODE=virtual -e MAX_VUS=800 test-threading-compare.js
+ */
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'platform';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '400');
+
+const ENDPOINTS = [
+    '/api/home',
+    '/api/categories',
+    '/api/categories/1/themes',
+    '/api/images?page=0&size=20',
+];
+
+const rejected = new Counter('rejected_503');
+const rateLimited = new Counter('rate_limited');
+
+export const options = {
+    stages: [
+        { duration: '20s', target: MAX_VUS / 4 },  // Calentamiento (JIT, caches, pool de conexiones)
+        { duration: '60s', target: MAX_VUS },      // Subida hasta superar los hilos de Tomcat
+        { duration: '60s', target: MAX_VUS },      // Meseta: aquí se comparan ambos modos
+        { duration: '10s', target: 0 },            // Enfriamiento
+    ],
+    // p(99) en el resumen, además de los percentiles por defecto
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    tags: { mode: MODE },
+};
+
+export default function () {
+    const endpoint = ENDPOINTS[Math.floor(Math.random() * ENDPOINTS.length)];
+    const response = http.get(`${BASE_URL}${endpoint}`, { tags: { name: endpoint } });
+
+    if (response.status === 503) {
+        rejected.add(1);
+    } else if (response.status === 429) {
+        rateLimited.add(1);
+    }
+
+    check(response, {
+        '✅ GET público responde 200': (r) => r.status === 200,
+    });
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const result = {
+        mode: MODE,
+        maxVus: MAX_VUS,
+        throughput: data.metrics.http_reqs.values.rate,
+        p50: duration.med,
+        p95: duration['p(95)'],
+        p99: duration['p(99)'],
+        max: duration.max,
+        failedRate: data.metrics.http_req_failed.values.rate,
+        rejected503: data.metrics.rejected_503?.values.count || 0,
+        rateLimited429: data.metrics.rate_limited?.values.count || 0,
+    };
+
+    const text = [
+        '',
+        '========================================',
+        `📊 RESUMEN - modo ${MODE} (${MAX_VUS} VUs)`,
+        '========================================',
+        `   throughput: ${result.throughput.toFixed(1)} req/s`,
+        `   latencia:   p50=${result.p50.toFixed(2)}ms p95=${result.p95.toFixed(2)}ms p99=${result.p99.toFixed(2)}ms max=${result.max.toFixed(2)}ms`,
+        `   errores:    ${(result.failedRate * 100).toFixed(2)}% (503: ${result.rejected503}, 429: ${result.rateLimited429})`,
+        result.rateLimited429 > 0 ? '   ⚠️ Hubo 429: desactiva los rate limiters, si no se mide el limitador y no los hilos' : '',
+        '========================================',
+        '',
+    ].join('\n');
+
+    return {
+        stdout: text,
+        [`threading-${MODE}.json`]: JSON.stringify(result, null, 2),
+    };
+}